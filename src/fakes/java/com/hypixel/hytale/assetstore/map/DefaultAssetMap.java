@@ -0,0 +1,26 @@
+package com.hypixel.hytale.assetstore.map;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in: a plain map that benchmarks and the simulator fill through put().
+ */
+public class DefaultAssetMap<K, T> {
+    private final Map<K, T> assets = new HashMap<>();
+
+    public Map<K, T> getAssetMap() {
+        return assets;
+    }
+
+    public T getAsset(K key) {
+        return assets.get(key);
+    }
+
+    @FakeOnly
+    public void put(K key, T asset) {
+        assets.put(key, asset);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hypixel.hytale.builtin.crafting.state;
+
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.bench.Bench;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in: a furnace, tannery or other processing bench.
+ */
+public class ProcessingBenchState {
+    private final Bench bench;
+    private final ItemContainer container;
+    private boolean active;
+
+    @FakeOnly
+    public ProcessingBenchState(Bench bench, ItemContainer container) {
+        this.bench = bench;
+        this.container = container;
+    }
+
+    public Bench getBench() {
+        return bench;
+    }
+
+    public ItemContainer getItemContainer() {
+        return container;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
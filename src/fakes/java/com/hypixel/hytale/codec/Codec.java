@@ -0,0 +1,12 @@
+package com.hypixel.hytale.codec;
+
+/**
+ * Stand-in: only the constants QuickStackConfig refers to. Nothing is ever encoded.
+ */
+public interface Codec<T> {
+    Codec<Integer> INTEGER = new Codec<>() {};
+    Codec<Boolean> BOOLEAN = new Codec<>() {};
+    Codec<String> STRING = new Codec<>() {};
+    Codec<Double> DOUBLE = new Codec<>() {};
+    Codec<Long> LONG = new Codec<>() {};
+}
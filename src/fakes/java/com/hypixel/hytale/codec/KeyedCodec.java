@@ -0,0 +1,19 @@
+package com.hypixel.hytale.codec;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class KeyedCodec<T> {
+    private final String key;
+
+    public KeyedCodec(String key, Codec<T> codec) {
+        this.key = key;
+    }
+
+    @FakeOnly
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hypixel.hytale.codec.builder;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Stand-in: accepts the field declarations of a codec and discards them.
+ */
+public class BuilderCodec<T> implements Codec<T> {
+
+    public static <T> Builder<T> builder(Class<T> type, Supplier<T> constructor) {
+        return new Builder<>();
+    }
+
+    public static class Builder<T> {
+        public <F> Field<T> append(KeyedCodec<F> key, BiConsumer<T, F> setter, Function<T, F> getter) {
+            return new Field<>(this);
+        }
+
+        public BuilderCodec<T> build() {
+            return new BuilderCodec<>();
+        }
+    }
+
+    public static class Field<T> {
+        private final Builder<T> builder;
+
+        Field(Builder<T> builder) {
+            this.builder = builder;
+        }
+
+        public Builder<T> add() {
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.hypixel.hytale.component;
+
+/**
+ * Stand-in.
+ */
+public interface Component<T> extends Cloneable {
+    Component<T> clone();
+}
@@ -0,0 +1,30 @@
+package com.hypixel.hytale.math.util;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in. Chunks are 32 blocks wide; an index packs chunk x in the high and chunk z
+ * in the low 32 bits.
+ */
+public final class ChunkUtil {
+
+    private ChunkUtil() {}
+
+    public static long indexChunk(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static long indexChunkFromBlock(int blockX, int blockZ) {
+        return indexChunk(blockX >> 5, blockZ >> 5);
+    }
+
+    @FakeOnly
+    public static int xOfChunkIndex(long index) {
+        return (int) (index >> 32);
+    }
+
+    @FakeOnly
+    public static int zOfChunkIndex(long index) {
+        return (int) index;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hypixel.hytale.math.vector;
+
+/**
+ * Stand-in.
+ */
+public class Vector3d {
+    public double x;
+    public double y;
+    public double z;
+
+    public Vector3d(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+}
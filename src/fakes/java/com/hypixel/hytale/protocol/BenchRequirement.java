@@ -0,0 +1,17 @@
+package com.hypixel.hytale.protocol;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class BenchRequirement {
+    public BenchType type;
+    public String id;
+
+    @FakeOnly
+    public BenchRequirement(BenchType type, String id) {
+        this.type = type;
+        this.id = id;
+    }
+}
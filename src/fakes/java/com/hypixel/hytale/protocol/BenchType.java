@@ -0,0 +1,9 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stand-in.
+ */
+public enum BenchType {
+    Crafting,
+    Processing
+}
@@ -0,0 +1,17 @@
+package com.hypixel.hytale.protocol;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class ItemResourceType {
+    public String id;
+    public int quantity;
+
+    @FakeOnly
+    public ItemResourceType(String id, int quantity) {
+        this.id = id;
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hypixel.hytale.server.core.asset.type.blocktype.config.bench;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class Bench {
+    private final String id;
+
+    @FakeOnly
+    public Bench(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hypixel.hytale.server.core.asset.type.blocktype.config.bench;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class ProcessingBench extends Bench {
+    private final ProcessingSlot[] fuel;
+
+    @FakeOnly
+    public ProcessingBench(String id, ProcessingSlot... fuel) {
+        super(id);
+        this.fuel = fuel;
+    }
+
+    public ProcessingSlot[] getFuel() {
+        return fuel;
+    }
+
+    public static class ProcessingSlot {
+        private final String resourceTypeId;
+
+        @FakeOnly
+        public ProcessingSlot(String resourceTypeId) {
+            this.resourceTypeId = resourceTypeId;
+        }
+
+        public String getResourceTypeId() {
+            return resourceTypeId;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hypixel.hytale.server.core.asset.type.item.config;
+
+import com.hypixel.hytale.assetstore.map.DefaultAssetMap;
+import com.hypixel.hytale.protocol.BenchRequirement;
+import com.hypixel.hytale.server.core.inventory.MaterialQuantity;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class CraftingRecipe {
+    private static final DefaultAssetMap<String, CraftingRecipe> ASSETS = new DefaultAssetMap<>();
+
+    private final String id;
+    private final MaterialQuantity[] input;
+    private final BenchRequirement[] benchRequirement;
+    private final double timeSeconds;
+
+    @FakeOnly
+    public CraftingRecipe(String id, MaterialQuantity[] input, BenchRequirement[] benchRequirement, double timeSeconds) {
+        this.id = id;
+        this.input = input;
+        this.benchRequirement = benchRequirement;
+        this.timeSeconds = timeSeconds;
+    }
+
+    public static DefaultAssetMap<String, CraftingRecipe> getAssetMap() {
+        return ASSETS;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public MaterialQuantity[] getInput() {
+        return input;
+    }
+
+    public BenchRequirement[] getBenchRequirement() {
+        return benchRequirement;
+    }
+
+    public double getTimeSeconds() {
+        return timeSeconds;
+    }
+}
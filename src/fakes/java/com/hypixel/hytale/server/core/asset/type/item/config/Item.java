@@ -0,0 +1,34 @@
+package com.hypixel.hytale.server.core.asset.type.item.config;
+
+import com.hypixel.hytale.assetstore.map.DefaultAssetMap;
+import com.hypixel.hytale.protocol.ItemResourceType;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class Item {
+    private static final DefaultAssetMap<String, Item> ASSETS = new DefaultAssetMap<>();
+
+    private final String id;
+    private final ItemResourceType[] resourceTypes;
+
+    @FakeOnly
+    public Item(String id, ItemResourceType... resourceTypes) {
+        this.id = id;
+        this.resourceTypes = resourceTypes;
+    }
+
+    public static DefaultAssetMap<String, Item> getAssetMap() {
+        return ASSETS;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ItemResourceType[] getResourceTypes() {
+        return resourceTypes;
+    }
+}
@@ -0,0 +1,42 @@
+package com.hypixel.hytale.server.core.entity.entities;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+import java.util.UUID;
+
+/**
+ * Stand-in: only what the services read from a player.
+ */
+public class Player {
+    private final UUID uuid = UUID.randomUUID();
+    private final World world;
+    private final Inventory inventory;
+    private final TransformComponent transform;
+
+    @FakeOnly
+    public Player(World world, Inventory inventory, Vector3d position) {
+        this.world = world;
+        this.inventory = inventory;
+        this.transform = new TransformComponent(position);
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    public TransformComponent getTransformComponent() {
+        return transform;
+    }
+}
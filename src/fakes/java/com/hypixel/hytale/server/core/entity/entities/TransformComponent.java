@@ -0,0 +1,21 @@
+package com.hypixel.hytale.server.core.entity.entities;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class TransformComponent {
+    private final Vector3d position;
+
+    @FakeOnly
+    public TransformComponent(Vector3d position) {
+        this.position = position;
+    }
+
+    public Vector3d getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hypixel.hytale.server.core.inventory;
+
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class Inventory {
+    private final ItemContainer backpack;
+    private final ItemContainer storage;
+    private final ItemContainer hotbar;
+
+    @FakeOnly
+    public Inventory(ItemContainer backpack, ItemContainer storage, ItemContainer hotbar) {
+        this.backpack = backpack;
+        this.storage = storage;
+        this.hotbar = hotbar;
+    }
+
+    public ItemContainer getBackpack() {
+        return backpack;
+    }
+
+    public ItemContainer getStorage() {
+        return storage;
+    }
+
+    public ItemContainer getHotbar() {
+        return hotbar;
+    }
+}
@@ -0,0 +1,30 @@
+package com.hypixel.hytale.server.core.inventory;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in: an immutable item id and quantity.
+ */
+public class ItemStack {
+    private final String itemId;
+    private final int quantity;
+
+    @FakeOnly
+    public ItemStack(String itemId, int quantity) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @FakeOnly
+    public ItemStack withQuantity(int quantity) {
+        return quantity <= 0 ? null : new ItemStack(itemId, quantity);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hypixel.hytale.server.core.inventory;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class MaterialQuantity {
+    private final String itemId;
+    private final String resourceTypeId;
+    private final int quantity;
+
+    @FakeOnly
+    public MaterialQuantity(String itemId, String resourceTypeId, int quantity) {
+        this.itemId = itemId;
+        this.resourceTypeId = resourceTypeId;
+        this.quantity = quantity;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public String getResourceTypeId() {
+        return resourceTypeId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hypixel.hytale.server.core.inventory.container;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.ListTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.MoveTransaction;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stand-in: a fixed array of slots with one stack limit for every item.
+ * Adding merges into stacks of the same item first, then fills empty slots in order.
+ */
+public class ItemContainer {
+
+    @FakeOnly
+    public static final int DEFAULT_MAX_STACK = 100;
+
+    private final ItemStack[] slots;
+    private final int maxStack;
+
+    @FakeOnly
+    public ItemContainer(int capacity) {
+        this(capacity, DEFAULT_MAX_STACK);
+    }
+
+    @FakeOnly
+    public ItemContainer(int capacity, int maxStack) {
+        this.slots = new ItemStack[capacity];
+        this.maxStack = maxStack;
+    }
+
+    public short getCapacity() {
+        return (short) slots.length;
+    }
+
+    public ItemStack getItemStack(short slot) {
+        return slots[slot];
+    }
+
+    @FakeOnly
+    public void setItemStack(short slot, ItemStack stack) {
+        slots[slot] = stack;
+    }
+
+    public MoveTransaction<ItemStackTransaction> moveItemStackFromSlot(short slot, ItemContainer target) {
+        ItemStack stack = slots[slot];
+        return moveItemStackFromSlot(slot, stack == null ? 0 : stack.getQuantity(), target);
+    }
+
+    public MoveTransaction<ItemStackTransaction> moveItemStackFromSlot(short slot, int quantity, ItemContainer target) {
+        ItemStack stack = slots[slot];
+        if (stack == null || quantity <= 0) {
+            return new MoveTransaction<>(false, null);
+        }
+
+        int requested = Math.min(quantity, stack.getQuantity());
+        int left = target.add(stack.getItemId(), requested);
+        int moved = requested - left;
+        slots[slot] = stack.withQuantity(stack.getQuantity() - moved);
+
+        ItemStackTransaction add = new ItemStackTransaction(
+            new ItemStack(stack.getItemId(), requested),
+            left > 0 ? new ItemStack(stack.getItemId(), left) : null);
+        return new MoveTransaction<>(moved > 0, add);
+    }
+
+    /**
+     * Moves every stack whose item the target already holds.
+     */
+    public ListTransaction<MoveTransaction<ItemStackTransaction>> quickStackTo(ItemContainer target) {
+        List<MoveTransaction<ItemStackTransaction>> moves = new ArrayList<>();
+        boolean any = false;
+        for (short slot = 0; slot < slots.length; slot++) {
+            ItemStack stack = slots[slot];
+            if (stack == null || !target.contains(stack.getItemId())) continue;
+
+            MoveTransaction<ItemStackTransaction> move = moveItemStackFromSlot(slot, target);
+            moves.add(move);
+            any |= move.succeeded();
+        }
+        return new ListTransaction<>(moves, any);
+    }
+
+    /**
+     * @return quantity that did not fit
+     */
+    @FakeOnly
+    public int add(String itemId, int quantity) {
+        int left = quantity;
+        for (int i = 0; i < slots.length && left > 0; i++) {
+            ItemStack stack = slots[i];
+            if (stack != null && stack.getItemId().equals(itemId) && stack.getQuantity() < maxStack) {
+                int take = Math.min(left, maxStack - stack.getQuantity());
+                slots[i] = stack.withQuantity(stack.getQuantity() + take);
+                left -= take;
+            }
+        }
+        for (int i = 0; i < slots.length && left > 0; i++) {
+            if (slots[i] == null) {
+                int take = Math.min(left, maxStack);
+                slots[i] = new ItemStack(itemId, take);
+                left -= take;
+            }
+        }
+        return left;
+    }
+
+    @FakeOnly
+    public boolean contains(String itemId) {
+        for (ItemStack stack : slots) {
+            if (stack != null && stack.getItemId().equals(itemId)) return true;
+        }
+        return false;
+    }
+
+    @FakeOnly
+    public void clear() {
+        Arrays.fill(slots, null);
+    }
+}
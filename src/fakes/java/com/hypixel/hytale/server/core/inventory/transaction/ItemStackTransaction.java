@@ -0,0 +1,31 @@
+package com.hypixel.hytale.server.core.inventory.transaction;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in: what was offered to a container and what it did not take.
+ */
+public class ItemStackTransaction {
+    private final ItemStack query;
+    private final ItemStack remainder;
+
+    @FakeOnly
+    public ItemStackTransaction(ItemStack query, ItemStack remainder) {
+        this.query = query;
+        this.remainder = remainder;
+    }
+
+    public ItemStack getQuery() {
+        return query;
+    }
+
+    public ItemStack getRemainder() {
+        return remainder;
+    }
+
+    public boolean succeeded() {
+        return remainder == null || remainder.getQuantity() < query.getQuantity();
+    }
+}
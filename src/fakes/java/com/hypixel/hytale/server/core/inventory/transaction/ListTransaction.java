@@ -0,0 +1,31 @@
+package com.hypixel.hytale.server.core.inventory.transaction;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+import java.util.List;
+
+/**
+ * Stand-in.
+ */
+public class ListTransaction<T> {
+    private final List<T> list;
+    private final boolean succeeded;
+
+    @FakeOnly
+    public ListTransaction(List<T> list, boolean succeeded) {
+        this.list = list;
+        this.succeeded = succeeded;
+    }
+
+    public int size() {
+        return list.size();
+    }
+
+    public boolean succeeded() {
+        return succeeded;
+    }
+
+    public List<T> getList() {
+        return list;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hypixel.hytale.server.core.inventory.transaction;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class MoveTransaction<T> {
+    private final boolean succeeded;
+    private final T addTransaction;
+
+    @FakeOnly
+    public MoveTransaction(boolean succeeded, T addTransaction) {
+        this.succeeded = succeeded;
+        this.addTransaction = addTransaction;
+    }
+
+    public boolean succeeded() {
+        return succeeded;
+    }
+
+    public T getAddTransaction() {
+        return addTransaction;
+    }
+}
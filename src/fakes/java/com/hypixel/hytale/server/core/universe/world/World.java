@@ -0,0 +1,112 @@
+package com.hypixel.hytale.server.core.universe.world;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.universe.world.chunk.BlockChunk;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Stand-in: a square of loaded chunks around the origin, with block states stored in the
+ * chunk sections. Lookups don't allocate, so allocation figures reflect the plugin's own code.
+ * execute() queues tasks from any thread; whoever plays the world thread runs them with tick().
+ * Block access is not thread-safe, like the real world outside its thread.
+ */
+public class World implements Executor {
+
+    private final String name;
+    private final int chunkRadius;
+    private final WorldChunk[] chunks;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param chunkRadius chunks from -chunkRadius to chunkRadius on both axes are loaded
+     */
+    @FakeOnly
+    public World(String name, int chunkRadius) {
+        this.name = name;
+        this.chunkRadius = chunkRadius;
+        int side = chunkRadius * 2 + 1;
+        this.chunks = new WorldChunk[side * side];
+        for (int cx = -chunkRadius; cx <= chunkRadius; cx++) {
+            for (int cz = -chunkRadius; cz <= chunkRadius; cz++) {
+                chunks[slot(cx, cz)] = new WorldChunk(cx, cz);
+            }
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+    }
+
+    /**
+     * Runs the tasks queued before this call; tasks they queue wait for the next tick.
+     * @return number of tasks run
+     */
+    @FakeOnly
+    public int tick() {
+        int count = tasks.size();
+        for (int i = 0; i < count; i++) {
+            Runnable task = tasks.poll();
+            if (task == null) return i;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                System.err.println("[World " + name + "] Task failed: " + t);
+            }
+        }
+        return count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WorldChunk getChunkIfLoaded(long index) {
+        return chunk(ChunkUtil.xOfChunkIndex(index), ChunkUtil.zOfChunkIndex(index));
+    }
+
+    public Object getState(int x, int y, int z, boolean followFiller) {
+        WorldChunk chunk = chunk(x >> 5, z >> 5);
+        if (chunk == null || y < 0 || y >= BlockChunk.HEIGHT) return null;
+        return chunk.getBlockChunk().getSectionAtBlockY(y).getState(x & 31, y & 31, z & 31);
+    }
+
+    /**
+     * Places a block state; the chunk must be loaded.
+     */
+    @FakeOnly
+    public void setState(int x, int y, int z, Object state) {
+        WorldChunk chunk = chunk(x >> 5, z >> 5);
+        if (chunk == null || y < 0 || y >= BlockChunk.HEIGHT) {
+            throw new IllegalArgumentException("Block outside the loaded area: " + x + "," + y + "," + z);
+        }
+        chunk.getBlockChunk().getSectionAtBlockY(y).setState(x & 31, y & 31, z & 31, state);
+    }
+
+    /**
+     * Marks every section below y as solid terrain, so the index has to probe it.
+     */
+    @FakeOnly
+    public void fillTerrain(int belowY) {
+        for (WorldChunk chunk : chunks) {
+            for (int y = 0; y < Math.min(belowY, BlockChunk.HEIGHT); y += 32) {
+                chunk.getBlockChunk().getSectionAtBlockY(y).setSolid(true);
+            }
+        }
+    }
+
+    private WorldChunk chunk(int cx, int cz) {
+        if (cx < -chunkRadius || cx > chunkRadius || cz < -chunkRadius || cz > chunkRadius) return null;
+        return chunks[slot(cx, cz)];
+    }
+
+    private int slot(int cx, int cz) {
+        return (cx + chunkRadius) * (chunkRadius * 2 + 1) + (cz + chunkRadius);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hypixel.hytale.server.core.universe.world.chunk;
+
+import com.hypixel.hytale.server.core.universe.world.chunk.section.BlockSection;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in: a column of HEIGHT / 32 sections. Blocks outside the column read as air.
+ */
+public class BlockChunk {
+
+    @FakeOnly
+    public static final int HEIGHT = 320;
+
+    private static final BlockSection OUTSIDE = new BlockSection();
+
+    private final BlockSection[] sections = new BlockSection[HEIGHT >> 5];
+
+    public BlockChunk() {
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new BlockSection();
+        }
+    }
+
+    public BlockSection getSectionAtBlockY(int y) {
+        int index = y >> 5;
+        return index < 0 || index >= sections.length ? OUTSIDE : sections[index];
+    }
+}
@@ -0,0 +1,32 @@
+package com.hypixel.hytale.server.core.universe.world.chunk;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in.
+ */
+public class WorldChunk {
+    private final int chunkX;
+    private final int chunkZ;
+    private final BlockChunk blockChunk = new BlockChunk();
+
+    @FakeOnly
+    public WorldChunk(int chunkX, int chunkZ) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    @FakeOnly
+    public int getX() {
+        return chunkX;
+    }
+
+    @FakeOnly
+    public int getZ() {
+        return chunkZ;
+    }
+
+    public BlockChunk getBlockChunk() {
+        return blockChunk;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hypixel.hytale.server.core.universe.world.chunk.section;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+import java.util.Arrays;
+
+/**
+ * Stand-in: a 32x32x32 section. Block states are kept in a small open-addressing table, since
+ * simulated bases hold a handful of states per section; lookups don't allocate.
+ */
+public class BlockSection {
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private boolean solid;
+
+    public boolean isSolidAir() {
+        return !solid && size == 0;
+    }
+
+    @FakeOnly
+    public void setSolid(boolean solid) {
+        this.solid = solid;
+    }
+
+    @FakeOnly
+    public Object getState(int localX, int localY, int localZ) {
+        if (size == 0) return null;
+
+        int key = index(localX, localY, localZ);
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k < 0) return null;
+        }
+    }
+
+    @FakeOnly
+    public void setState(int localX, int localY, int localZ, Object state) {
+        if (state == null) {
+            throw new IllegalArgumentException("Removing states is not supported");
+        }
+        if (keys == null) {
+            keys = new int[16];
+            values = new Object[16];
+            Arrays.fill(keys, -1);
+        } else if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        if (insert(keys, values, index(localX, localY, localZ), state)) {
+            size++;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        Arrays.fill(keys, -1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] >= 0) {
+                insert(keys, values, oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * @return true if the key was new
+     */
+    private static boolean insert(int[] keys, Object[] values, int key, Object value) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return false;
+            }
+            if (keys[i] < 0) {
+                keys[i] = key;
+                values[i] = value;
+                return true;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        return key * 0x9E3779B9 >>> 16;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 10) | (z << 5) | x;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hypixel.hytale.server.core.universe.world.meta.state;
+
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.fakes.FakeOnly;
+
+/**
+ * Stand-in: a chest or other storage block.
+ */
+public class ItemContainerState {
+    private final ItemContainer container;
+
+    @FakeOnly
+    public ItemContainerState(ItemContainer container) {
+        this.container = container;
+    }
+
+    public ItemContainer getItemContainer() {
+        return container;
+    }
+}
@@ -0,0 +1,7 @@
+package com.hypixel.hytale.server.core.universe.world.storage;
+
+/**
+ * Stand-in.
+ */
+public class EntityStore {
+}
@@ -0,0 +1,16 @@
+package dev.fgonz.quickstack.fakes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a stand-in member that only exists to build test worlds (constructors, setters, terrain
+ * helpers) and has no counterpart in HytaleServer.jar. FakeApiCheck skips these; everything else
+ * a stand-in declares must match the server.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD, ElementType.FIELD})
+public @interface FakeOnly {
+}
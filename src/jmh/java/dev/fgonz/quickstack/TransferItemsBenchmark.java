@@ -0,0 +1,86 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.bench.FakeWorlds;
+import dev.fgonz.quickstack.handlers.FurnaceFillHandler;
+import dev.fgonz.quickstack.handlers.RecipeIndex;
+import dev.fgonz.quickstack.items.InventoryIndex;
+import dev.fgonz.quickstack.items.ItemCounts;
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.stats.QuickStackStats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BenchFillService.transferItems: one furnace filled from a full player inventory, with and
+ * without fuel planning. The inventory and furnace are refilled before every invocation, which
+ * JMH excludes from the timing; each invocation is a few microseconds, so expect some noise.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferItemsBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fuelPlanning;
+
+    private final ItemContainer backpack = new ItemContainer(36);
+    private final ItemContainer hotbar = new ItemContainer(9);
+    private final FurnaceFillHandler handler = new FurnaceFillHandler();
+    private JobScheduler scheduler;
+    private BenchFillService service;
+    private FuelPlanner planner;
+    private InventoryIndex inventory;
+    private FillPlan.Target target;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        QuickStackConfig config = new QuickStackConfig();
+        LiveConfig live = new LiveConfig(config);
+        scheduler = new JobScheduler(live);
+        RequestGate gate = new RequestGate(live);
+        service = new BenchFillService(live, scheduler, gate, new QuickStackStats(scheduler, gate));
+        planner = fuelPlanning ? new FuelPlanner(RecipeIndex.build(), config) : null;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        FakeWorlds.fillInventory(backpack, 7);
+        FakeWorlds.fillInventory(hotbar, 11);
+        inventory = InventoryIndex.build(backpack, null, hotbar);
+
+        ProcessingBenchState furnace = FakeWorlds.furnace();
+        target = new FillPlan.Target(0L, furnace, furnace.getItemContainer(), handler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public int transfer() {
+        return service.transferItems(inventory, target, new ItemCounts(), new BenchFillService.MoveTally(),
+            planner, new BenchFillService.FuelReport());
+    }
+}
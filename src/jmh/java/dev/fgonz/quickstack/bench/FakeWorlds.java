@@ -0,0 +1,75 @@
+package dev.fgonz.quickstack.bench;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.bench.ProcessingBench;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds the in-memory worlds and inventories the benchmarks run against.
+ * Everything is seeded, so each fork sees the same layout.
+ */
+public final class FakeWorlds {
+
+    /** Player position used by every benchmark. */
+    public static final int CENTER_X = 0;
+    public static final int CENTER_Y = 64;
+    public static final int CENTER_Z = 0;
+
+    /** Blocks within this distance of the center may hold containers (the largest search radius). */
+    public static final int SPREAD = 15;
+
+    /** Mix of items a player typically carries: ores, fuel, hides and things no bench takes. */
+    public static final String[] ITEM_IDS = {
+        "Ore_Copper", "Ore_Iron", "Ore_Gold", "Ore_Silver", "hytale:Ore_Thorium", "Rock_Ore_Cobalt_Stone",
+        "Wood_Oak_Trunk", "Wood_Birch_Planks", "Wood_Spruce_Beam", "Wood_Sticks", "Ingredient_Coal",
+        "Ingredient_Charcoal", "Hide_Light", "Hide_Medium", "Rock_Stone", "Rock_Stone_Cobble", "Soil_Dirt",
+        "Plant_Fiber", "Food_Bread", "Weapon_Sword_Iron", "Tool_Pickaxe_Copper", "Ingredient_Bar_Iron",
+        "Furniture_Chest_Small", "Plant_Crop_Wheat"
+    };
+
+    private FakeWorlds() {}
+
+    /**
+     * A world with chests scattered around the center and solid terrain below it.
+     * @param density chance that any block within SPREAD of the center is a chest
+     */
+    public static World withContainers(double density, long seed) {
+        World world = new World("bench", 1);
+        world.fillTerrain(CENTER_Y);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int x = -SPREAD; x <= SPREAD; x++) {
+            for (int y = -SPREAD; y <= SPREAD; y++) {
+                for (int z = -SPREAD; z <= SPREAD; z++) {
+                    if (random.nextDouble() < density) {
+                        ItemContainer chest = new ItemContainer(18);
+                        chest.setItemStack((short) 0, new ItemStack(ITEM_IDS[random.nextInt(ITEM_IDS.length)], 1));
+                        world.setState(CENTER_X + x, CENTER_Y + y, CENTER_Z + z, new ItemContainerState(chest));
+                    }
+                }
+            }
+        }
+        return world;
+    }
+
+    public static ProcessingBenchState furnace() {
+        ProcessingBench definition = new ProcessingBench("Furnace", new ProcessingBench.ProcessingSlot("Fuel"));
+        return new ProcessingBenchState(definition, new ItemContainer(6));
+    }
+
+    /**
+     * Fills every slot of the container with a stack of a random item from ITEM_IDS.
+     */
+    public static void fillInventory(ItemContainer container, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        container.clear();
+        for (short slot = 0; slot < container.getCapacity(); slot++) {
+            container.setItemStack(slot, new ItemStack(ITEM_IDS[random.nextInt(ITEM_IDS.length)], 1 + random.nextInt(64)));
+        }
+    }
+}
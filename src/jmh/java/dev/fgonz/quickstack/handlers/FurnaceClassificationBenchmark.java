@@ -0,0 +1,65 @@
+package dev.fgonz.quickstack.handlers;
+
+import dev.fgonz.quickstack.bench.FakeWorlds;
+import dev.fgonz.quickstack.items.ItemIds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FurnaceFillHandler input/fuel classification of one inventory's worth of items: the string
+ * name rules against the cached per-id lookup the fill jobs use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FurnaceClassificationBenchmark {
+
+    private final FurnaceFillHandler handler = new FurnaceFillHandler();
+    private final String[] names = new String[FakeWorlds.ITEM_IDS.length];
+    private final int[] ids = new int[FakeWorlds.ITEM_IDS.length];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < names.length; i++) {
+            names[i] = FakeWorlds.ITEM_IDS[i];
+            ids[i] = ItemIds.intern(names[i]);
+        }
+        cached();
+    }
+
+    @Benchmark
+    public int nameRules() {
+        int relevant = 0;
+        for (String name : names) {
+            if (handler.isValidInput(name) || handler.isValidFuel(name)) {
+                relevant++;
+            }
+        }
+        return relevant;
+    }
+
+    @Benchmark
+    public int cached() {
+        int relevant = 0;
+        for (int id : ids) {
+            if (handler.isRelevantItem(id)) {
+                relevant++;
+            }
+        }
+        return relevant;
+    }
+}
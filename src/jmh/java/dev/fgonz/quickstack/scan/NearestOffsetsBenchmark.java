@@ -0,0 +1,35 @@
+package dev.fgonz.quickstack.scan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The distance sort: building the nearest-first offset table for a radius. Production caches one
+ * table per radius, so this is a one-off cost per radius, measured here uncached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearestOffsetsBenchmark {
+
+    @Param({"1", "2", "4", "8", "12", "15"})
+    public int radius;
+
+    @Benchmark
+    public NearestOffsets build() {
+        return new NearestOffsets(radius);
+    }
+}
@@ -0,0 +1,75 @@
+package dev.fgonz.quickstack.scan;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import dev.fgonz.quickstack.bench.FakeWorlds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-first container scan, as run by a quick stack, over radius and chest density.
+ *
+ * warm: the index already covers the cube, as for repeated /qs in the same area.
+ * cold: the index is cleared first, so every cell in range is probed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearestScanBenchmark {
+
+    @Param({"1", "2", "4", "8", "12", "15"})
+    public int radius;
+
+    /** Fraction of blocks around the player that are chests. */
+    @Param({"0.001", "0.01", "0.05"})
+    public double density;
+
+    private World world;
+    private ContainerIndex index;
+
+    @Setup
+    public void setUp() {
+        world = FakeWorlds.withContainers(density, 42);
+        index = ContainerIndex.forWorld(world);
+        scan();
+    }
+
+    @Benchmark
+    public int warm() {
+        return scan();
+    }
+
+    @Benchmark
+    public int cold() {
+        index.clear();
+        return scan();
+    }
+
+    private int scan() {
+        NearestScan scan = new NearestScan(world, index, FakeWorlds.CENTER_X, FakeWorlds.CENTER_Y, FakeWorlds.CENTER_Z,
+            radius, ContainerIndex.KIND_CONTAINER, ScanMode.LOADED_ONLY);
+        int found = 0;
+        int status;
+        while ((status = scan.advance(256)) != NearestScan.DONE) {
+            if (status == NearestScan.FOUND) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
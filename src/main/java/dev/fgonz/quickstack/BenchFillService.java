@@ -1,50 +1,148 @@
 package dev.fgonz.quickstack;
 
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.Inventory;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.bench.ProcessingBench;
 
 import dev.fgonz.quickstack.handlers.BenchFillHandler;
 import dev.fgonz.quickstack.handlers.FurnaceFillHandler;
+import dev.fgonz.quickstack.handlers.HandlerRegistry;
+import dev.fgonz.quickstack.handlers.RecipeFillHandler;
+import dev.fgonz.quickstack.handlers.RecipeIndex;
 import dev.fgonz.quickstack.handlers.TanneryFillHandler;
+import dev.fgonz.quickstack.items.InventoryIndex;
+import dev.fgonz.quickstack.items.ItemCounts;
+import dev.fgonz.quickstack.items.ItemIds;
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.jobs.SteppedJob;
+import dev.fgonz.quickstack.scan.BlockPos;
+import dev.fgonz.quickstack.scan.ContainerIndex;
+import dev.fgonz.quickstack.scan.NearestScan;
+import dev.fgonz.quickstack.scan.ScanMode;
+import dev.fgonz.quickstack.settings.PlayerSettings;
+import dev.fgonz.quickstack.stats.OperationStats;
+import dev.fgonz.quickstack.stats.OperationStats.Phase;
+import dev.fgonz.quickstack.stats.QuickStackStats;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Unified service for filling ProcessingBench blocks using registered handlers.
- * Extensible: add new BenchFillHandler implementations for new bench types.
+ * Extensible: add new BenchFillHandler implementations for new bench types, at startup or at
+ * runtime through registerHandler().
+ * Benches without a registered handler are filled from their processing recipes (see RecipeIndex).
  */
 public class BenchFillService {
 
-    private final QuickStackConfig config;
-    private final List<BenchFillHandler> handlers;
+    private static final String DEFAULT_FUEL_RESOURCE_TYPE = "Fuel";
 
-    public BenchFillService(QuickStackConfig config) {
+    private final LiveConfig config;
+    private final JobScheduler scheduler;
+    private final RequestGate gate;
+    private final QuickStackStats stats;
+    private final HandlerRegistry handlers = new HandlerRegistry();
+    private final Map<String, BenchFillHandler> recipeHandlers = new ConcurrentHashMap<>();
+    private volatile RecipeIndex recipeIndex;
+    private volatile FuelPlanner fuelPlanner;
+
+    public BenchFillService(LiveConfig config, JobScheduler scheduler, RequestGate gate, QuickStackStats stats) {
         this.config = config;
-        this.handlers = new ArrayList<>();
+        this.scheduler = scheduler;
+        this.gate = gate;
+        this.stats = stats;
+
+        // FuelBurnSeconds may have changed; the next fill builds a new planner
+        config.addListener(next -> this.fuelPlanner = null);
 
         // Register default handlers
         registerHandler(new FurnaceFillHandler());
         registerHandler(new TanneryFillHandler());
     }
 
+    /**
+     * Registers a handler, replacing any handler for the same bench id.
+     * Safe to call at runtime from any thread; fills already running keep the handlers they started with.
+     */
     public void registerHandler(BenchFillHandler handler) {
-        handlers.add(handler);
+        handlers.register(handler);
+    }
+
+    /**
+     * @return true if a handler for the bench id was registered
+     */
+    public boolean unregisterHandler(String benchId) {
+        return handlers.unregister(benchId);
+    }
+
+    /**
+     * @return the timings and counters this service records into
+     */
+    public QuickStackStats getStats() {
+        return stats;
     }
 
+    /**
+     * @return immutable list of registered handlers, in registration order
+     */
     public List<BenchFillHandler> getHandlers() {
-        return handlers;
+        return handlers.snapshot().getHandlers();
+    }
+
+    /**
+     * Rebuilds the recipe index from the loaded assets and drops cached generic handlers.
+     * Called when recipe assets are (re)loaded.
+     */
+    public void reloadRecipes() {
+        this.recipeIndex = RecipeIndex.build();
+        this.fuelPlanner = null;
+        this.recipeHandlers.clear();
+    }
+
+    private FuelPlanner getFuelPlanner() {
+        FuelPlanner planner = fuelPlanner;
+        if (planner == null) {
+            planner = new FuelPlanner(getRecipeIndex(), config.get());
+            fuelPlanner = planner;
+        }
+        return planner;
+    }
+
+    private RecipeIndex getRecipeIndex() {
+        RecipeIndex index = recipeIndex;
+        if (index == null) {
+            index = RecipeIndex.build();
+            recipeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @return primary alias (or bench id) of every registered handler followed by every recipe-driven bench id
+     */
+    public List<String> getFillableTypes() {
+        HandlerRegistry.Snapshot registered = handlers.snapshot();
+        List<String> types = new ArrayList<>();
+        for (BenchFillHandler handler : registered.getHandlers()) {
+            types.add(HandlerRegistry.Snapshot.primaryName(handler));
+        }
+        for (String benchId : getRecipeIndex().getBenchIds()) {
+            if (registered.forBench(benchId) == null) {
+                types.add(RecipeIndex.benchKey(benchId));
+            }
+        }
+        return types;
     }
 
     /**
@@ -53,47 +151,131 @@ public class BenchFillService {
      */
     public BenchFillHandler findHandlerByAlias(String alias) {
         if (alias == null) return null;
-        String lower = alias.toLowerCase();
-        for (BenchFillHandler handler : handlers) {
-            for (String a : handler.getAliases()) {
-                if (a.equalsIgnoreCase(lower)) {
-                    return handler;
-                }
-            }
+        BenchFillHandler handler = handlers.snapshot().forAlias(alias);
+        if (handler != null) {
+            return handler;
         }
-        return null;
+
+        // Any other processing bench can be named by its id
+        String benchId = getRecipeIndex().getBenchId(alias);
+        return benchId != null ? recipeHandlerFor(benchId, null) : null;
     }
 
     public static class FillResult {
         private final int benchesProcessed;
-        private final Map<String, Integer> movedItems;
+        private final ItemCounts movedItems;
         private final Map<String, Integer> benchesByType;
+        private final int skippedChunks;
+        private final FuelReport fuel;
+        private final int radius;
+        private final int requestedRadius;
 
-        public FillResult(int benchesProcessed, Map<String, Integer> movedItems, 
+        public FillResult(int benchesProcessed, ItemCounts movedItems,
                          Map<String, Integer> benchesByType) {
+            this(benchesProcessed, movedItems, benchesByType, 0);
+        }
+
+        public FillResult(int benchesProcessed, ItemCounts movedItems,
+                         Map<String, Integer> benchesByType, int skippedChunks) {
+            this(benchesProcessed, movedItems, benchesByType, skippedChunks, new FuelReport());
+        }
+
+        public FillResult(int benchesProcessed, ItemCounts movedItems,
+                         Map<String, Integer> benchesByType, int skippedChunks, FuelReport fuel) {
+            this(benchesProcessed, movedItems, benchesByType, skippedChunks, fuel, 0, 0);
+        }
+
+        public FillResult(int benchesProcessed, ItemCounts movedItems,
+                         Map<String, Integer> benchesByType, int skippedChunks, FuelReport fuel,
+                         int radius, int requestedRadius) {
+            this.radius = radius;
+            this.requestedRadius = requestedRadius;
             this.benchesProcessed = benchesProcessed;
             this.movedItems = movedItems;
             this.benchesByType = benchesByType;
+            this.skippedChunks = skippedChunks;
+            this.fuel = fuel;
         }
 
         public int getBenchesProcessed() { return benchesProcessed; }
-        public Map<String, Integer> getMovedItems() { return movedItems; }
+        /** Unloaded chunks in range that were skipped instead of loaded. */
+        public int getSkippedChunks() { return skippedChunks; }
+        /** Moved quantities by display name, resolved on first read. */
+        public Map<String, Integer> getMovedItems() { return movedItems.asMap(); }
+        /** Moved quantities by interned item id. */
+        public ItemCounts getMovedCounts() { return movedItems; }
         public Map<String, Integer> getBenchesByType() { return benchesByType; }
         public boolean hasMovedItems() { return !movedItems.isEmpty(); }
-        public int getTotalMoved() {
-            return movedItems.values().stream().mapToInt(Integer::intValue).sum();
+        public int getTotalMoved() { return movedItems.total(); }
+        /** Fuel the planner sent, and the processing time it was sent for. */
+        public FuelReport getFuel() { return fuel; }
+        /** Radius actually searched; below getRequestedRadius() while the server sheds load. */
+        public int getRadius() { return radius; }
+        public int getRequestedRadius() { return requestedRadius; }
+        public boolean isRadiusReduced() { return radius < requestedRadius; }
+    }
+
+    /**
+     * What the fuel planner decided during a fill: seconds of queued input not yet covered by fuel,
+     * burn seconds of fuel sent and the fuel items moved. Empty when fuel planning is off.
+     */
+    public static class FuelReport {
+        private final ItemCounts items = new ItemCounts(4);
+        private double neededSeconds;
+        private double suppliedSeconds;
+
+        void addNeeded(double seconds) {
+            neededSeconds += seconds;
+        }
+
+        void addFuel(int itemId, int quantity, double seconds) {
+            items.add(itemId, quantity);
+            suppliedSeconds += seconds;
         }
+
+        public double getNeededSeconds() { return neededSeconds; }
+        public double getSuppliedSeconds() { return suppliedSeconds; }
+        /** Fuel quantities by display name, resolved on first read. */
+        public Map<String, Integer> getItems() { return items.asMap(); }
+        public ItemCounts getCounts() { return items; }
+        public boolean isEmpty() { return items.isEmpty(); }
     }
 
     /**
      * Fill nearby ProcessingBench blocks.
+     * The work is time-sliced by the JobScheduler, so the future may complete several ticks later.
+     * Unloaded chunks are skipped. Uses the server's default settings.
      * @param player The player
      * @param filterHandler If not null, only process benches matching this handler
      */
     public CompletableFuture<FillResult> performFill(Player player, BenchFillHandler filterHandler) {
+        return performFill(player, filterHandler, PlayerSettings.defaults(config.get()));
+    }
+
+    /**
+     * Same as performFill(Player, BenchFillHandler), with the player's own radius and sections.
+     */
+    public CompletableFuture<FillResult> performFill(Player player, BenchFillHandler filterHandler, PlayerSettings settings) {
+        return performFill(player, filterHandler, settings, ScanMode.LOADED_ONLY);
+    }
+
+    /**
+     * Same as performFill(Player, BenchFillHandler, PlayerSettings), with explicit control over chunk
+     * loading. A matching fill still running for the player is joined; requests over the player's
+     * rate fail with a RequestGate.RequestRejectedException.
+     */
+    public CompletableFuture<FillResult> performFill(Player player, BenchFillHandler filterHandler, PlayerSettings settings,
+                                                     ScanMode scanMode) {
+        String kind = "fill:" + (filterHandler != null ? HandlerRegistry.key(filterHandler.getBenchId()) : "*") + ":" + scanMode;
+        return gate.submit(player.getUuid(), kind, () -> startFill(player, filterHandler, settings, scanMode));
+    }
+
+    private CompletableFuture<FillResult> startFill(Player player, BenchFillHandler filterHandler, PlayerSettings settings,
+                                                    ScanMode scanMode) {
         World world = player.getWorld();
         Inventory playerInventory = player.getInventory();
-        int radius = config.getSearchRadius();
+        int requestedRadius = settings.getSearchRadius();
+        int radius = scheduler.effectiveRadius(world, requestedRadius);
 
         Vector3d position;
         try {
@@ -103,179 +285,534 @@ public class BenchFillService {
         }
 
         final Vector3d origin = position;
-        int startX = (int) Math.floor(origin.x) - radius;
-        int endX = (int) Math.floor(origin.x) + radius;
-        int startY = (int) Math.floor(origin.y) - radius;
-        int endY = (int) Math.floor(origin.y) + radius;
-        int startZ = (int) Math.floor(origin.z) - radius;
-        int endZ = (int) Math.floor(origin.z) + radius;
+        int centerX = (int) Math.floor(origin.x);
+        int centerY = (int) Math.floor(origin.y);
+        int centerZ = (int) Math.floor(origin.z);
+
+        FillJob job = new FillJob(world, playerInventory, centerX, centerY, centerZ, radius, requestedRadius,
+            filterHandler, settings, scanMode);
+        if (!scheduler.submit(world, job)) {
+            return CompletableFuture.failedFuture(new JobScheduler.BusyException());
+        }
+        return job.future;
+    }
+
+    /**
+     * Bench fill work split into resumable steps. Benches come from a NearestScan, one per step,
+     * and the job stops as soon as the enabled sections hold nothing a bench could take.
+     * In even fill mode benches are only collected while scanning. Once the scan is done the inventory
+     * is snapshotted, the FillPlan is computed on a worker thread while the job stays parked, and the
+     * plan is applied in one step back on the world thread.
+     */
+    private class FillJob implements SteppedJob {
+        private static final int PROBES_PER_STEP = 256;
+
+        private final CompletableFuture<FillResult> future = new CompletableFuture<>();
+        private final OperationStats.Sample sample = new OperationStats.Sample();
+        private final World world;
+        private final BenchFillHandler filterHandler;
+        private final HandlerRegistry.Snapshot registered;
+        private final ContainerIndex index;
+        private final NearestScan scan;
+        private final int radius;
+        private final int requestedRadius;
+        private final Inventory playerInventory;
+        private final boolean checkBackpack;
+        private final boolean checkStorage;
+        private final boolean checkHotbar;
+        private final FillPlan plan;
+        private final FuelPlanner fuelPlanner;
+        private final FuelReport fuelReport = new FuelReport();
+        private InventoryIndex inventory;
+        private CompletableFuture<FillPlan> planning;
+        private long planNanos;
+
+        private final ItemCounts movedItems = new ItemCounts();
+        private final Map<String, Integer> benchesByType = new HashMap<>();
+        private final HashSet<ItemContainer> seenContainers = new HashSet<>();
+        private boolean started;
+        private int remainingItems;
+        private int benchCount;
+
+        FillJob(World world, Inventory playerInventory, int centerX, int centerY, int centerZ, int radius,
+                int requestedRadius, BenchFillHandler filterHandler, PlayerSettings settings, ScanMode scanMode) {
+            this.world = world;
+            this.radius = radius;
+            this.requestedRadius = requestedRadius;
+            this.filterHandler = filterHandler;
+            this.registered = handlers.snapshot();
+            this.index = ContainerIndex.forWorld(world);
+            this.scan = new NearestScan(world, index, centerX, centerY, centerZ, radius,
+                ContainerIndex.KIND_BENCH, scanMode);
+            this.playerInventory = playerInventory;
+            this.checkBackpack = settings.isCheckBackpack();
+            this.checkStorage = settings.isCheckStorage();
+            this.checkHotbar = settings.isCheckHotbar();
+            QuickStackConfig snapshot = config.get();
+            this.plan = snapshot.isEvenFill() ? new FillPlan() : null;
+            this.fuelPlanner = snapshot.isFuelPlanning() ? getFuelPlanner() : null;
+        }
+
+        @Override
+        public boolean isReady() {
+            return planning == null || planning.isDone();
+        }
 
-        CompletableFuture<FillResult> future = new CompletableFuture<>();
+        @Override
+        public boolean step() {
+            if (planning != null) {
+                commitPlan();
+                return finish();
+            }
+
+            if (!started) {
+                started = true;
+                long indexStart = System.nanoTime();
+                inventory = InventoryIndex.build(
+                    checkBackpack ? playerInventory.getBackpack() : null,
+                    checkStorage ? playerInventory.getStorage() : null,
+                    checkHotbar ? playerInventory.getHotbar() : null);
+                remainingItems = inventory.quantityOf(id -> isRelevantToAny(id, registered, filterHandler));
+                sample.add(Phase.INDEX, indexStart);
+                if (remainingItems <= 0) {
+                    return finish();
+                }
+            }
+
+            long scanStart = System.nanoTime();
+            int status = scan.advance(PROBES_PER_STEP);
+            sample.add(Phase.SCAN, scanStart);
+            if (status == NearestScan.PENDING) {
+                return false;
+            }
+            if (status == NearestScan.FOUND) {
+                if (plan != null) {
+                    FillPlan.Target target = resolveBench(scan.position());
+                    if (target != null) {
+                        plan.add(target);
+                    }
+                    return false;
+                }
+                fillBench(scan.position());
+                if (remainingItems > 0) {
+                    return false;
+                }
+            }
+            if (plan != null && !plan.getTargets().isEmpty()) {
+                startPlanning();
+                return false;
+            }
+            return finish();
+        }
+
+        @Override
+        public void fail(Throwable t) {
+            System.err.println("[BenchFill] Critical error");
+            t.printStackTrace();
+            stats.fill().recordFailure();
+            future.completeExceptionally(t);
+        }
 
-        world.execute(() -> {
+        private boolean finish() {
+            stats.fill().record(sample, scan.getProbed(), benchCount, movedItems.total());
+            future.complete(new FillResult(benchCount, movedItems, benchesByType, scan.getSkippedChunks(), fuelReport,
+                radius, requestedRadius));
+            return true;
+        }
+
+        private void fillBench(long blockPos) {
+            FillPlan.Target target = resolveBench(blockPos);
+            if (target != null) {
+                fillTarget(target);
+            }
+        }
+
+        private void fillTarget(FillPlan.Target target) {
             try {
-                int benchCount = 0;
-                Map<String, Integer> movedItems = new HashMap<>();
-                Map<String, Integer> benchesByType = new HashMap<>();
-                HashSet<ItemContainer> seenContainers = new HashSet<>();
-                ArrayList<Vector3i> benchPositions = new ArrayList<>();
-
-                // Scan for ProcessingBenchState blocks
-                for (int x = startX; x <= endX; x++) {
-                    for (int y = startY; y <= endY; y++) {
-                        for (int z = startZ; z <= endZ; z++) {
-                            try {
-                                Object state = world.getState(x, y, z, true);
-                                if (state instanceof ProcessingBenchState) {
-                                    benchPositions.add(new Vector3i(x, y, z));
-                                }
-                            } catch (Throwable ignored) {}
-                        }
+                // Transfer items from enabled inventory sections
+                MoveTally tally = new MoveTally();
+                long transferStart = System.nanoTime();
+                remainingItems -= transferItems(inventory, target, movedItems, tally, fuelPlanner, fuelReport);
+                sample.add(Phase.TRANSFER, transferStart);
+                stats.recordHandlerItems(target.handler.getBenchId(), tally.input + tally.fuel);
+                activate(target, tally);
+            } catch (Throwable t) {
+                System.err.println("[BenchFill] Error at " + BlockPos.toString(target.position) + ": " + t.getMessage());
+            }
+        }
+
+        /**
+         * Snapshot phase: copies what planning needs (inventory counts, input and fuel already in each
+         * bench) on the world thread, then hands the plan to a worker.
+         */
+        private void startPlanning() {
+            long snapshotStart = System.nanoTime();
+            int[] itemIds = inventory.copyItemIds();
+            int[] available = inventory.copyQuantities();
+            FuelPlanner planner = fuelPlanner;
+            if (planner != null) {
+                for (FillPlan.Target target : plan.getTargets()) {
+                    if (target.handler.usesFuel()) {
+                        target.load = planner.readLoad(target.container, target.handler);
                     }
                 }
+            }
+            sample.add(Phase.PLAN, snapshotStart);
+            planning = scheduler.compute(world, () -> {
+                long planStart = System.nanoTime();
+                plan.planEven(itemIds, available, planner);
+                planNanos = System.nanoTime() - planStart;
+                return plan;
+            });
+        }
 
-                // Sort by distance
-                final double originX = origin.x;
-                final double originY = origin.y;
-                final double originZ = origin.z;
-                benchPositions.sort(Comparator.comparingDouble(p -> {
-                    double dx = p.x - originX;
-                    double dy = p.y - originY;
-                    double dz = p.z - originZ;
-                    return (dx * dx) + (dy * dy) + (dz * dz);
-                }));
-
-                ItemContainer backpack = playerInventory.getBackpack();
-                ItemContainer storage = playerInventory.getStorage();
-                ItemContainer hotbar = playerInventory.getHotbar();
-
-                for (Vector3i blockPos : benchPositions) {
+        /**
+         * Commit phase. Falls back to filling nearest-first if planning failed.
+         */
+        private void commitPlan() {
+            try {
+                planning.join();
+                sample.addNanos(Phase.PLAN, planNanos);
+            } catch (Throwable t) {
+                System.err.println("[BenchFill] Planning failed, filling nearest-first: " + t.getMessage());
+                // The targets are from the scan, ticks ago; look each bench up again like applyPlan
+                for (FillPlan.Target planned : plan.getTargets()) {
                     try {
-                        Object state = world.getState(blockPos.x, blockPos.y, blockPos.z, true);
-
-                        if (!(state instanceof ProcessingBenchState bench)) {
-                            continue;
+                        FillPlan.Target target = revalidate(planned);
+                        if (target != null) {
+                            fillTarget(target);
                         }
+                    } catch (Throwable error) {
+                        System.err.println("[BenchFill] Error at " + BlockPos.toString(planned.position) + ": "
+                            + error.getMessage());
+                    }
+                }
+                return;
+            }
+            applyPlan();
+        }
 
-                        ItemContainer container = bench.getItemContainer();
-                        if (container == null || !seenContainers.add(container)) {
-                            continue;
-                        }
+        /**
+         * Applies the plan. Each bench is looked up again and skipped if it is gone or changed type;
+         * each move re-checks the slot it takes from (see moveGroup).
+         */
+        private void applyPlan() {
+            for (FillPlan.Target planned : plan.getTargets()) {
+                try {
+                    long lookupStart = System.nanoTime();
+                    FillPlan.Target target = revalidate(planned);
+                    sample.add(Phase.SCAN, lookupStart);
+                    if (target == null) continue;
+
+                    MoveTally tally = new MoveTally();
+                    tally.load = planned.load;
+                    long transferStart = System.nanoTime();
+                    fuelReport.addNeeded(planned.neededSeconds);
+                    for (int group = 0; group < planned.quantities.length; group++) {
+                        int quantity = planned.quantities[group];
+                        if (quantity <= 0) continue;
+
+                        int id = inventory.itemId(group);
+                        int moved = moveGroup(inventory, group, target.container, quantity);
+                        recordMove(target.handler, id, moved, movedItems, tally, fuelPlanner, fuelReport);
+                    }
+                    sample.add(Phase.TRANSFER, transferStart);
+                    stats.recordHandlerItems(target.handler.getBenchId(), tally.input + tally.fuel);
+                    activate(target, tally);
+                } catch (Throwable t) {
+                    System.err.println("[BenchFill] Error applying plan: " + t.getMessage());
+                }
+            }
+        }
 
-                        // Find handler for this bench type
-                        BenchFillHandler handler = findHandlerForBench(bench);
-                        if (handler == null) {
-                            continue;
-                        }
+        /**
+         * @return the bench as it is now, or null if it no longer matches the planned one
+         */
+        private FillPlan.Target revalidate(FillPlan.Target planned) {
+            long pos = planned.position;
+            Object state = world.getState(BlockPos.x(pos), BlockPos.y(pos), BlockPos.z(pos), true);
+            if (!(state instanceof ProcessingBenchState bench)) {
+                index.forget(pos);
+                return null;
+            }
 
-                        // Apply filter if specified
-                        if (filterHandler != null && handler != filterHandler) {
-                            continue;
-                        }
+            ItemContainer container = bench.getItemContainer();
+            if (container == null || findHandlerForBench(bench, registered) != planned.handler) {
+                return null;
+            }
+            return new FillPlan.Target(pos, bench, container, planned.handler);
+        }
+
+        /**
+         * Activate if conditions are met; only rescan the bench when the moves alone can't tell.
+         */
+        private void activate(FillPlan.Target target, MoveTally tally) {
+            long activateStart = System.nanoTime();
+            if (!target.bench.isActive() && shouldStart(target.handler, target.container, tally)) {
+                target.bench.setActive(true);
+            }
+            sample.add(Phase.ACTIVATE, activateStart);
+        }
 
-                        benchCount++;
-                        benchesByType.merge(handler.getDisplayName(), 1, Integer::sum);
+        /**
+         * Looks up the bench at a position and its handler, counting it towards the result.
+         * @return null if there is no bench, it was already seen or the filter excludes it
+         */
+        private FillPlan.Target resolveBench(long blockPos) {
+            long lookupStart = System.nanoTime();
+            try {
+                Object state = scan.state();
+                if (state == null) {
+                    if (!scan.canLookUp(blockPos)) return null;
+                    state = world.getState(BlockPos.x(blockPos), BlockPos.y(blockPos), BlockPos.z(blockPos), true);
+                }
 
-                        // Transfer items from enabled inventory sections
-                        if (config.isCheckBackpack() && backpack != null) {
-                            transferItems(backpack, container, handler, movedItems);
-                        }
-                        if (config.isCheckStorage() && storage != null) {
-                            transferItems(storage, container, handler, movedItems);
-                        }
-                        if (config.isCheckHotbar() && hotbar != null) {
-                            transferItems(hotbar, container, handler, movedItems);
-                        }
+                if (!(state instanceof ProcessingBenchState bench)) {
+                    index.forget(blockPos);
+                    return null;
+                }
 
-                        // Activate if conditions are met
-                        if (!bench.isActive() && handler.shouldActivate(container)) {
-                            bench.setActive(true);
-                        }
+                ItemContainer container = bench.getItemContainer();
+                if (container == null || !seenContainers.add(container)) {
+                    return null;
+                }
 
-                    } catch (Throwable t) {
-                        System.err.println("[BenchFill] Error at " + blockPos + ": " + t.getMessage());
-                    }
+                // Find handler for this bench type
+                BenchFillHandler handler = findHandlerForBench(bench, registered);
+                if (handler == null) {
+                    return null;
+                }
+
+                // Apply filter if specified
+                if (filterHandler != null && handler != filterHandler
+                        && !handler.getBenchId().equalsIgnoreCase(filterHandler.getBenchId())) {
+                    return null;
                 }
 
-                future.complete(new FillResult(benchCount, movedItems, benchesByType));
+                benchCount++;
+                benchesByType.merge(handler.getDisplayName(), 1, Integer::sum);
+                return new FillPlan.Target(blockPos, bench, container, handler);
 
-            } catch (Throwable e) {
-                System.err.println("[BenchFill] Critical error");
-                e.printStackTrace();
-                future.completeExceptionally(e);
+            } catch (Throwable t) {
+                System.err.println("[BenchFill] Error at " + BlockPos.toString(blockPos) + ": " + t.getMessage());
+                return null;
+            } finally {
+                sample.add(Phase.SCAN, lookupStart);
             }
-        });
-
-        return future;
+        }
     }
 
-    private BenchFillHandler findHandlerForBench(ProcessingBenchState bench) {
+    /**
+     * Registered handlers take precedence; any other bench with processing recipes gets a
+     * recipe-driven handler.
+     */
+    private BenchFillHandler findHandlerForBench(ProcessingBenchState bench, HandlerRegistry.Snapshot registered) {
         String benchId = null;
         try {
             benchId = bench.getBench().getId();
         } catch (Throwable ignored) {}
 
-        if (benchId != null) {
-            for (BenchFillHandler handler : handlers) {
-                if (handler.getBenchId().equalsIgnoreCase(benchId)) {
-                    return handler;
-                }
-            }
+        if (benchId == null) {
+            return null;
+        }
+
+        BenchFillHandler handler = registered.forBench(benchId);
+        if (handler != null) {
+            return handler;
+        }
+        return getRecipeIndex().hasBench(benchId) ? recipeHandlerFor(benchId, bench) : null;
+    }
+
+    /**
+     * Returns the cached generic handler for a bench id. Fuel is read from the live bench
+     * definition, so a handler is only cached once a real bench has been seen; lookups by
+     * alias alone get an uncached handler with the default "Fuel" resource type.
+     */
+    private BenchFillHandler recipeHandlerFor(String benchId, ProcessingBenchState bench) {
+        String key = RecipeIndex.benchKey(benchId);
+        BenchFillHandler cached = recipeHandlers.get(key);
+        if (cached != null || bench == null) {
+            return cached != null ? cached : createRecipeHandler(benchId, List.of(DEFAULT_FUEL_RESOURCE_TYPE));
         }
+        return recipeHandlers.computeIfAbsent(key, k -> createRecipeHandler(benchId, fuelResourceTypes(bench)));
+    }
 
-        return null;
+    private BenchFillHandler createRecipeHandler(String benchId, List<String> fuelTypes) {
+        RecipeIndex index = getRecipeIndex();
+        return new RecipeFillHandler(benchId, index.getInputs(benchId), index.getItemsWithResourceTypes(fuelTypes));
     }
 
-    private void transferItems(ItemContainer source, ItemContainer target,
-                              BenchFillHandler handler, Map<String, Integer> movedSummary) {
+    private List<String> fuelResourceTypes(ProcessingBenchState bench) {
+        List<String> types = new ArrayList<>();
         try {
-            short capacity = source.getCapacity();
+            if (bench.getBench() instanceof ProcessingBench definition && definition.getFuel() != null) {
+                for (ProcessingBench.ProcessingSlot slot : definition.getFuel()) {
+                    if (slot != null && slot.getResourceTypeId() != null) {
+                        types.add(slot.getResourceTypeId());
+                    }
+                }
+            }
+        } catch (Throwable ignored) {}
+        return types;
+    }
 
-            for (short slot = 0; slot < capacity; slot++) {
-                try {
-                    ItemStack stack = source.getItemStack(slot);
-                    if (stack == null) continue;
+    /**
+     * Decides activation from what the fill moved and, when the fuel planner read the bench, what
+     * it already held. The container is only scanned again when something moved but neither tells
+     * whether the bench has both input and fuel. A fill that moved nothing leaves an idle bench
+     * idle: it is no different from before the fill.
+     */
+    static boolean shouldStart(BenchFillHandler handler, ItemContainer container, MoveTally tally) {
+        if (handler.canActivate(tally.input, tally.fuel)) return true;
+
+        if (tally.load != null) {
+            boolean hasInput = tally.input > 0 || tally.load.inputSeconds > 0;
+            boolean hasFuel = !handler.usesFuel() || tally.fuel > 0 || tally.load.fuelSeconds > 0;
+            return hasInput && hasFuel;
+        }
+        if (tally.input == 0 && tally.fuel == 0) return false;
+        return handler.shouldActivate(container);
+    }
 
-                    String itemId = stack.getItemId();
-                    if (itemId == null) continue;
+    /**
+     * Input and fuel quantities moved into one bench, used to decide activation.
+     */
+    static final class MoveTally {
+        int input;
+        int fuel;
+        /** What the bench held, when the fuel planner read it during this fill; else null. */
+        FuelPlanner.BenchLoad load;
+
+        void add(BenchFillHandler handler, int itemId, int moved) {
+            if (handler.isValidInput(itemId)) {
+                input += moved;
+            } else {
+                fuel += moved;
+            }
+        }
+    }
+
+    /**
+     * Moves every item type the handler accepts from the indexed inventory into the bench.
+     * With a fuel planner, inputs move first and fuel is limited to what the input now in the bench
+     * needs beyond the fuel already there.
+     * Moved quantities are added to tally. Package-private for the jmh benchmarks.
+     * @return total quantity moved
+     */
+    int transferItems(InventoryIndex inventory, FillPlan.Target bench, ItemCounts movedSummary,
+                              MoveTally tally, FuelPlanner planner, FuelReport report) {
+        BenchFillHandler handler = bench.handler;
+        boolean planFuel = planner != null && handler.usesFuel();
+        int total = 0;
+
+        for (int group = 0; group < inventory.groupCount(); group++) {
+            int id = inventory.itemId(group);
+            if (inventory.quantity(group) <= 0 || !handler.isRelevantItem(id)) continue;
+            if (planFuel && !handler.isValidInput(id)) continue;
+
+            int moved = moveGroup(inventory, group, bench.container, Integer.MAX_VALUE);
+            total += recordMove(handler, id, moved, movedSummary, tally, null, null);
+        }
 
-                    if (handler.isRelevantItem(itemId)) {
-                        int quantityBefore = stack.getQuantity();
+        if (planFuel) {
+            // Read back after the inputs moved, so this covers them and whatever was queued before
+            tally.load = planner.readLoad(bench.container, handler);
+            double neededSeconds = Math.max(0, tally.load.backlogSeconds());
+            report.addNeeded(neededSeconds);
 
-                        var tx = source.moveItemStackFromSlot(slot, target);
+            int[] fuelPlan = planner.allocate(neededSeconds, inventory.copyItemIds(), handler, inventory.copyQuantities());
+            for (int group = 0; group < fuelPlan.length; group++) {
+                if (fuelPlan[group] <= 0) continue;
 
-                        if (tx != null && tx.succeeded()) {
-                            String cleanName = getCleanItemName(itemId);
-                            int moved = quantityBefore;
+                int moved = moveGroup(inventory, group, bench.container, fuelPlan[group]);
+                total += recordMove(handler, inventory.itemId(group), moved, movedSummary, tally, planner, report);
+            }
+        }
+        return total;
+    }
 
-                            var addTx = tx.getAddTransaction();
-                            if (addTx != null) {
-                                ItemStack remainder = addTx.getRemainder();
-                                if (remainder != null) {
-                                    moved = quantityBefore - remainder.getQuantity();
-                                }
-                            }
+    /**
+     * Adds a move to the summary and tally, and to the fuel report when a planner is given and the
+     * item went in as fuel.
+     * @return the moved quantity, or 0 if nothing moved
+     */
+    private int recordMove(BenchFillHandler handler, int itemId, int moved, ItemCounts movedSummary,
+                           MoveTally tally, FuelPlanner planner, FuelReport report) {
+        if (moved <= 0) return 0;
+
+        movedSummary.add(itemId, moved);
+        tally.add(handler, itemId, moved);
+        if (planner != null && !handler.isValidInput(itemId)) {
+            report.addFuel(itemId, moved, moved * planner.burnSeconds(itemId));
+        }
+        return moved;
+    }
 
-                            if (moved > 0) {
-                                movedSummary.merge(cleanName, moved, Integer::sum);
+    /**
+     * Moves up to limit items of one type back to back. Stops at the first stack the bench does not
+     * take in full, since the bench has no room left for that item.
+     * @return total quantity moved
+     */
+    private int moveGroup(InventoryIndex inventory, int group, ItemContainer target, int limit) {
+        int total = 0;
+        int index = 0;
+        while (total < limit && index < inventory.slotCount(group)) {
+            ItemContainer source = inventory.section(group, index);
+            short slot = inventory.slot(group, index);
+            int moved = 0;
+            int requested = 0;
+            try {
+                ItemStack stack = source.getItemStack(slot);
+                if (stack != null && ItemIds.intern(stack.getItemId()) == inventory.itemId(group)) {
+                    requested = Math.min(stack.getQuantity(), limit - total);
+
+                    var tx = requested < stack.getQuantity()
+                        ? source.moveItemStackFromSlot(slot, requested, target)
+                        : source.moveItemStackFromSlot(slot, target);
+                    if (tx != null && tx.succeeded()) {
+                        moved = requested;
+
+                        var addTx = tx.getAddTransaction();
+                        if (addTx != null) {
+                            ItemStack remainder = addTx.getRemainder();
+                            if (remainder != null) {
+                                moved = requested - remainder.getQuantity();
                             }
                         }
                     }
-                } catch (Throwable ignored) {}
+                }
+            } catch (Throwable t) {
+                System.err.println("[BenchFill] Transfer error: " + t.getMessage());
+            }
+
+            if (moved > 0) {
+                total += moved;
+            }
+            boolean kept = inventory.refresh(group, index);
+            if (requested > 0 && moved < requested) {
+                break;
+            }
+            if (kept) {
+                index++;
             }
-        } catch (Throwable t) {
-            System.err.println("[BenchFill] Transfer error: " + t.getMessage());
         }
+        return total;
     }
 
-    private String getCleanItemName(String itemId) {
-        if (itemId == null) return "Unknown";
-        if (itemId.contains(":")) {
-            String[] parts = itemId.split(":");
-            if (parts.length > 1) {
-                return parts[1];
+    private boolean isRelevantToAny(int itemId, HandlerRegistry.Snapshot registered, BenchFillHandler filterHandler) {
+        if (filterHandler != null) {
+            return filterHandler.isRelevantItem(itemId);
+        }
+        for (BenchFillHandler handler : registered.getHandlers()) {
+            if (handler.isRelevantItem(itemId)) {
+                return true;
+            }
+        }
+        for (BenchFillHandler handler : recipeHandlers.values()) {
+            if (handler.isRelevantItem(itemId)) {
+                return true;
             }
         }
-        return itemId;
+        return getRecipeIndex().isAnyInput(ItemIds.name(itemId));
     }
 }
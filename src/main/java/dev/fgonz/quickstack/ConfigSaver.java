@@ -0,0 +1,192 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.codec.ExtraInfo;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+
+import dev.fgonz.quickstack.stats.QuickStackStats;
+
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence for a config file.
+ *
+ * Callers mark the config dirty after publishing a change and return at once. Each write encodes
+ * whatever the supplier returns at that moment. Changes arriving within
+ * DEBOUNCE_MILLIS of each other are written together by one background thread, at most
+ * MAX_DELAY_MILLIS after the first of them. Each write goes to a temp file that is synced and then
+ * moved over the config, so a crash leaves either the old file or the new one. shutdown() writes
+ * whatever is still pending. getLastWritten() lets a file watcher tell our own writes from edits.
+ */
+public class ConfigSaver<T> {
+
+    static final long DEBOUNCE_MILLIS = 500;
+    static final long MAX_DELAY_MILLIS = 5000;
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder()
+        .outputMode(JsonMode.RELAXED)
+        .indent(true)
+        .build();
+
+    private final Supplier<T> config;
+    private final BuilderCodec<T> codec;
+    private final Path path;
+    private final QuickStackStats stats;
+    private final ScheduledExecutorService writer;
+    private final Object writeLock = new Object();
+
+    private boolean dirty;
+    private long firstDirtyNanos;
+    private ScheduledFuture<?> pending;
+    private volatile String lastWritten;
+
+    public ConfigSaver(Supplier<T> config, BuilderCodec<T> codec, Path path, QuickStackStats stats) {
+        this.config = config;
+        this.codec = codec;
+        this.path = path;
+        this.stats = stats;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "QuickStack-ConfigSaver");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return the text of the last successful write, or null if nothing was written yet
+     */
+    public String getLastWritten() {
+        return lastWritten;
+    }
+
+    /**
+     * Schedules a write of the current config, coalescing with any write not yet started.
+     */
+    public synchronized void markDirty() {
+        long now = System.nanoTime();
+        if (!dirty) {
+            dirty = true;
+            firstDirtyNanos = now;
+        }
+        if (writer.isShutdown()) return;
+
+        long waited = TimeUnit.NANOSECONDS.toMillis(now - firstDirtyNanos);
+        long delay = Math.max(0, Math.min(DEBOUNCE_MILLIS, MAX_DELAY_MILLIS - waited));
+        // A write already running does not stop; the one scheduled here follows it
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = writer.schedule(this::flushQuietly, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes now on the background thread, e.g. for an explicit "save" button.
+     * @return completes when the config is on disk, exceptionally if the write failed
+     */
+    public CompletableFuture<Void> saveNow() {
+        synchronized (this) {
+            dirty = true;
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    /**
+     * Stops the background thread and writes any pending change on the calling thread.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            System.err.println("[QuickStack] Failed to save config: " + t.getMessage());
+        }
+    }
+
+    /**
+     * Writes the config if it changed since the last write. Writes are serialized, and markDirty()
+     * never waits for one.
+     */
+    private void flush() throws IOException {
+        synchronized (writeLock) {
+            synchronized (this) {
+                if (!dirty) return;
+                dirty = false;
+            }
+
+            long start = System.nanoTime();
+            try {
+                write();
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    if (!dirty) {
+                        dirty = true;
+                        firstDirtyNanos = System.nanoTime();
+                    }
+                }
+                throw e;
+            } finally {
+                if (stats != null) {
+                    stats.recordConfigSave(start);
+                }
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        String json = codec.encode(config.get(), ExtraInfo.THREAD_LOCAL.get()).asDocument().toJson(JSON);
+
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        // Set before the move so a watcher woken by it already sees this text
+        lastWritten = json;
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,138 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.codec.ExtraInfo;
+
+import org.bson.BsonDocument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads QuickStackCommand.json when it is edited on disk, without a restart.
+ *
+ * One daemon thread waits on a WatchService for the config's directory. Once the file has been
+ * quiet for DEBOUNCE_MILLIS it is read, decoded into a new QuickStackConfig and published through
+ * LiveConfig.set(). A file that does not parse or validate is reported and the config in effect
+ * is kept. Text the ConfigSaver wrote itself, or that is already in effect, is skipped.
+ */
+public class ConfigWatcher {
+
+    static final long DEBOUNCE_MILLIS = 200;
+
+    private final LiveConfig live;
+    private final ConfigSaver<QuickStackConfig> saver;
+    private final Path path;
+
+    private WatchService watchService;
+    private Thread thread;
+    private String lastLoaded;
+    private QuickStackConfig loadedConfig;
+
+    public ConfigWatcher(LiveConfig live, ConfigSaver<QuickStackConfig> saver, Path path) {
+        this.live = live;
+        this.saver = saver;
+        this.path = path.toAbsolutePath();
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) return;
+
+        Path dir = path.getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        lastLoaded = readQuietly();
+        loadedConfig = live.get();
+
+        thread = new Thread(this::run, "QuickStack-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void shutdown() {
+        if (thread == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        thread.interrupt();
+        thread = null;
+    }
+
+    private void run() {
+        WatchService watch = watchService;
+        try {
+            while (true) {
+                WatchKey key = watch.take();
+                boolean changed = drain(key);
+
+                // Editors often write a file in several steps; wait until it settles
+                while (changed) {
+                    WatchKey more = watch.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (more == null) break;
+                    drain(more);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shutdown()
+        } catch (Throwable t) {
+            System.err.println("[QuickStack] Config watcher stopped: " + t.getMessage());
+        }
+    }
+
+    /**
+     * @return true if any event in the key was for the config file
+     */
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        List<WatchEvent<?>> events = key.pollEvents();
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || path.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        String text = readQuietly();
+        if (text == null || text.isBlank()) return;
+        if (text.equals(saver.getLastWritten())) return;
+        // Same text as last time, and nothing else was published since
+        if (text.equals(lastLoaded) && live.get() == loadedConfig) return;
+
+        try {
+            QuickStackConfig next = QuickStackConfig.CODEC.decode(BsonDocument.parse(text), ExtraInfo.THREAD_LOCAL.get());
+            live.set(next);
+            lastLoaded = text;
+            loadedConfig = next;
+            System.out.println("[QuickStack] Reloaded " + path.getFileName()
+                + " (stats and metrics settings apply after a restart)");
+        } catch (Throwable t) {
+            System.err.println("[QuickStack] Ignoring " + path.getFileName() + ", keeping the current config: "
+                + t.getMessage());
+        }
+    }
+
+    private String readQuietly() {
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
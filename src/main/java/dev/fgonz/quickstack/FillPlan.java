@@ -0,0 +1,171 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.handlers.BenchFillHandler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantities to move into each bench, decided before anything is moved.
+ *
+ * Planning only reads the arrays and values captured on the world thread, so it runs on a worker;
+ * the plan is then applied back on the world thread, where each move is re-validated.
+ *
+ * Used by the even fill mode: every input type is split evenly across the benches of a type. With a
+ * FuelPlanner each bench gets the fuel its input needs, densest first; without one, fuel is split in
+ * proportion to the input each bench receives. Benches are planned per handler in the order they
+ * were found, and each bench type only plans what earlier types left.
+ */
+final class FillPlan {
+
+    /**
+     * One bench and the quantity planned for each InventoryIndex group.
+     */
+    static final class Target {
+        final long position;
+        final ProcessingBenchState bench;
+        final ItemContainer container;
+        final BenchFillHandler handler;
+        int[] quantities;
+        /** Processing seconds the planned fuel was sized for; 0 without a FuelPlanner. */
+        double neededSeconds;
+        /** Input and fuel already in the bench when the snapshot was taken; null without a FuelPlanner. */
+        FuelPlanner.BenchLoad load;
+
+        Target(long position, ProcessingBenchState bench, ItemContainer container, BenchFillHandler handler) {
+            this.position = position;
+            this.bench = bench;
+            this.container = container;
+            this.handler = handler;
+        }
+    }
+
+    private final List<Target> targets = new ArrayList<>();
+
+    void add(Target target) {
+        targets.add(target);
+    }
+
+    List<Target> getTargets() {
+        return targets;
+    }
+
+    /**
+     * Fills in each target's quantities from an inventory snapshot.
+     * @param itemIds interned item id per InventoryIndex group
+     * @param available quantity per group; consumed by the plan
+     * @param fuelPlanner sizes fuel by need when set; null splits all fuel in proportion to input
+     */
+    void planEven(int[] itemIds, int[] available, FuelPlanner fuelPlanner) {
+        int groups = itemIds.length;
+
+        Map<BenchFillHandler, List<Target>> byHandler = new LinkedHashMap<>();
+        for (Target target : targets) {
+            target.quantities = new int[groups];
+            byHandler.computeIfAbsent(target.handler, h -> new ArrayList<>()).add(target);
+        }
+
+        for (Map.Entry<BenchFillHandler, List<Target>> entry : byHandler.entrySet()) {
+            int[] inputShare = planInputs(itemIds, entry.getKey(), entry.getValue(), available);
+            if (!entry.getKey().usesFuel()) continue;
+
+            if (fuelPlanner != null) {
+                planFuelByNeed(itemIds, fuelPlanner, entry.getKey(), entry.getValue(), available);
+            } else {
+                planFuel(itemIds, entry.getKey(), entry.getValue(), available, inputShare);
+            }
+        }
+    }
+
+    /**
+     * Splits every input group evenly. Remainders rotate so no bench collects all the leftovers.
+     * @return total input planned per bench
+     */
+    private static int[] planInputs(int[] itemIds, BenchFillHandler handler, List<Target> benches,
+                                    int[] available) {
+        int n = benches.size();
+        int[] share = new int[n];
+        int offset = 0;
+
+        for (int g = 0; g < available.length; g++) {
+            if (available[g] <= 0 || !handler.isValidInput(itemIds[g])) continue;
+
+            int base = available[g] / n;
+            int extra = available[g] % n;
+            for (int k = 0; k < n; k++) {
+                int i = (offset + k) % n;
+                int quantity = base + (k < extra ? 1 : 0);
+                benches.get(i).quantities[g] += quantity;
+                share[i] += quantity;
+            }
+            offset = (offset + extra) % n;
+            available[g] = 0;
+        }
+        return share;
+    }
+
+    /**
+     * Gives each bench, in order, the fuel its planned and queued input needs beyond the fuel it
+     * already holds.
+     */
+    private static void planFuelByNeed(int[] itemIds, FuelPlanner planner, BenchFillHandler handler,
+                                       List<Target> benches, int[] available) {
+        for (Target bench : benches) {
+            double needed = bench.load != null ? bench.load.backlogSeconds() : 0;
+            for (int g = 0; g < bench.quantities.length; g++) {
+                if (bench.quantities[g] > 0 && handler.isValidInput(itemIds[g])) {
+                    needed += bench.quantities[g] * planner.processSeconds(itemIds[g]);
+                }
+            }
+            needed = Math.max(0, needed);
+            bench.neededSeconds = needed;
+
+            int[] fuel = planner.allocate(needed, itemIds, handler, available);
+            for (int g = 0; g < fuel.length; g++) {
+                bench.quantities[g] += fuel[g];
+            }
+        }
+    }
+
+    /**
+     * Splits every fuel group in proportion to the input share; evenly if no input was planned.
+     */
+    private static void planFuel(int[] itemIds, BenchFillHandler handler, List<Target> benches,
+                                 int[] available, int[] inputShare) {
+        int n = benches.size();
+        long totalShare = 0;
+        for (int share : inputShare) {
+            totalShare += share;
+        }
+
+        for (int g = 0; g < available.length; g++) {
+            int itemId = itemIds[g];
+            if (available[g] <= 0 || handler.isValidInput(itemId) || !handler.isValidFuel(itemId)) continue;
+
+            int fuel = available[g];
+            int given = 0;
+            int[] quantities = new int[n];
+            for (int i = 0; i < n; i++) {
+                quantities[i] = totalShare > 0 ? (int) ((long) fuel * inputShare[i] / totalShare) : fuel / n;
+                given += quantities[i];
+            }
+            // Rounding leaves less than one unit per eligible bench
+            for (int i = 0; i < n && given < fuel; i++) {
+                if (totalShare == 0 || inputShare[i] > 0) {
+                    quantities[i]++;
+                    given++;
+                }
+            }
+
+            for (int i = 0; i < n; i++) {
+                benches.get(i).quantities[g] += quantities[i];
+            }
+            available[g] = 0;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.handlers.BenchFillHandler;
+import dev.fgonz.quickstack.handlers.RecipeIndex;
+import dev.fgonz.quickstack.items.ItemIds;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Works out how much fuel a bench needs for the input queued in it, and which fuel to send.
+ *
+ * Processing time per input comes from the recipe index. The item assets carry no burn time, so
+ * burn time per fuel comes from the config: FuelBurnDefaults, with FuelBurnSeconds on top, both
+ * "Item_Id=seconds,..." lists where an id may contain one '*' (e.g. "Wood_*_Trunk=15"). Inputs
+ * without a recipe and fuels without an entry fall back to FuelDefaultProcessSeconds and
+ * FuelDefaultBurnSeconds. Denser fuels are used first, and the last unit is topped up with the
+ * smallest fuel that covers what is left.
+ */
+final class FuelPlanner {
+
+    private final RecipeIndex recipes;
+    private final double defaultProcessSeconds;
+    private final double defaultBurnSeconds;
+    private final Map<String, Double> burnTable = new HashMap<>();
+    /** Wildcard entries as {prefix, suffix}, with their seconds; overrides first. */
+    private final List<String[]> burnPatterns = new ArrayList<>();
+    private final List<Double> burnPatternSeconds = new ArrayList<>();
+
+    FuelPlanner(RecipeIndex recipes, QuickStackConfig config) {
+        this.recipes = recipes;
+        this.defaultProcessSeconds = config.getFuelDefaultProcessSeconds();
+        this.defaultBurnSeconds = config.getFuelDefaultBurnSeconds();
+
+        Map<String, Double> defaults = new LinkedHashMap<>();
+        Map<String, Double> overrides = new LinkedHashMap<>();
+        parseBurnTable(config.getFuelBurnDefaults(), defaults);
+        parseBurnTable(config.getFuelBurnSeconds(), overrides);
+        addBurnEntries(overrides);
+        addBurnEntries(defaults);
+    }
+
+    private void addBurnEntries(Map<String, Double> entries) {
+        for (Map.Entry<String, Double> entry : entries.entrySet()) {
+            String id = entry.getKey();
+            int star = id.indexOf('*');
+            if (star < 0) {
+                burnTable.putIfAbsent(id, entry.getValue());
+            } else {
+                burnPatterns.add(new String[] {id.substring(0, star), id.substring(star + 1)});
+                burnPatternSeconds.add(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Parses "Item_Id=seconds" pairs separated by commas. Malformed entries are reported and skipped.
+     */
+    static void parseBurnTable(String spec, Map<String, Double> into) {
+        if (spec == null || spec.isBlank()) return;
+
+        for (String entry : spec.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                System.err.println("[BenchFill] Ignoring fuel entry '" + entry.trim() + "'");
+                continue;
+            }
+            try {
+                double seconds = Double.parseDouble(entry.substring(eq + 1).trim());
+                if (seconds > 0) {
+                    into.put(RecipeIndex.cleanId(entry.substring(0, eq).trim()), seconds);
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("[BenchFill] Ignoring fuel entry '" + entry.trim() + "'");
+            }
+        }
+    }
+
+    double burnSeconds(int itemId) {
+        String name = ItemIds.name(itemId);
+        if (name == null) return defaultBurnSeconds;
+
+        String clean = RecipeIndex.cleanId(name);
+        Double seconds = burnTable.get(clean);
+        if (seconds != null) return seconds;
+
+        for (int i = 0; i < burnPatterns.size(); i++) {
+            String[] pattern = burnPatterns.get(i);
+            if (clean.length() >= pattern[0].length() + pattern[1].length()
+                    && clean.startsWith(pattern[0]) && clean.endsWith(pattern[1])) {
+                return burnPatternSeconds.get(i);
+            }
+        }
+        return defaultBurnSeconds;
+    }
+
+    double processSeconds(int itemId) {
+        double seconds = recipes.getProcessSeconds(ItemIds.name(itemId));
+        return seconds > 0 ? seconds : defaultProcessSeconds;
+    }
+
+    /**
+     * What a bench holds: seconds of processing queued as input and seconds of fuel in its slots.
+     */
+    static final class BenchLoad {
+        final double inputSeconds;
+        final double fuelSeconds;
+
+        BenchLoad(double inputSeconds, double fuelSeconds) {
+            this.inputSeconds = inputSeconds;
+            this.fuelSeconds = fuelSeconds;
+        }
+
+        /**
+         * @return seconds of queued input not yet covered by fuel; negative when fuel is left over
+         */
+        double backlogSeconds() {
+            return inputSeconds - fuelSeconds;
+        }
+    }
+
+    /**
+     * Reads what is already in a bench. The bench does not expose the burn time left on fuel
+     * already lit, so that is not counted.
+     */
+    BenchLoad readLoad(ItemContainer container, BenchFillHandler handler) {
+        double input = 0;
+        double fuel = 0;
+        try {
+            short capacity = container.getCapacity();
+            for (short slot = 0; slot < capacity; slot++) {
+                ItemStack stack = container.getItemStack(slot);
+                if (stack == null) continue;
+
+                int id = ItemIds.intern(stack.getItemId());
+                if (id == ItemIds.NONE) continue;
+                if (handler.isValidInput(id)) {
+                    input += stack.getQuantity() * processSeconds(id);
+                } else if (handler.isValidFuel(id)) {
+                    fuel += stack.getQuantity() * burnSeconds(id);
+                }
+            }
+        } catch (Throwable ignored) {}
+        return new BenchLoad(input, fuel);
+    }
+
+    /**
+     * Picks fuel covering neededSeconds from the inventory groups the handler accepts as fuel.
+     * Pure computation over the given arrays, safe to run off the world thread.
+     * @param itemIds interned item id per group (see InventoryIndex)
+     * @param available quantity per group still free to plan; reduced by what is allocated
+     * @return quantity to move per group
+     */
+    int[] allocate(double neededSeconds, int[] itemIds, BenchFillHandler handler, int[] available) {
+        int[] plan = new int[available.length];
+        if (neededSeconds <= 0) return plan;
+
+        // burnSeconds() matches names and patterns; look each fuel up once
+        double[] burn = new double[available.length];
+        List<Integer> fuels = new ArrayList<>();
+        for (int g = 0; g < available.length; g++) {
+            int id = itemIds[g];
+            if (available[g] > 0 && !handler.isValidInput(id) && handler.isValidFuel(id)) {
+                fuels.add(g);
+                burn[g] = burnSeconds(id);
+            }
+        }
+        fuels.sort((a, b) -> Double.compare(burn[b], burn[a]));
+
+        // Whole units, densest first, without overshooting
+        double remaining = neededSeconds;
+        for (int g : fuels) {
+            int count = (int) Math.min(available[g], Math.floor(remaining / burn[g]));
+            plan[g] += count;
+            available[g] -= count;
+            remaining -= count * burn[g];
+        }
+
+        // Cover the rest with the smallest fuel that is enough, else the densest left
+        while (remaining > 0) {
+            int pick = -1;
+            for (int g : fuels) {
+                if (available[g] <= 0) continue;
+                if (pick < 0) {
+                    pick = g;
+                } else {
+                    boolean enough = burn[g] >= remaining;
+                    boolean pickEnough = burn[pick] >= remaining;
+                    if ((enough && (!pickEnough || burn[g] < burn[pick])) || (!enough && !pickEnough && burn[g] > burn[pick])) {
+                        pick = g;
+                    }
+                }
+            }
+            if (pick < 0) break;
+
+            plan[pick]++;
+            available[pick]--;
+            remaining -= burn[pick];
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,86 @@
+package dev.fgonz.quickstack;
+
+import dev.fgonz.quickstack.scan.NearestOffsets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The QuickStackConfig currently in effect.
+ *
+ * A published config is never modified again: a reload or an edit builds a new instance (see
+ * QuickStackConfig.copy()) and swaps it in with set(). Readers call get() once and keep that
+ * snapshot for the rest of the operation, so a job started before a reload finishes with the
+ * settings it started with. Listeners run on the thread that called set().
+ */
+public final class LiveConfig {
+
+    private final AtomicReference<QuickStackConfig> current;
+    private final List<Consumer<QuickStackConfig>> listeners = new CopyOnWriteArrayList<>();
+
+    public LiveConfig(QuickStackConfig initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    public QuickStackConfig get() {
+        return current.get();
+    }
+
+    /**
+     * Publishes a new config after validating it.
+     * @throws IllegalArgumentException listing what is wrong; the current config stays in effect
+     */
+    public void set(QuickStackConfig next) {
+        List<String> problems = validate(next);
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", problems));
+        }
+
+        current.set(next);
+        for (Consumer<QuickStackConfig> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (Throwable t) {
+                System.err.println("[QuickStack] Config listener failed: " + t.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param listener called with each config published after this call
+     */
+    public void addListener(Consumer<QuickStackConfig> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return what is wrong with the config, empty if it can be used
+     */
+    public static List<String> validate(QuickStackConfig config) {
+        List<String> problems = new ArrayList<>();
+        if (config == null) {
+            problems.add("config is empty");
+            return problems;
+        }
+        if (config.getSearchRadius() < 1) problems.add("SearchRadius must be at least 1");
+        if (config.getMaxSearchRadius() < 1) problems.add("MaxSearchRadius must be at least 1");
+        if (config.getMaxSearchRadius() > NearestOffsets.MAX_RADIUS) {
+            problems.add("MaxSearchRadius must not exceed " + NearestOffsets.MAX_RADIUS);
+        }
+        if (config.getMinSearchRadius() < 1) problems.add("MinSearchRadius must be at least 1");
+        if (config.getSearchRadius() > config.getMaxSearchRadius()) {
+            problems.add("SearchRadius must not exceed MaxSearchRadius");
+        }
+        if (config.getTickBudgetMicros() < 1) problems.add("TickBudgetMicros must be positive");
+        if (config.getRequestsPerMinute() < 0) problems.add("RequestsPerMinute must not be negative");
+        if (config.getRequestBurst() < 0) problems.add("RequestBurst must not be negative");
+        if (config.getMaxActiveJobsPerWorld() < 1) problems.add("MaxActiveJobsPerWorld must be at least 1");
+        if (config.getMaxQueuedJobsPerWorld() < 0) problems.add("MaxQueuedJobsPerWorld must not be negative");
+        if (!(config.getFuelDefaultBurnSeconds() > 0)) problems.add("FuelDefaultBurnSeconds must be positive");
+        if (!(config.getFuelDefaultProcessSeconds() > 0)) problems.add("FuelDefaultProcessSeconds must be positive");
+        return problems;
+    }
+}
@@ -1,15 +1,28 @@
 package dev.fgonz.quickstack;
 
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.server.core.asset.type.item.config.CraftingRecipe;
 import com.hypixel.hytale.server.core.command.system.CommandRegistry;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.core.util.Config;
 
 import dev.fgonz.quickstack.commands.QuickStackParentCommand;
 import dev.fgonz.quickstack.commands.QuickStackUiCommand;
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.scan.ContainerIndexSystems;
+import dev.fgonz.quickstack.settings.PlayerSettingsStore;
+import dev.fgonz.quickstack.settings.QuickStackSettings;
+import dev.fgonz.quickstack.stats.PrometheusExporter;
+import dev.fgonz.quickstack.stats.QuickStackStats;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Plugin entry point. Registers the QuickStack command system.
@@ -17,14 +30,23 @@ import java.nio.file.Paths;
  * Commands:
  *   /quickstack          - Open settings UI
  *   /qs                  - Quick stack to nearby chests
- *   /qs fill [type]      - Fill processing benches (furnace, tannery)
+ *   /qs fill [type]      - Fill processing benches (furnace, tannery, or any bench id)
  *   /qs config           - Open settings UI
+ *   /qs stats            - Timings and counters (admin)
  */
 public class QuickStackCommandPlugin extends JavaPlugin {
 
     private Config<QuickStackConfig> configWrapper;
+    private ConfigSaver<QuickStackConfig> configSaver;
+    private ConfigWatcher configWatcher;
+    private LiveConfig liveConfig;
     private QuickStackService stackService;
     private BenchFillService benchFillService;
+    private JobScheduler jobScheduler;
+    private RequestGate requestGate;
+    private QuickStackStats stats;
+    private PlayerSettingsStore playerSettings;
+    private PrometheusExporter metricsExporter;
 
     public QuickStackCommandPlugin(JavaPluginInit init) {
         super(init);
@@ -69,14 +91,49 @@ public class QuickStackCommandPlugin extends JavaPlugin {
             System.err.println("[QuickStack] Config was null, using defaults");
         }
 
+        List<String> problems = LiveConfig.validate(config);
+        if (!problems.isEmpty()) {
+            System.err.println("[QuickStack] Config has invalid values, using defaults: " + String.join("; ", problems));
+            config = new QuickStackConfig();
+        }
+        this.liveConfig = new LiveConfig(config);
+
         // Initialize services
-        this.stackService = new QuickStackService(config);
-        this.benchFillService = new BenchFillService(config);
+        this.jobScheduler = new JobScheduler(liveConfig);
+        this.requestGate = new RequestGate(liveConfig);
+        this.stats = new QuickStackStats(jobScheduler, requestGate);
+        this.configSaver = new ConfigSaver<>(liveConfig::get, QuickStackConfig.CODEC, configPath, stats);
+        this.stackService = new QuickStackService(liveConfig, jobScheduler, requestGate, stats);
+        this.benchFillService = new BenchFillService(liveConfig, jobScheduler, requestGate, stats);
+        // Read once: changing these takes a restart
+        stats.startLogging(config.getStatsLogIntervalSeconds());
+        startMetricsExport(config);
+
+        // Pick up edits to the config file while the server runs
+        this.configWatcher = new ConfigWatcher(liveConfig, configSaver, configPath);
+        try {
+            configWatcher.start();
+        } catch (Exception e) {
+            System.err.println("[QuickStack] Config hot reload unavailable: " + e.getMessage());
+        }
+
+        // Rebuild the recipe-driven bench index whenever recipes are (re)loaded
+        getEventRegistry().register(LoadedAssetsEvent.class, CraftingRecipe.class,
+            event -> benchFillService.reloadRecipes());
+
+        // Per-player settings, saved with the player; the config supplies defaults and the radius cap
+        ComponentType<EntityStore, QuickStackSettings> settingsType = getEntityStoreRegistry()
+            .registerComponent(QuickStackSettings.class, "QuickStackSettings", QuickStackSettings.CODEC);
+        this.playerSettings = new PlayerSettingsStore(liveConfig, settingsType);
+
+        // Keep the per-world container index current
+        getEntityStoreRegistry().registerSystem(new ContainerIndexSystems.OnBreak());
+        getEntityStoreRegistry().registerSystem(new ContainerIndexSystems.OnPlace());
 
         // Register commands
         CommandRegistry registry = getCommandRegistry();
-        registry.registerCommand(new QuickStackUiCommand(stackService, configWrapper));
-        registry.registerCommand(new QuickStackParentCommand(stackService, benchFillService, configWrapper));
+        registry.registerCommand(new QuickStackUiCommand(stackService, playerSettings));
+        registry.registerCommand(new QuickStackParentCommand(stackService, benchFillService, playerSettings));
 
         System.out.println("[QuickStack] Ready! Commands:");
         System.out.println("  /quickstack   - Open settings UI");
@@ -85,6 +142,44 @@ public class QuickStackCommandPlugin extends JavaPlugin {
         System.out.println("  /qs fill      - Fill all processing benches");
         System.out.println("  /qs fill f    - Fill furnaces only");
         System.out.println("  /qs fill t    - Fill tanneries only");
+        System.out.println("  /qs stats     - Timings and counters (admin)");
+    }
+
+    private void startMetricsExport(QuickStackConfig config) {
+        String mode = config.getMetricsExport() == null ? "off" : config.getMetricsExport().trim().toLowerCase(Locale.ROOT);
+        if (mode.isEmpty() || mode.equals("off")) {
+            return;
+        }
+
+        this.metricsExporter = new PrometheusExporter(stats);
+        try {
+            switch (mode) {
+                case "file" -> metricsExporter.startFile(Paths.get(config.getMetricsFile()), config.getMetricsIntervalSeconds());
+                case "http" -> metricsExporter.startHttp(config.getMetricsPort());
+                default -> System.err.println("[QuickStack] Unknown MetricsExport '" + mode + "', expected off, file or http");
+            }
+        } catch (Exception e) {
+            System.err.println("[QuickStack] Failed to start metrics export: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected void shutdown() {
+        if (configWatcher != null) {
+            configWatcher.shutdown();
+        }
+        if (metricsExporter != null) {
+            metricsExporter.shutdown();
+        }
+        if (stats != null) {
+            stats.shutdown();
+        }
+        if (jobScheduler != null) {
+            jobScheduler.shutdown();
+        }
+        if (configSaver != null) {
+            configSaver.shutdown();
+        }
     }
 
     public QuickStackService getStackService() {
@@ -95,7 +190,33 @@ public class QuickStackCommandPlugin extends JavaPlugin {
         return benchFillService;
     }
 
+    public RequestGate getRequestGate() {
+        return requestGate;
+    }
+
+    public QuickStackStats getStats() {
+        return stats;
+    }
+
+    public PlayerSettingsStore getPlayerSettings() {
+        return playerSettings;
+    }
+
     public Config<QuickStackConfig> getConfigWrapper() {
         return configWrapper;
     }
+
+    /**
+     * The config in effect. Change it by publishing an edited copy() with set().
+     */
+    public LiveConfig getLiveConfig() {
+        return liveConfig;
+    }
+
+    /**
+     * Use markDirty() after publishing a change instead of saving the config directly.
+     */
+    public ConfigSaver<QuickStackConfig> getConfigSaver() {
+        return configSaver;
+    }
 }
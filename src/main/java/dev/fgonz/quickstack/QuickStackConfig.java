@@ -5,8 +5,12 @@ import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 
 /**
- * Persisted settings for Quick Stack: search radius and which inventory sections to check.
+ * Persisted settings for Quick Stack: default search radius and its cap, which inventory sections
+ * to check by default, how benches are filled, how much world-thread time per tick jobs may use
+ * and how often each player may start a request.
  * 
+ * Once published through LiveConfig an instance is not modified; edits go to a copy().
+ *
  * Inventory sections:
  *   - Storage: Main inventory grid
  *   - Backpack: Expandable backpack slots
@@ -15,24 +19,117 @@ import com.hypixel.hytale.codec.KeyedCodec;
 public class QuickStackConfig {
 
     private int searchRadius;
+    private int maxSearchRadius;
     private boolean checkStorage;
     private boolean checkBackpack;
     private boolean checkHotbar;
+    private int tickBudgetMicros;
+    private boolean evenFill;
+    private boolean fuelPlanning;
+    private String fuelBurnSeconds;
+    private String fuelBurnDefaults;
+    private double fuelDefaultBurnSeconds;
+    private double fuelDefaultProcessSeconds;
+    private int requestsPerMinute;
+    private int requestBurst;
+    private int maxActiveJobsPerWorld;
+    private int maxQueuedJobsPerWorld;
+    private boolean adaptiveRadius;
+    private int minSearchRadius;
+    private int statsLogIntervalSeconds;
+    private String metricsExport;
+    private String metricsFile;
+    private int metricsPort;
+    private int metricsIntervalSeconds;
 
     public static final BuilderCodec<QuickStackConfig> CODEC = BuilderCodec.builder(QuickStackConfig.class, QuickStackConfig::new)
         .append(new KeyedCodec<>("SearchRadius", Codec.INTEGER), QuickStackConfig::setSearchRadius, QuickStackConfig::getSearchRadius).add()
+        .append(new KeyedCodec<>("MaxSearchRadius", Codec.INTEGER), QuickStackConfig::setMaxSearchRadius, QuickStackConfig::getMaxSearchRadius).add()
         .append(new KeyedCodec<>("CheckStorage", Codec.BOOLEAN), QuickStackConfig::setCheckStorage, QuickStackConfig::isCheckStorage).add()
         .append(new KeyedCodec<>("CheckBackpack", Codec.BOOLEAN), QuickStackConfig::setCheckBackpack, QuickStackConfig::isCheckBackpack).add()
         .append(new KeyedCodec<>("CheckHotbar", Codec.BOOLEAN), QuickStackConfig::setCheckHotbar, QuickStackConfig::isCheckHotbar).add()
+        .append(new KeyedCodec<>("TickBudgetMicros", Codec.INTEGER), QuickStackConfig::setTickBudgetMicros, QuickStackConfig::getTickBudgetMicros).add()
+        .append(new KeyedCodec<>("EvenFill", Codec.BOOLEAN), QuickStackConfig::setEvenFill, QuickStackConfig::isEvenFill).add()
+        .append(new KeyedCodec<>("FuelPlanning", Codec.BOOLEAN), QuickStackConfig::setFuelPlanning, QuickStackConfig::isFuelPlanning).add()
+        .append(new KeyedCodec<>("FuelBurnSeconds", Codec.STRING), QuickStackConfig::setFuelBurnSeconds, QuickStackConfig::getFuelBurnSeconds).add()
+        .append(new KeyedCodec<>("FuelBurnDefaults", Codec.STRING), QuickStackConfig::setFuelBurnDefaults, QuickStackConfig::getFuelBurnDefaults).add()
+        .append(new KeyedCodec<>("FuelDefaultBurnSeconds", Codec.DOUBLE), QuickStackConfig::setFuelDefaultBurnSeconds, QuickStackConfig::getFuelDefaultBurnSeconds).add()
+        .append(new KeyedCodec<>("FuelDefaultProcessSeconds", Codec.DOUBLE), QuickStackConfig::setFuelDefaultProcessSeconds, QuickStackConfig::getFuelDefaultProcessSeconds).add()
+        .append(new KeyedCodec<>("RequestsPerMinute", Codec.INTEGER), QuickStackConfig::setRequestsPerMinute, QuickStackConfig::getRequestsPerMinute).add()
+        .append(new KeyedCodec<>("RequestBurst", Codec.INTEGER), QuickStackConfig::setRequestBurst, QuickStackConfig::getRequestBurst).add()
+        .append(new KeyedCodec<>("MaxActiveJobsPerWorld", Codec.INTEGER), QuickStackConfig::setMaxActiveJobsPerWorld, QuickStackConfig::getMaxActiveJobsPerWorld).add()
+        .append(new KeyedCodec<>("MaxQueuedJobsPerWorld", Codec.INTEGER), QuickStackConfig::setMaxQueuedJobsPerWorld, QuickStackConfig::getMaxQueuedJobsPerWorld).add()
+        .append(new KeyedCodec<>("AdaptiveRadius", Codec.BOOLEAN), QuickStackConfig::setAdaptiveRadius, QuickStackConfig::isAdaptiveRadius).add()
+        .append(new KeyedCodec<>("MinSearchRadius", Codec.INTEGER), QuickStackConfig::setMinSearchRadius, QuickStackConfig::getMinSearchRadius).add()
+        .append(new KeyedCodec<>("StatsLogIntervalSeconds", Codec.INTEGER), QuickStackConfig::setStatsLogIntervalSeconds, QuickStackConfig::getStatsLogIntervalSeconds).add()
+        .append(new KeyedCodec<>("MetricsExport", Codec.STRING), QuickStackConfig::setMetricsExport, QuickStackConfig::getMetricsExport).add()
+        .append(new KeyedCodec<>("MetricsFile", Codec.STRING), QuickStackConfig::setMetricsFile, QuickStackConfig::getMetricsFile).add()
+        .append(new KeyedCodec<>("MetricsPort", Codec.INTEGER), QuickStackConfig::setMetricsPort, QuickStackConfig::getMetricsPort).add()
+        .append(new KeyedCodec<>("MetricsIntervalSeconds", Codec.INTEGER), QuickStackConfig::setMetricsIntervalSeconds, QuickStackConfig::getMetricsIntervalSeconds).add()
         .build();
 
     public QuickStackConfig() {
         this.searchRadius = 5;
+        this.maxSearchRadius = 15;
         this.checkStorage = true;
         this.checkBackpack = true;
         this.checkHotbar = false;
+        this.tickBudgetMicros = 2000;
+        this.evenFill = false;
+        this.fuelPlanning = true;
+        this.fuelBurnSeconds = "";
+        this.fuelBurnDefaults = "Ingredient_Coal=80,Ingredient_Charcoal=40,Wood_Sticks=2.5,Ingredient_Stick=2.5,"
+            + "Wood_*_Trunk=15,Wood_*_Beam=10,Wood_*_Planks=5";
+        this.fuelDefaultBurnSeconds = 5;
+        this.fuelDefaultProcessSeconds = 10;
+        this.requestsPerMinute = 20;
+        this.requestBurst = 3;
+        this.maxActiveJobsPerWorld = 8;
+        this.maxQueuedJobsPerWorld = 64;
+        this.adaptiveRadius = true;
+        this.minSearchRadius = 4;
+        this.statsLogIntervalSeconds = 300;
+        this.metricsExport = "off";
+        this.metricsFile = "UserData/Metrics/quickstack.prom";
+        this.metricsPort = 9471;
+        this.metricsIntervalSeconds = 15;
     }
 
+    /**
+     * @return an independent copy, for changing a config that may already be in use
+     */
+    public QuickStackConfig copy() {
+        QuickStackConfig copy = new QuickStackConfig();
+        copy.searchRadius = searchRadius;
+        copy.maxSearchRadius = maxSearchRadius;
+        copy.checkStorage = checkStorage;
+        copy.checkBackpack = checkBackpack;
+        copy.checkHotbar = checkHotbar;
+        copy.tickBudgetMicros = tickBudgetMicros;
+        copy.evenFill = evenFill;
+        copy.fuelPlanning = fuelPlanning;
+        copy.fuelBurnSeconds = fuelBurnSeconds;
+        copy.fuelBurnDefaults = fuelBurnDefaults;
+        copy.fuelDefaultBurnSeconds = fuelDefaultBurnSeconds;
+        copy.fuelDefaultProcessSeconds = fuelDefaultProcessSeconds;
+        copy.requestsPerMinute = requestsPerMinute;
+        copy.requestBurst = requestBurst;
+        copy.maxActiveJobsPerWorld = maxActiveJobsPerWorld;
+        copy.maxQueuedJobsPerWorld = maxQueuedJobsPerWorld;
+        copy.adaptiveRadius = adaptiveRadius;
+        copy.minSearchRadius = minSearchRadius;
+        copy.statsLogIntervalSeconds = statsLogIntervalSeconds;
+        copy.metricsExport = metricsExport;
+        copy.metricsFile = metricsFile;
+        copy.metricsPort = metricsPort;
+        copy.metricsIntervalSeconds = metricsIntervalSeconds;
+        return copy;
+    }
+
+    /**
+     * Radius for players who have not picked their own. The section toggles below are likewise
+     * defaults each player can override.
+     */
     public int getSearchRadius() {
         return searchRadius;
     }
@@ -41,6 +138,17 @@ public class QuickStackConfig {
         this.searchRadius = searchRadius;
     }
 
+    /**
+     * Largest radius a player may pick; also caps SearchRadius. At most NearestOffsets.MAX_RADIUS.
+     */
+    public int getMaxSearchRadius() {
+        return maxSearchRadius;
+    }
+
+    public void setMaxSearchRadius(int maxSearchRadius) {
+        this.maxSearchRadius = maxSearchRadius;
+    }
+
     public boolean isCheckStorage() {
         return checkStorage;
     }
@@ -64,4 +172,206 @@ public class QuickStackConfig {
     public void setCheckHotbar(boolean checkHotbar) {
         this.checkHotbar = checkHotbar;
     }
+
+    /**
+     * Microseconds of world-thread time quick-stack jobs may use per tick.
+     */
+    public int getTickBudgetMicros() {
+        return tickBudgetMicros;
+    }
+
+    public void setTickBudgetMicros(int tickBudgetMicros) {
+        this.tickBudgetMicros = tickBudgetMicros;
+    }
+
+    /**
+     * When set, /qs fill splits items evenly across all matching benches in range
+     * instead of filling the nearest bench first.
+     */
+    public boolean isEvenFill() {
+        return evenFill;
+    }
+
+    public void setEvenFill(boolean evenFill) {
+        this.evenFill = evenFill;
+    }
+
+    /**
+     * When set, /qs fill only sends the fuel the queued input needs, densest fuel first.
+     * When cleared, every fuel stack the bench accepts is moved.
+     */
+    public boolean isFuelPlanning() {
+        return fuelPlanning;
+    }
+
+    public void setFuelPlanning(boolean fuelPlanning) {
+        this.fuelPlanning = fuelPlanning;
+    }
+
+    /**
+     * Burn time overrides for the fuel planner, as "Item_Id=seconds" pairs separated by commas.
+     */
+    public String getFuelBurnSeconds() {
+        return fuelBurnSeconds;
+    }
+
+    public void setFuelBurnSeconds(String fuelBurnSeconds) {
+        this.fuelBurnSeconds = fuelBurnSeconds;
+    }
+
+    /**
+     * Burn times the fuel planner starts from, in the same format as FuelBurnSeconds. An id may
+     * contain one '*', e.g. "Wood_*_Trunk=15".
+     */
+    public String getFuelBurnDefaults() {
+        return fuelBurnDefaults;
+    }
+
+    public void setFuelBurnDefaults(String fuelBurnDefaults) {
+        this.fuelBurnDefaults = fuelBurnDefaults;
+    }
+
+    /**
+     * Burn time assumed for a fuel neither burn list mentions.
+     */
+    public double getFuelDefaultBurnSeconds() {
+        return fuelDefaultBurnSeconds;
+    }
+
+    public void setFuelDefaultBurnSeconds(double fuelDefaultBurnSeconds) {
+        this.fuelDefaultBurnSeconds = fuelDefaultBurnSeconds;
+    }
+
+    /**
+     * Processing time assumed for an input no recipe describes.
+     */
+    public double getFuelDefaultProcessSeconds() {
+        return fuelDefaultProcessSeconds;
+    }
+
+    public void setFuelDefaultProcessSeconds(double fuelDefaultProcessSeconds) {
+        this.fuelDefaultProcessSeconds = fuelDefaultProcessSeconds;
+    }
+
+    /**
+     * Sustained rate at which each player may start quick-stack or fill requests. 0 disables the limit.
+     */
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public void setRequestsPerMinute(int requestsPerMinute) {
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    /**
+     * Requests a player may start back to back before the per-minute rate applies.
+     */
+    public int getRequestBurst() {
+        return requestBurst;
+    }
+
+    public void setRequestBurst(int requestBurst) {
+        this.requestBurst = requestBurst;
+    }
+
+    /**
+     * Quick-stack and fill jobs stepped concurrently in one world. Further jobs wait in the queue.
+     */
+    public int getMaxActiveJobsPerWorld() {
+        return maxActiveJobsPerWorld;
+    }
+
+    public void setMaxActiveJobsPerWorld(int maxActiveJobsPerWorld) {
+        this.maxActiveJobsPerWorld = maxActiveJobsPerWorld;
+    }
+
+    /**
+     * Jobs allowed to wait for a slot in one world. Requests beyond this get a "server busy" reply.
+     */
+    public int getMaxQueuedJobsPerWorld() {
+        return maxQueuedJobsPerWorld;
+    }
+
+    public void setMaxQueuedJobsPerWorld(int maxQueuedJobsPerWorld) {
+        this.maxQueuedJobsPerWorld = maxQueuedJobsPerWorld;
+    }
+
+    /**
+     * When set, the search radius shrinks temporarily while the world thread is falling behind.
+     */
+    public boolean isAdaptiveRadius() {
+        return adaptiveRadius;
+    }
+
+    public void setAdaptiveRadius(boolean adaptiveRadius) {
+        this.adaptiveRadius = adaptiveRadius;
+    }
+
+    /**
+     * Smallest radius the adaptive radius may shrink to; a value above SearchRadius acts as SearchRadius.
+     */
+    public int getMinSearchRadius() {
+        return minSearchRadius;
+    }
+
+    public void setMinSearchRadius(int minSearchRadius) {
+        this.minSearchRadius = minSearchRadius;
+    }
+
+    /**
+     * Seconds between stats summary lines in the log; 0 turns them off. Read at startup.
+     */
+    public int getStatsLogIntervalSeconds() {
+        return statsLogIntervalSeconds;
+    }
+
+    public void setStatsLogIntervalSeconds(int statsLogIntervalSeconds) {
+        this.statsLogIntervalSeconds = statsLogIntervalSeconds;
+    }
+
+    /**
+     * Prometheus export: "off", "file" (textfile collector, see MetricsFile) or "http"
+     * (loopback only, see MetricsPort). Read at startup.
+     */
+    public String getMetricsExport() {
+        return metricsExport;
+    }
+
+    public void setMetricsExport(String metricsExport) {
+        this.metricsExport = metricsExport;
+    }
+
+    /**
+     * File rewritten in "file" mode.
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Port on 127.0.0.1 serving /metrics in "http" mode.
+     */
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    /**
+     * Seconds between rewrites in "file" mode.
+     */
+    public int getMetricsIntervalSeconds() {
+        return metricsIntervalSeconds;
+    }
+
+    public void setMetricsIntervalSeconds(int metricsIntervalSeconds) {
+        this.metricsIntervalSeconds = metricsIntervalSeconds;
+    }
 }
@@ -11,7 +11,6 @@ import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.util.Config;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
@@ -23,7 +22,8 @@ import javax.annotation.Nonnull;
  */
 public class QuickStackConfigGui extends InteractiveCustomUIPage<QuickStackConfigGui.GuiData> {
 
-    private final Config<QuickStackConfig> configWrapper;
+    private final LiveConfig config;
+    private final ConfigSaver<QuickStackConfig> configSaver;
     
     public static class GuiData {
         private String action;
@@ -35,16 +35,17 @@ public class QuickStackConfigGui extends InteractiveCustomUIPage<QuickStackConfi
             .build();
     }
 
-    public QuickStackConfigGui(@Nonnull PlayerRef playerRef, Config<QuickStackConfig> configWrapper) {
+    public QuickStackConfigGui(@Nonnull PlayerRef playerRef, LiveConfig config, ConfigSaver<QuickStackConfig> configSaver) {
         super(playerRef, CustomPageLifetime.CanDismiss, GuiData.CODEC);
-        this.configWrapper = configWrapper;
+        this.config = config;
+        this.configSaver = configSaver;
     }
 
     @Override
     public void build(@Nonnull Ref<EntityStore> ref, @Nonnull UICommandBuilder uiCommandBuilder, @Nonnull UIEventBuilder uiEventBuilder, @Nonnull Store<EntityStore> store) {
         uiCommandBuilder.append("Pages/QuickStack_Config_Gui.ui");
         
-        QuickStackConfig cfg = configWrapper.get();
+        QuickStackConfig cfg = config.get();
         
         // Update visual state using .set()
         uiCommandBuilder.set("#LblRadius.Text", String.valueOf(cfg.getSearchRadius()));
@@ -62,12 +63,13 @@ public class QuickStackConfigGui extends InteractiveCustomUIPage<QuickStackConfi
         super.handleDataEvent(ref, store, data);
         
         String action = data.getAction();
-        QuickStackConfig cfg = configWrapper.get();
+        // Published configs are not modified; edit a copy and swap it in
+        QuickStackConfig cfg = config.get().copy();
         boolean needsRebuild = false;
         
         if ("radius_inc".equals(action)) {
             int val = cfg.getSearchRadius();
-            if (val < 15) cfg.setSearchRadius(val + 1);
+            if (val < cfg.getMaxSearchRadius()) cfg.setSearchRadius(val + 1);
             needsRebuild = true;
         } else if ("radius_dec".equals(action)) {
             int val = cfg.getSearchRadius();
@@ -77,32 +79,41 @@ public class QuickStackConfigGui extends InteractiveCustomUIPage<QuickStackConfi
             cfg.setCheckBackpack(!cfg.isCheckBackpack());
             needsRebuild = true;
         } else if ("save".equals(action)) {
-            // Save to disk (blocking to ensure persistence)
-            try {
-                configWrapper.save().join();
-                
-                // Send confirmation message (user closes with ESC)
-                Player player = store.getComponent(ref, Player.getComponentType());
-                if (player != null) {
-                    player.sendMessage(com.hypixel.hytale.server.core.Message.raw("- Configuration saved to disk! Press ESC to close."));
+            // Written on the saver's thread; reply once it is on disk (user closes with ESC)
+            Player player = store.getComponent(ref, Player.getComponentType());
+            configSaver.saveNow().whenComplete((saved, error) -> {
+                if (error != null) {
+                    System.err.println("QuickStack: Save failed: " + error.getMessage());
                 }
-            } catch (Exception e) {
-                Player player = store.getComponent(ref, Player.getComponentType());
                 if (player != null) {
-                    player.sendMessage(com.hypixel.hytale.server.core.Message.raw("- ERROR: Failed to save configuration!"));
+                    player.sendMessage(com.hypixel.hytale.server.core.Message.raw(error == null
+                        ? "- Configuration saved to disk! Press ESC to close."
+                        : "- ERROR: Failed to save configuration!"));
                 }
-                System.err.println("QuickStack: Save failed: " + e.getMessage());
-            }
+            });
             return;
         }
         
         if (needsRebuild) {
+            try {
+                config.set(cfg);
+            } catch (IllegalArgumentException e) {
+                // The edit would make the config invalid; keep the current one and say why
+                Player player = store.getComponent(ref, Player.getComponentType());
+                if (player != null) {
+                    player.sendMessage(com.hypixel.hytale.server.core.Message.raw(
+                        "- Not changed: " + e.getMessage()));
+                }
+                return;
+            }
+            configSaver.markDirty();
+
             // Refresh UI
             PlayerRef playerRef = store.getComponent(ref, PlayerRef.getComponentType());
             if (playerRef != null) {
                 // Re-open with updated values
                 store.getComponent(ref, Player.getComponentType()).getPageManager()
-                     .openCustomPage(ref, store, new QuickStackConfigGui(playerRef, configWrapper));
+                     .openCustomPage(ref, store, new QuickStackConfigGui(playerRef, config, configSaver));
             }
         }
     }
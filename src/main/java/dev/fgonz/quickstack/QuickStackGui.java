@@ -11,21 +11,28 @@ import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.util.Config;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.settings.PlayerSettings;
+import dev.fgonz.quickstack.settings.PlayerSettingsStore;
+import dev.fgonz.quickstack.settings.QuickStackSettings;
+import dev.fgonz.quickstack.stats.OperationStats;
+
+import java.util.UUID;
+
 import javax.annotation.Nonnull;
 
 /**
- * UI page for Quick Stack. Shows the action button and settings (radius, backpack toggle).
- * Config changes persist to disk automatically.
+ * UI page for Quick Stack. Shows the action button and the player's own settings (radius,
+ * section toggles). Changes only affect this player and are saved with their player data.
  */
 public class QuickStackGui extends InteractiveCustomUIPage<QuickStackGui.GuiData> {
 
     private final QuickStackService service;
-    private final Config<QuickStackConfig> configWrapper;
+    private final PlayerSettingsStore settings;
 
     public static class GuiData {
         private String action;
@@ -38,17 +45,20 @@ public class QuickStackGui extends InteractiveCustomUIPage<QuickStackGui.GuiData
             .build();
     }
 
-    public QuickStackGui(@Nonnull PlayerRef playerRef, @Nonnull CustomPageLifetime lifetime, QuickStackService service, Config<QuickStackConfig> configWrapper) {
+    public QuickStackGui(@Nonnull PlayerRef playerRef, @Nonnull CustomPageLifetime lifetime, QuickStackService service, PlayerSettingsStore settings) {
         super(playerRef, lifetime, GuiData.CODEC);
         this.service = service;
-        this.configWrapper = configWrapper;
+        this.settings = settings;
     }
 
     @Override
     public void build(@Nonnull Ref<EntityStore> ref, @Nonnull UICommandBuilder uiCommandBuilder, @Nonnull UIEventBuilder uiEventBuilder, @Nonnull Store<EntityStore> store) {
         uiCommandBuilder.append("Pages/QuickStack_Gui.ui");
         
-        QuickStackConfig cfg = configWrapper.get();
+        Player player = store.getComponent(ref, Player.getComponentType());
+        PlayerSettings cfg = player != null
+            ? settings.get(ref, store, player.getUuid())
+            : PlayerSettings.defaults(settings.getConfig());
         
         uiCommandBuilder.set("#LblRadius.Text", String.valueOf(cfg.getSearchRadius()));
         uiCommandBuilder.set("#BtnToggleBackpack.Text", cfg.isCheckBackpack() ? "ON" : "OFF");
@@ -71,19 +81,19 @@ public class QuickStackGui extends InteractiveCustomUIPage<QuickStackGui.GuiData
         if (player == null) return;
 
         String action = data.getAction();
-        QuickStackConfig cfg = configWrapper.get();
+        UUID uuid = player.getUuid();
+        PlayerSettings cfg = settings.get(ref, store, uuid);
         boolean configChanged = false;
         
         switch (action) {
             case "stack":
-                player.sendMessage(com.hypixel.hytale.server.core.Message.raw(
-                    "Checking within " + cfg.getSearchRadius() + " blocks..."));
-                
-                service.performQuickStack(player).thenAccept(result -> {
+                // Only the outcome is reported; the request may yet be joined or rate-limited
+                service.performQuickStack(player, cfg).thenAccept(result -> {
+                    long messageStart = System.nanoTime();
                     String msg;
                     if (result.hasMovedItems()) {
                         StringBuilder sb = new StringBuilder();
-                        sb.append("Quickstack done! Moved:");
+                        sb.append("Quickstack done! Moved (radius ").append(result.getRadius()).append("):");
                         for (java.util.Map.Entry<String, Integer> entry : result.getMovedItems().entrySet()) {
                             sb.append("\n[x").append(entry.getValue()).append("] ").append(entry.getKey());
                         }
@@ -92,47 +102,59 @@ public class QuickStackGui extends InteractiveCustomUIPage<QuickStackGui.GuiData
                     } else {
                         msg = "Nothing to move. Checked " + result.getContainersChecked() + " containers.";
                     }
+                    if (result.getSkippedChunks() > 0) {
+                        msg += " (skipped " + result.getSkippedChunks() + " unloaded chunk(s))";
+                    }
+                    if (result.isRadiusReduced()) {
+                        msg += " (radius reduced to " + result.getRadius() + " while the server is busy)";
+                    }
                     player.sendMessage(com.hypixel.hytale.server.core.Message.raw(msg));
+                    service.getStats().stack().record(OperationStats.Phase.MESSAGE, messageStart);
+                }).exceptionally(e -> {
+                    RequestGate.RequestRejectedException rejected = RequestGate.rejection(e);
+                    player.sendMessage(com.hypixel.hytale.server.core.Message.raw(
+                        rejected != null ? rejected.getMessage() : "Quickstack failed: " + e.getMessage()));
+                    return null;
                 });
                 return;
                 
             case "radius_inc":
-                if (cfg.getSearchRadius() < 15) {
-                    cfg.setSearchRadius(cfg.getSearchRadius() + 1);
+                if (cfg.getSearchRadius() < settings.getConfig().getMaxSearchRadius()) {
+                    int radius = cfg.getSearchRadius() + 1;
+                    settings.update(ref, store, uuid, s -> s.setSearchRadius(radius));
                     configChanged = true;
                 }
                 break;
                 
             case "radius_dec":
                 if (cfg.getSearchRadius() > 1) {
-                    cfg.setSearchRadius(cfg.getSearchRadius() - 1);
+                    int radius = cfg.getSearchRadius() - 1;
+                    settings.update(ref, store, uuid, s -> s.setSearchRadius(radius));
                     configChanged = true;
                 }
                 break;
                 
             case "toggle_backpack":
-                cfg.setCheckBackpack(!cfg.isCheckBackpack());
+                settings.update(ref, store, uuid, s -> s.setSectionEnabled(QuickStackSettings.BACKPACK, !cfg.isCheckBackpack()));
                 configChanged = true;
                 break;
                 
             case "toggle_storage":
-                cfg.setCheckStorage(!cfg.isCheckStorage());
+                settings.update(ref, store, uuid, s -> s.setSectionEnabled(QuickStackSettings.STORAGE, !cfg.isCheckStorage()));
                 configChanged = true;
                 break;
                 
             case "toggle_hotbar":
-                cfg.setCheckHotbar(!cfg.isCheckHotbar());
+                settings.update(ref, store, uuid, s -> s.setSectionEnabled(QuickStackSettings.HOTBAR, !cfg.isCheckHotbar()));
                 configChanged = true;
                 break;
         }
         
         if (configChanged) {
-            configWrapper.save();
-            
             PlayerRef playerRef = store.getComponent(ref, PlayerRef.getComponentType());
             if (playerRef != null) {
                 player.getPageManager().openCustomPage(ref, store, 
-                    new QuickStackGui(playerRef, CustomPageLifetime.CanDismiss, service, configWrapper));
+                    new QuickStackGui(playerRef, CustomPageLifetime.CanDismiss, service, settings));
             }
         }
     }
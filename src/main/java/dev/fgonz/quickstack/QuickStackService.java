@@ -1,7 +1,6 @@
 package dev.fgonz.quickstack;
 
 import com.hypixel.hytale.math.vector.Vector3d;
-import com.hypixel.hytale.math.vector.Vector3i;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.Inventory;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
@@ -12,27 +11,45 @@ import com.hypixel.hytale.server.core.inventory.transaction.MoveTransaction;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import dev.fgonz.quickstack.items.ItemCounts;
+import dev.fgonz.quickstack.items.ItemIds;
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.jobs.SteppedJob;
+import dev.fgonz.quickstack.scan.BlockPos;
+import dev.fgonz.quickstack.scan.ContainerIndex;
+import dev.fgonz.quickstack.scan.NearestScan;
+import dev.fgonz.quickstack.scan.ScanMode;
+import dev.fgonz.quickstack.settings.PlayerSettings;
+import dev.fgonz.quickstack.stats.OperationStats;
+import dev.fgonz.quickstack.stats.OperationStats.Phase;
+import dev.fgonz.quickstack.stats.QuickStackStats;
+
 import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Core logic for moving items from player inventory to nearby containers.
- * Scans blocks within a configurable radius and transfers matching item stacks.
+ * Looks up containers within a configurable radius through the per-world ContainerIndex
+ * and transfers matching item stacks.
  */
 public class QuickStackService {
 
-    private final QuickStackConfig config;
+    private final LiveConfig config;
+    private final JobScheduler scheduler;
+    private final RequestGate gate;
+    private final QuickStackStats stats;
 
-    public QuickStackService(QuickStackConfig config) {
+    public QuickStackService(LiveConfig config, JobScheduler scheduler, RequestGate gate, QuickStackStats stats) {
         this.config = config;
+        this.scheduler = scheduler;
+        this.gate = gate;
+        this.stats = stats;
     }
 
     public QuickStackConfig getConfig() {
-        return config;
+        return config.get();
     }
 
     /**
@@ -40,26 +57,83 @@ public class QuickStackService {
      */
     public static class StackResult {
         private final int containersChecked;
-        private final Map<String, Integer> movedItems;
+        private final ItemCounts movedItems;
+        private final int skippedChunks;
+        private final int radius;
+        private final int requestedRadius;
+
+        public StackResult(int containersChecked, ItemCounts movedItems) {
+            this(containersChecked, movedItems, 0);
+        }
+
+        public StackResult(int containersChecked, ItemCounts movedItems, int skippedChunks) {
+            this(containersChecked, movedItems, skippedChunks, 0, 0);
+        }
 
-        public StackResult(int containersChecked, Map<String, Integer> movedItems) {
+        public StackResult(int containersChecked, ItemCounts movedItems, int skippedChunks,
+                           int radius, int requestedRadius) {
             this.containersChecked = containersChecked;
             this.movedItems = movedItems;
+            this.skippedChunks = skippedChunks;
+            this.radius = radius;
+            this.requestedRadius = requestedRadius;
         }
 
         public int getContainersChecked() { return containersChecked; }
-        public Map<String, Integer> getMovedItems() { return movedItems; }
+        /** Unloaded chunks in range that were skipped instead of loaded. */
+        public int getSkippedChunks() { return skippedChunks; }
+        /** Moved quantities by display name, resolved on first read. */
+        public Map<String, Integer> getMovedItems() { return movedItems.asMap(); }
+        /** Moved quantities by interned item id. */
+        public ItemCounts getMovedCounts() { return movedItems; }
+        public int getTotalMoved() { return movedItems.total(); }
         public boolean hasMovedItems() { return !movedItems.isEmpty(); }
+        /** Radius actually searched; below getRequestedRadius() while the server sheds load. */
+        public int getRadius() { return radius; }
+        public int getRequestedRadius() { return requestedRadius; }
+        public boolean isRadiusReduced() { return radius < requestedRadius; }
     }
 
     /**
      * Scans for containers around the player and moves matching items into them.
-     * Containers are processed nearest-first to prioritize closer storage.
+     * Containers are processed nearest-first to prioritize closer storage, and the scan
+     * stops once the enabled inventory sections are empty.
+     * The work is time-sliced by the JobScheduler, so the future may complete several ticks later.
+     * Unloaded chunks are skipped. Uses the server's default settings.
      */
     public CompletableFuture<StackResult> performQuickStack(Player player) {
+        return performQuickStack(player, PlayerSettings.defaults(config.get()));
+    }
+
+    /**
+     * Same as performQuickStack(Player), with the player's own radius and sections.
+     */
+    public CompletableFuture<StackResult> performQuickStack(Player player, PlayerSettings settings) {
+        return performQuickStack(player, settings, ScanMode.LOADED_ONLY);
+    }
+
+    /**
+     * Same as performQuickStack(Player, PlayerSettings), with explicit control over chunk loading.
+     * A quick stack still running for the player is joined; requests over the player's rate
+     * fail with a RequestGate.RequestRejectedException.
+     */
+    public CompletableFuture<StackResult> performQuickStack(Player player, PlayerSettings settings, ScanMode scanMode) {
+        return gate.submit(player.getUuid(), "stack:" + scanMode, () -> startQuickStack(player, settings, scanMode));
+    }
+
+    public RequestGate getGate() {
+        return gate;
+    }
+
+    public QuickStackStats getStats() {
+        return stats;
+    }
+
+    private CompletableFuture<StackResult> startQuickStack(Player player, PlayerSettings settings, ScanMode scanMode) {
         World world = player.getWorld();
         Inventory playerInventory = player.getInventory();
-        int radius = config.getSearchRadius();
+        int requestedRadius = settings.getSearchRadius();
+        int radius = scheduler.effectiveRadius(world, requestedRadius);
 
         Vector3d position;
         try {
@@ -69,107 +143,177 @@ public class QuickStackService {
         }
 
         final Vector3d origin = position;
-        int startX = (int) Math.floor(origin.x) - radius;
-        int endX = (int) Math.floor(origin.x) + radius;
-        int startY = (int) Math.floor(origin.y) - radius;
-        int endY = (int) Math.floor(origin.y) + radius;
-        int startZ = (int) Math.floor(origin.z) - radius;
-        int endZ = (int) Math.floor(origin.z) + radius;
+        int centerX = (int) Math.floor(origin.x);
+        int centerY = (int) Math.floor(origin.y);
+        int centerZ = (int) Math.floor(origin.z);
 
-        CompletableFuture<StackResult> future = new CompletableFuture<>();
+        StackJob job = new StackJob(world, playerInventory, centerX, centerY, centerZ, radius, requestedRadius,
+            settings, scanMode);
+        if (!scheduler.submit(world, job)) {
+            return CompletableFuture.failedFuture(new JobScheduler.BusyException());
+        }
+        return job.future;
+    }
 
-        world.execute(() -> {
-            try {
-                int uniqueContainers = 0;
-                Map<String, Integer> movedItemsSummary = new HashMap<>();
-                HashSet<ItemContainer> seenContainers = new HashSet<>();
-                ArrayList<Vector3i> containerPositions = new ArrayList<>();
-
-                for (int x = startX; x <= endX; x++) {
-                    for (int y = startY; y <= endY; y++) {
-                        for (int z = startZ; z <= endZ; z++) {
-                            try {
-                                Object state = world.getState(x, y, z, true);
-                                if (state instanceof ItemContainerState) {
-                                    containerPositions.add(new Vector3i(x, y, z));
-                                }
-                            } catch (Throwable ignored) {}
-                        }
-                    }
-                }
+    /**
+     * Quick-stack work split into resumable steps. Containers come from a NearestScan, one per
+     * step, and the job stops as soon as the enabled sections have nothing left to move.
+     */
+    private class StackJob implements SteppedJob {
+        private static final int PROBES_PER_STEP = 256;
 
-                final double originX = origin.x;
-                final double originY = origin.y;
-                final double originZ = origin.z;
-
-                try {
-                    containerPositions.sort(Comparator.comparingDouble(p -> {
-                        double dx = p.x - originX;
-                        double dy = p.y - originY;
-                        double dz = p.z - originZ;
-                        return (dx * dx) + (dy * dy) + (dz * dz);
-                    }));
-                } catch (Throwable t) {
-                   System.err.println("Error sorting containers");
-                   t.printStackTrace();
-                }
+        private final CompletableFuture<StackResult> future = new CompletableFuture<>();
+        private final OperationStats.Sample sample = new OperationStats.Sample();
+        private final World world;
+        private final ContainerIndex index;
+        private final NearestScan scan;
+        private final int radius;
+        private final int requestedRadius;
+        private final Inventory playerInventory;
+        private final boolean checkBackpack;
+        private final boolean checkStorage;
+        private final boolean checkHotbar;
+        private ItemContainer backpack;
+        private ItemContainer storage;
+        private ItemContainer hotbar;
 
-                ItemContainer backpack = playerInventory.getBackpack();
-                ItemContainer storage = playerInventory.getStorage();
-                ItemContainer hotbar = playerInventory.getHotbar();
+        private final ItemCounts movedItemsSummary = new ItemCounts();
+        private final HashSet<ItemContainer> seenContainers = new HashSet<>();
+        private boolean started;
+        private int remainingItems;
+        private int movedTotal;
+        private int uniqueContainers;
 
-                for (Vector3i blockPos : containerPositions) {
-                    try {
-                        Object state = world.getState(blockPos.x, blockPos.y, blockPos.z, true);
-                        if (!(state instanceof ItemContainerState containerState)) continue;
+        StackJob(World world, Inventory playerInventory, int centerX, int centerY, int centerZ, int radius,
+                 int requestedRadius, PlayerSettings settings, ScanMode scanMode) {
+            this.world = world;
+            this.radius = radius;
+            this.requestedRadius = requestedRadius;
+            this.index = ContainerIndex.forWorld(world);
+            this.scan = new NearestScan(world, index, centerX, centerY, centerZ, radius,
+                ContainerIndex.KIND_CONTAINER, scanMode);
+            this.playerInventory = playerInventory;
+            this.checkBackpack = settings.isCheckBackpack();
+            this.checkStorage = settings.isCheckStorage();
+            this.checkHotbar = settings.isCheckHotbar();
+        }
 
-                        ItemContainer chestContainer = containerState.getItemContainer();
-                        if (chestContainer == null || !seenContainers.add(chestContainer)) {
-                            continue;
-                        }
-                        uniqueContainers++;
+        @Override
+        public boolean step() {
+            if (!started) {
+                started = true;
+                long indexStart = System.nanoTime();
+                backpack = checkBackpack ? playerInventory.getBackpack() : null;
+                storage = checkStorage ? playerInventory.getStorage() : null;
+                hotbar = checkHotbar ? playerInventory.getHotbar() : null;
+                remainingItems = countItems(backpack) + countItems(storage) + countItems(hotbar);
+                sample.add(Phase.INDEX, indexStart);
+                if (remainingItems <= 0) {
+                    return finish();
+                }
+            }
 
-                        if (config.isCheckBackpack() && backpack != null) {
-                            var tx = backpack.quickStackTo(chestContainer);
-                            if (tx != null && tx.size() > 0 && tx.succeeded()) {
-                                processTransaction(tx, movedItemsSummary);
-                            }
-                        }
+            long scanStart = System.nanoTime();
+            int status = scan.advance(PROBES_PER_STEP);
+            sample.add(Phase.SCAN, scanStart);
+            if (status == NearestScan.PENDING) {
+                return false;
+            }
+            if (status == NearestScan.FOUND) {
+                transferTo(scan.position());
+                if (remainingItems > 0) {
+                    return false;
+                }
+            }
+            return finish();
+        }
 
-                        if (config.isCheckStorage() && storage != null) {
-                            var tx = storage.quickStackTo(chestContainer);
-                            if (tx != null && tx.size() > 0 && tx.succeeded()) {
-                                processTransaction(tx, movedItemsSummary);
-                            }
-                        }
+        @Override
+        public void fail(Throwable t) {
+            System.err.println("Critical error in QuickStack task");
+            t.printStackTrace();
+            stats.stack().recordFailure();
+            future.completeExceptionally(t);
+        }
 
-                        if (config.isCheckHotbar() && hotbar != null) {
-                            var tx = hotbar.quickStackTo(chestContainer);
-                            if (tx != null && tx.size() > 0 && tx.succeeded()) {
-                                processTransaction(tx, movedItemsSummary);
-                            }
-                        }
+        private boolean finish() {
+            stats.stack().record(sample, scan.getProbed(), uniqueContainers, movedTotal);
+            future.complete(new StackResult(uniqueContainers, movedItemsSummary, scan.getSkippedChunks(),
+                radius, requestedRadius));
+            return true;
+        }
 
-                    } catch (Throwable t) {
-                        System.err.println("Error processing container at " + blockPos);
-                        t.printStackTrace();
-                    }
+        private void transferTo(long blockPos) {
+            try {
+                long lookupStart = System.nanoTime();
+                Object state = scan.state();
+                if (state == null) {
+                    if (!scan.canLookUp(blockPos)) return;
+                    state = world.getState(BlockPos.x(blockPos), BlockPos.y(blockPos), BlockPos.z(blockPos), true);
+                }
+                sample.add(Phase.SCAN, lookupStart);
+                if (!(state instanceof ItemContainerState containerState)) {
+                    index.forget(blockPos);
+                    return;
                 }
 
-                future.complete(new StackResult(uniqueContainers, movedItemsSummary));
+                ItemContainer chestContainer = containerState.getItemContainer();
+                if (chestContainer == null || !seenContainers.add(chestContainer)) {
+                    return;
+                }
+                uniqueContainers++;
 
-            } catch (Throwable e) {
-                System.err.println("Critical error in QuickStack task");
-                e.printStackTrace();
-                future.completeExceptionally(e);
+                long transferStart = System.nanoTime();
+                quickStackSection(backpack, chestContainer);
+                quickStackSection(storage, chestContainer);
+                quickStackSection(hotbar, chestContainer);
+                sample.add(Phase.TRANSFER, transferStart);
+
+            } catch (Throwable t) {
+                System.err.println("Error processing container at " + BlockPos.toString(blockPos));
+                t.printStackTrace();
             }
-        });
+        }
+
+        private void quickStackSection(ItemContainer section, ItemContainer chestContainer) {
+            if (section == null) return;
+
+            var tx = section.quickStackTo(chestContainer);
+            if (tx != null && tx.size() > 0 && tx.succeeded()) {
+                int moved = processTransaction(tx, movedItemsSummary);
+                remainingItems -= moved;
+                movedTotal += moved;
+            }
+        }
+    }
 
-        return future;
+    /**
+     * Sums item quantities in a section. Used to detect when nothing is left to move.
+     */
+    private static int countItems(ItemContainer section) {
+        if (section == null) return 0;
+
+        int total = 0;
+        try {
+            short capacity = section.getCapacity();
+            for (short slot = 0; slot < capacity; slot++) {
+                ItemStack stack = section.getItemStack(slot);
+                if (stack != null) {
+                    total += stack.getQuantity();
+                }
+            }
+        } catch (Throwable ignored) {}
+        return total;
     }
 
-    private void processTransaction(ListTransaction<MoveTransaction<ItemStackTransaction>> txList, Map<String, Integer> summary) {
-        if (txList == null) return;
+    /**
+     * Adds the moved quantities of a quick-stack transaction to the summary.
+     * @return total quantity moved
+     */
+    private int processTransaction(ListTransaction<MoveTransaction<ItemStackTransaction>> txList, ItemCounts summary) {
+        if (txList == null) return 0;
+
+        int total = 0;
         
         try {
             for (MoveTransaction<ItemStackTransaction> moveTx : txList.getList()) {
@@ -185,9 +329,8 @@ public class QuickStackService {
                             int movedQty = queryQty - remainderQty;
                             
                             if (movedQty > 0) {
-                                String rawName = query.getItemId();
-                                String cleanName = getCleanItemName(rawName);
-                                summary.put(cleanName, summary.getOrDefault(cleanName, 0) + movedQty);
+                                summary.add(ItemIds.intern(query.getItemId()), movedQty);
+                                total += movedQty;
                             }
                         }
                     }
@@ -197,23 +340,6 @@ public class QuickStackService {
             System.err.println("Error processing transaction");
             t.printStackTrace();
         }
-    }
-
-    /**
-     * Extracts item name from namespaced id (e.g. "hytale:stone" -> "stone").
-     */
-    private String getCleanItemName(String itemId) {
-        if (itemId == null) return "Unknown";
-        try {
-            if (itemId.contains(":")) {
-                String[] parts = itemId.split(":");
-                if (parts.length > 1) {
-                    return parts[1];
-                }
-            }
-            return itemId;
-        } catch (Exception e) {
-            return itemId;
-        }
+        return total;
     }
 }
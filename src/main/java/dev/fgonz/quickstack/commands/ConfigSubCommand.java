@@ -10,11 +10,10 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.util.Config;
 
-import dev.fgonz.quickstack.QuickStackConfig;
 import dev.fgonz.quickstack.QuickStackGui;
 import dev.fgonz.quickstack.QuickStackService;
+import dev.fgonz.quickstack.settings.PlayerSettingsStore;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -25,14 +24,14 @@ import java.util.concurrent.CompletableFuture;
 public class ConfigSubCommand extends AbstractAsyncCommand {
 
     private final QuickStackService service;
-    private final Config<QuickStackConfig> configWrapper;
+    private final PlayerSettingsStore settings;
 
-    public ConfigSubCommand(QuickStackService service, Config<QuickStackConfig> configWrapper) {
+    public ConfigSubCommand(QuickStackService service, PlayerSettingsStore settings) {
         super("config", "Open Quick Stack settings");
         this.addAliases("c", "settings", "ui");
         this.setPermissionGroup(GameMode.Adventure);
         this.service = service;
-        this.configWrapper = configWrapper;
+        this.settings = settings;
     }
 
     @Override
@@ -56,7 +55,7 @@ public class ConfigSubCommand extends AbstractAsyncCommand {
                 player.getPageManager().openCustomPage(
                     ref,
                     store,
-                    new QuickStackGui(playerRefComponent, CustomPageLifetime.CanDismiss, service, configWrapper)
+                    new QuickStackGui(playerRefComponent, CustomPageLifetime.CanDismiss, service, settings)
                 );
             }
         }, world);
@@ -10,10 +10,12 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 
 import dev.fgonz.quickstack.BenchFillService;
 import dev.fgonz.quickstack.handlers.BenchFillHandler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.settings.PlayerSettingsStore;
+import dev.fgonz.quickstack.stats.OperationStats;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 /**
  * Subcommand: /qs fill [type]
@@ -27,13 +29,15 @@ import java.util.stream.Collectors;
 public class FillSubCommand extends AbstractAsyncCommand {
 
     private final BenchFillService service;
+    private final PlayerSettingsStore settings;
     private final OptionalArg<String> benchTypeArg;
 
-    public FillSubCommand(BenchFillService service) {
+    public FillSubCommand(BenchFillService service, PlayerSettingsStore settings) {
         super("fill", "Fill nearby processing benches with items");
         this.addAliases("f");
         this.setPermissionGroup(GameMode.Adventure);
         this.service = service;
+        this.settings = settings;
 
         this.benchTypeArg = withOptionalArg(
             "type", 
@@ -58,9 +62,7 @@ public class FillSubCommand extends AbstractAsyncCommand {
             if (typeFilter != null && !typeFilter.isEmpty()) {
                 filterHandler = service.findHandlerByAlias(typeFilter);
                 if (filterHandler == null) {
-                    String validTypes = service.getHandlers().stream()
-                        .map(h -> h.getAliases()[0])
-                        .collect(Collectors.joining(", "));
+                    String validTypes = String.join(", ", service.getFillableTypes());
                     player.sendMessage(Message.raw(
                         "[QuickStack] Unknown type '" + typeFilter + "'. Valid: " + validTypes
                     ));
@@ -68,14 +70,14 @@ public class FillSubCommand extends AbstractAsyncCommand {
                 }
             }
 
-            String scanMsg = filterHandler != null 
-                ? "[QuickStack] Scanning for " + filterHandler.getDisplayName() + "..."
-                : "[QuickStack] Scanning for all processing benches...";
-            player.sendMessage(Message.raw(scanMsg));
-
+            // Only the outcome is reported; a progress message sent now would precede a rejection
             final BenchFillHandler finalFilter = filterHandler;
 
-            return service.performFill(player, finalFilter).thenAccept(result -> {
+            CompletableFuture<BenchFillService.FillResult> fill = settings.load(player)
+                .thenCompose(playerSettings -> service.performFill(player, finalFilter, playerSettings));
+
+            return fill.thenAccept(result -> {
+                long messageStart = System.nanoTime();
                 String msg;
                 if (result.hasMovedItems()) {
                     StringBuilder sb = new StringBuilder();
@@ -93,12 +95,25 @@ public class FillSubCommand extends AbstractAsyncCommand {
                     for (Map.Entry<String, Integer> entry : result.getMovedItems().entrySet()) {
                         sb.append("\n  [x").append(entry.getValue()).append("] ").append(entry.getKey());
                     }
+
+                    BenchFillService.FuelReport fuel = result.getFuel();
+                    if (!fuel.isEmpty()) {
+                        sb.append("\nFuel: ").append(Math.round(fuel.getSuppliedSeconds())).append("s sent for ")
+                            .append(Math.round(fuel.getNeededSeconds())).append("s of input");
+                    }
                     msg = sb.toString();
                     player.sendInventory();
                 } else {
                     msg = "[QuickStack] Nothing moved. Found " + result.getBenchesProcessed() + " bench(es).";
                 }
+                if (result.getSkippedChunks() > 0) {
+                    msg += " (skipped " + result.getSkippedChunks() + " unloaded chunk(s))";
+                }
+                if (result.isRadiusReduced()) {
+                    msg += " (radius reduced to " + result.getRadius() + " while the server is busy)";
+                }
                 player.sendMessage(Message.raw(msg));
+                service.getStats().fill().record(OperationStats.Phase.MESSAGE, messageStart);
 
             }).exceptionally(e -> {
                 handleException(player, e);
@@ -112,6 +127,12 @@ public class FillSubCommand extends AbstractAsyncCommand {
     }
 
     private void handleException(Player player, Throwable e) {
+        RequestGate.RequestRejectedException rejected = RequestGate.rejection(e);
+        if (rejected != null) {
+            player.sendMessage(Message.raw("[QuickStack] " + rejected.getMessage()));
+            return;
+        }
+
         System.err.println("[QuickStack Fill] Error: " + e.getMessage());
         e.printStackTrace();
         player.sendMessage(Message.raw("[QuickStack] Error: " + e.getMessage()));
@@ -7,10 +7,10 @@ import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncC
 import com.hypixel.hytale.server.core.entity.entities.Player;
 
 import dev.fgonz.quickstack.QuickStackService;
-import dev.fgonz.quickstack.QuickStackConfig;
 import dev.fgonz.quickstack.BenchFillService;
-
-import com.hypixel.hytale.server.core.util.Config;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.settings.PlayerSettingsStore;
+import dev.fgonz.quickstack.stats.OperationStats;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -22,22 +22,26 @@ import java.util.concurrent.CompletableFuture;
  *   /qs              - Quick stack items to nearby chests
  *   /qs fill [type]  - Fill processing benches (subcommand)
  *   /qs config       - Open settings UI (subcommand)
+ *   /qs stats        - Show timings and counters (subcommand, admin only)
  * 
  * Subcommands are registered via addSubCommand().
  */
 public class QuickStackParentCommand extends AbstractAsyncCommand {
 
     private final QuickStackService stackService;
+    private final PlayerSettingsStore settings;
 
-    public QuickStackParentCommand(QuickStackService stackService, BenchFillService fillService, 
-                                   Config<QuickStackConfig> configWrapper) {
+    public QuickStackParentCommand(QuickStackService stackService, BenchFillService fillService,
+                                   PlayerSettingsStore settings) {
         super("qs", "Quick stack items to nearby containers");
         this.setPermissionGroup(GameMode.Adventure);
         this.stackService = stackService;
+        this.settings = settings;
 
         // Register subcommands
-        this.addSubCommand(new FillSubCommand(fillService));
-        this.addSubCommand(new ConfigSubCommand(stackService, configWrapper));
+        this.addSubCommand(new FillSubCommand(fillService, settings));
+        this.addSubCommand(new ConfigSubCommand(stackService, settings));
+        this.addSubCommand(new StatsSubCommand(stackService.getStats()));
     }
 
     @Override
@@ -50,25 +54,34 @@ public class QuickStackParentCommand extends AbstractAsyncCommand {
         Player player = (Player) context.sender();
 
         try {
-            player.sendMessage(Message.raw(
-                "[QuickStack] Stacking to nearby containers (radius: " + 
-                stackService.getConfig().getSearchRadius() + ")..."
-            ));
+            // No "stacking..." message up front: the request may yet be joined to one running or
+            // rate-limited, and the reply below covers both outcomes
+            CompletableFuture<QuickStackService.StackResult> stack = settings.load(player)
+                .thenCompose(playerSettings -> stackService.performQuickStack(player, playerSettings));
 
-            return stackService.performQuickStack(player).thenAccept(result -> {
+            return stack.thenAccept(result -> {
+                long messageStart = System.nanoTime();
                 String msg;
                 if (result.hasMovedItems()) {
                     StringBuilder sb = new StringBuilder();
-                    sb.append("[QuickStack] Done! Moved:");
+                    sb.append("[QuickStack] Done! Moved (radius ").append(result.getRadius()).append("):");
                     for (Map.Entry<String, Integer> entry : result.getMovedItems().entrySet()) {
                         sb.append("\n  [x").append(entry.getValue()).append("] ").append(entry.getKey());
                     }
                     msg = sb.toString();
                     player.sendInventory();
                 } else {
-                    msg = "[QuickStack] Nothing to move. Checked " + result.getContainersChecked() + " containers.";
+                    msg = "[QuickStack] Nothing to move. Checked " + result.getContainersChecked()
+                        + " containers within " + result.getRadius() + " blocks.";
+                }
+                if (result.getSkippedChunks() > 0) {
+                    msg += " (skipped " + result.getSkippedChunks() + " unloaded chunk(s))";
+                }
+                if (result.isRadiusReduced()) {
+                    msg += " (radius reduced to " + result.getRadius() + " while the server is busy)";
                 }
                 player.sendMessage(Message.raw(msg));
+                stackService.getStats().stack().record(OperationStats.Phase.MESSAGE, messageStart);
 
             }).exceptionally(e -> {
                 handleException(player, e);
@@ -82,6 +95,12 @@ public class QuickStackParentCommand extends AbstractAsyncCommand {
     }
 
     private void handleException(Player player, Throwable e) {
+        RequestGate.RequestRejectedException rejected = RequestGate.rejection(e);
+        if (rejected != null) {
+            player.sendMessage(Message.raw("[QuickStack] " + rejected.getMessage()));
+            return;
+        }
+
         System.err.println("[QuickStack] Error: " + e.getMessage());
         e.printStackTrace();
         String causeMsg = e.getMessage();
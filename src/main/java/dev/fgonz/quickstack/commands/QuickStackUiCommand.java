@@ -10,11 +10,10 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.util.Config;
 
-import dev.fgonz.quickstack.QuickStackConfig;
 import dev.fgonz.quickstack.QuickStackGui;
 import dev.fgonz.quickstack.QuickStackService;
+import dev.fgonz.quickstack.settings.PlayerSettingsStore;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -25,13 +24,13 @@ import java.util.concurrent.CompletableFuture;
 public class QuickStackUiCommand extends AbstractAsyncCommand {
 
     private final QuickStackService service;
-    private final Config<QuickStackConfig> configWrapper;
+    private final PlayerSettingsStore settings;
 
-    public QuickStackUiCommand(QuickStackService service, Config<QuickStackConfig> configWrapper) {
+    public QuickStackUiCommand(QuickStackService service, PlayerSettingsStore settings) {
         super("quickstack", "Open Quick Stack UI");
         this.setPermissionGroup(GameMode.Adventure);
         this.service = service;
-        this.configWrapper = configWrapper;
+        this.settings = settings;
     }
 
     @Override
@@ -55,7 +54,7 @@ public class QuickStackUiCommand extends AbstractAsyncCommand {
                 player.getPageManager().openCustomPage(
                     ref,
                     store,
-                    new QuickStackGui(playerRefComponent, CustomPageLifetime.CanDismiss, service, configWrapper)
+                    new QuickStackGui(playerRefComponent, CustomPageLifetime.CanDismiss, service, settings)
                 );
             }
         }, world);
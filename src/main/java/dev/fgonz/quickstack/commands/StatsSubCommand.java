@@ -0,0 +1,45 @@
+package dev.fgonz.quickstack.commands;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+
+import dev.fgonz.quickstack.stats.QuickStackStats;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Subcommand: /qs stats
+ * Shows per-phase timings and request counters since the server started.
+ * Admin only: no Adventure permission group, and players also need PERMISSION.
+ * The console can always use it.
+ */
+public class StatsSubCommand extends AbstractAsyncCommand {
+
+    public static final String PERMISSION = "quickstack.admin.stats";
+
+    private final QuickStackStats stats;
+
+    public StatsSubCommand(QuickStackStats stats) {
+        super("stats", "Show Quick Stack timings and counters");
+        this.stats = stats;
+    }
+
+    @Override
+    protected CompletableFuture<Void> executeAsync(CommandContext context) {
+        String report = "[QuickStack] Stats:\n" + String.join("\n", stats.report());
+
+        if (context.isPlayer()) {
+            Player player = (Player) context.sender();
+            if (!player.hasPermission(PERMISSION)) {
+                player.sendMessage(Message.raw("[QuickStack] You don't have permission to view stats."));
+                return CompletableFuture.completedFuture(null);
+            }
+            player.sendMessage(Message.raw(report));
+        } else {
+            context.sendMessage(Message.raw(report));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
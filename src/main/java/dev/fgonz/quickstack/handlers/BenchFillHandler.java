@@ -2,9 +2,13 @@ package dev.fgonz.quickstack.handlers;
 
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 
+import dev.fgonz.quickstack.items.ItemIds;
+
 /**
  * Strategy interface for filling different types of ProcessingBench.
  * Implement this interface to add support for new bench types.
+ * The item checks (isValidInput, isValidFuel, isRelevantItem) may be called from planner worker
+ * threads and must be thread-safe; shouldActivate is only called on the world thread.
  */
 public interface BenchFillHandler {
 
@@ -41,15 +45,56 @@ public interface BenchFillHandler {
     /**
      * Determine if the bench should be activated after filling.
      * Typically checks if bench has both input and fuel (if required).
+     * Only called when canActivate() said no, something was moved, and the fill did not already
+     * read the bench's contents for fuel planning.
      * @param container The bench's item container
      * @return true if bench should be activated
      */
     boolean shouldActivate(ItemContainer container);
 
+    /**
+     * @return true if the bench needs fuel to run
+     */
+    default boolean usesFuel() {
+        return true;
+    }
+
+    /**
+     * Decide activation from the input and fuel quantities the fill just moved into the bench,
+     * without reading the container again.
+     * @return true to activate; on false the fill looks at what the bench already held (see
+     *         BenchFillService.shouldStart), since it may hold what the fill did not move
+     */
+    default boolean canActivate(int inputMoved, int fuelMoved) {
+        return inputMoved > 0 && (fuelMoved > 0 || !usesFuel());
+    }
+
     /**
      * Check if an item is relevant to this handler (input OR fuel)
      */
     default boolean isRelevantItem(String itemId) {
         return isValidInput(itemId) || isValidFuel(itemId);
     }
+
+    /**
+     * Same as isValidInput(String) for an interned id (see ItemIds).
+     * The default resolves the id back to its string; CachedBenchFillHandler makes it a bit test.
+     */
+    default boolean isValidInput(int itemId) {
+        return isValidInput(ItemIds.name(itemId));
+    }
+
+    /**
+     * Same as isValidFuel(String) for an interned id (see ItemIds).
+     */
+    default boolean isValidFuel(int itemId) {
+        return isValidFuel(ItemIds.name(itemId));
+    }
+
+    /**
+     * Same as isRelevantItem(String) for an interned id (see ItemIds).
+     */
+    default boolean isRelevantItem(int itemId) {
+        return isValidInput(itemId) || isValidFuel(itemId);
+    }
 }
@@ -0,0 +1,65 @@
+package dev.fgonz.quickstack.handlers;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.items.ItemClassCache;
+import dev.fgonz.quickstack.items.ItemIds;
+
+/**
+ * Base class for handlers with string-based item rules.
+ * The rules run once per distinct item id; every later check is a BitSet lookup.
+ */
+public abstract class CachedBenchFillHandler implements BenchFillHandler {
+
+    private final ItemClassCache inputs = new ItemClassCache(this::isValidInput);
+    private final ItemClassCache fuels = new ItemClassCache(this::isValidFuel);
+
+    @Override
+    public boolean isValidInput(int itemId) {
+        return inputs.test(itemId);
+    }
+
+    @Override
+    public boolean isValidFuel(int itemId) {
+        return fuels.test(itemId);
+    }
+
+    @Override
+    public boolean shouldActivate(ItemContainer container) {
+        return hasInputAndFuel(container, usesFuel());
+    }
+
+    /**
+     * Scans the bench container once, classifying slots by interned id.
+     * @return true if the bench holds input and, when usesFuel is set, fuel
+     */
+    protected boolean hasInputAndFuel(ItemContainer container, boolean usesFuel) {
+        boolean hasInput = false;
+        boolean hasFuel = !usesFuel;
+
+        try {
+            short capacity = container.getCapacity();
+            for (short slot = 0; slot < capacity; slot++) {
+                ItemStack stack = container.getItemStack(slot);
+                if (stack == null) continue;
+
+                int id = ItemIds.intern(stack.getItemId());
+                if (id == ItemIds.NONE) continue;
+
+                if (!hasInput && isValidInput(id)) {
+                    hasInput = true;
+                }
+                if (!hasFuel && isValidFuel(id)) {
+                    hasFuel = true;
+                }
+
+                if (hasInput && hasFuel) {
+                    return true;
+                }
+            }
+        } catch (Throwable ignored) {}
+
+        return hasInput && hasFuel;
+    }
+}
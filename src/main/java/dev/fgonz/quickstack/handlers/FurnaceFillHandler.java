@@ -1,12 +1,10 @@
 package dev.fgonz.quickstack.handlers;
 
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
-
 /**
  * Handler for Furnace bench - processes ores using fuel.
+ * Name rules run once per item id; see CachedBenchFillHandler.
  */
-public class FurnaceFillHandler implements BenchFillHandler {
+public class FurnaceFillHandler extends CachedBenchFillHandler {
 
     @Override
     public String getBenchId() {
@@ -64,36 +62,6 @@ public class FurnaceFillHandler implements BenchFillHandler {
         return false;
     }
 
-    @Override
-    public boolean shouldActivate(ItemContainer container) {
-        boolean hasInput = false;
-        boolean hasFuel = false;
-
-        try {
-            short capacity = container.getCapacity();
-            for (short slot = 0; slot < capacity; slot++) {
-                ItemStack stack = container.getItemStack(slot);
-                if (stack == null) continue;
-
-                String itemId = stack.getItemId();
-                if (itemId == null) continue;
-
-                if (isValidInput(itemId)) {
-                    hasInput = true;
-                }
-                if (isValidFuel(itemId)) {
-                    hasFuel = true;
-                }
-
-                if (hasInput && hasFuel) {
-                    return true;
-                }
-            }
-        } catch (Throwable ignored) {}
-
-        return hasInput && hasFuel;
-    }
-
     private String getCleanItemName(String itemId) {
         if (itemId == null) return "";
         if (itemId.contains(":")) {
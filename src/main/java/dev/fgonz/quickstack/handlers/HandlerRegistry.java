@@ -0,0 +1,176 @@
+package dev.fgonz.quickstack.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registered BenchFillHandlers with constant-time lookup by bench id and by alias.
+ *
+ * Keys are lowercased once, when a snapshot is built. forBench() is called for every bench a
+ * fill finds, so it also remembers each bench id spelling it has seen, and a repeated lookup is
+ * a single map read with no lowercasing.
+ *
+ * Lookups read an immutable Snapshot; register/unregister build a new one and publish it
+ * with a compare-and-set, so handlers can be added from any thread while a fill is running.
+ * A fill that pinned a snapshot keeps using it until it finishes.
+ */
+public final class HandlerRegistry {
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Adds a handler. A handler with the same bench id (case-insensitive) is replaced in place.
+     * When two handlers claim the same alias, the one registered first keeps it.
+     */
+    public void register(BenchFillHandler handler) {
+        if (handler == null || handler.getBenchId() == null) {
+            throw new IllegalArgumentException("Handler must have a bench id");
+        }
+
+        String key = key(handler.getBenchId());
+        Snapshot prev;
+        Snapshot next;
+        do {
+            prev = current.get();
+            List<BenchFillHandler> handlers = new ArrayList<>(prev.handlers);
+            int existing = prev.indexOf(key);
+            if (existing >= 0) {
+                handlers.set(existing, handler);
+            } else {
+                handlers.add(handler);
+            }
+            next = Snapshot.of(handlers);
+        } while (!current.compareAndSet(prev, next));
+    }
+
+    /**
+     * @return true if a handler for the bench id was registered
+     */
+    public boolean unregister(String benchId) {
+        if (benchId == null) return false;
+
+        String key = key(benchId);
+        Snapshot prev;
+        Snapshot next;
+        do {
+            prev = current.get();
+            int existing = prev.indexOf(key);
+            if (existing < 0) {
+                return false;
+            }
+            List<BenchFillHandler> handlers = new ArrayList<>(prev.handlers);
+            handlers.remove(existing);
+            next = Snapshot.of(handlers);
+        } while (!current.compareAndSet(prev, next));
+        return true;
+    }
+
+    /**
+     * @return the lowercase form bench ids and aliases are keyed by
+     */
+    public static String key(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable view of the registered handlers, in registration order.
+     */
+    public static final class Snapshot {
+        /** Marks a bench id spelling known to have no handler. */
+        private static final Object MISSING = new Object();
+        /** Bench ids come from assets, so this is never reached in practice; it only bounds misuse. */
+        private static final int MAX_RESOLVED = 1024;
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap());
+
+        private final List<BenchFillHandler> handlers;
+        private final Map<String, BenchFillHandler> byBenchId;
+        private final Map<String, BenchFillHandler> byAlias;
+        private final ConcurrentHashMap<String, Object> resolved = new ConcurrentHashMap<>();
+
+        private Snapshot(List<BenchFillHandler> handlers, Map<String, BenchFillHandler> byBenchId,
+                         Map<String, BenchFillHandler> byAlias) {
+            this.handlers = handlers;
+            this.byBenchId = byBenchId;
+            this.byAlias = byAlias;
+            for (BenchFillHandler handler : handlers) {
+                resolved.put(handler.getBenchId(), handler);
+            }
+        }
+
+        static Snapshot of(List<BenchFillHandler> handlers) {
+            Map<String, BenchFillHandler> byBenchId = new HashMap<>();
+            Map<String, BenchFillHandler> byAlias = new HashMap<>();
+            for (BenchFillHandler handler : handlers) {
+                byBenchId.put(key(handler.getBenchId()), handler);
+                String[] aliases = handler.getAliases();
+                if (aliases != null) {
+                    for (String alias : aliases) {
+                        if (alias != null) {
+                            byAlias.putIfAbsent(key(alias), handler);
+                        }
+                    }
+                }
+            }
+            return new Snapshot(Collections.unmodifiableList(handlers),
+                Collections.unmodifiableMap(byBenchId), Collections.unmodifiableMap(byAlias));
+        }
+
+        public List<BenchFillHandler> getHandlers() {
+            return handlers;
+        }
+
+        public BenchFillHandler forBench(String benchId) {
+            if (benchId == null) return null;
+
+            Object handler = resolved.get(benchId);
+            if (handler == null) {
+                BenchFillHandler found = byBenchId.get(key(benchId));
+                handler = found != null ? found : MISSING;
+                if (resolved.size() < MAX_RESOLVED) {
+                    resolved.put(benchId, handler);
+                }
+            }
+            return handler == MISSING ? null : (BenchFillHandler) handler;
+        }
+
+        /**
+         * @return the handler with this alias, else the one with this bench id
+         */
+        public BenchFillHandler forAlias(String alias) {
+            if (alias == null) return null;
+
+            String key = key(alias);
+            BenchFillHandler handler = byAlias.get(key);
+            return handler != null ? handler : byBenchId.get(key);
+        }
+
+        /**
+         * @return the handler's first alias, or its bench id when it has none
+         */
+        public static String primaryName(BenchFillHandler handler) {
+            String[] aliases = handler.getAliases();
+            if (aliases != null) {
+                for (String alias : aliases) {
+                    if (alias != null && !alias.isEmpty()) return alias;
+                }
+            }
+            return handler.getBenchId();
+        }
+
+        private int indexOf(String benchKey) {
+            BenchFillHandler handler = byBenchId.get(benchKey);
+            return handler == null ? -1 : handlers.indexOf(handler);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.fgonz.quickstack.handlers;
+
+import java.util.Set;
+
+/**
+ * Generic handler for any processing bench, driven by the game's recipe and fuel definitions
+ * (see RecipeIndex) instead of hand-written name patterns.
+ * Item checks are set lookups, cached per interned id by CachedBenchFillHandler.
+ */
+public class RecipeFillHandler extends CachedBenchFillHandler {
+
+    private final String benchId;
+    private final String displayName;
+    private final Set<String> inputs;
+    private final Set<String> fuels;
+
+    /**
+     * @param inputs Clean item ids the bench's recipes accept
+     * @param fuels Clean item ids the bench accepts as fuel (empty if the bench has no fuel slot)
+     */
+    public RecipeFillHandler(String benchId, Set<String> inputs, Set<String> fuels) {
+        this.benchId = benchId;
+        this.displayName = benchId.replace('_', ' ');
+        this.inputs = inputs;
+        this.fuels = fuels;
+    }
+
+    @Override
+    public String getBenchId() {
+        return benchId;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String[] getAliases() {
+        return new String[]{RecipeIndex.benchKey(benchId)};
+    }
+
+    @Override
+    public boolean isValidInput(String itemId) {
+        return itemId != null && inputs.contains(RecipeIndex.cleanId(itemId));
+    }
+
+    @Override
+    public boolean isValidFuel(String itemId) {
+        return itemId != null && fuels.contains(RecipeIndex.cleanId(itemId));
+    }
+
+    @Override
+    public boolean usesFuel() {
+        return !fuels.isEmpty();
+    }
+}
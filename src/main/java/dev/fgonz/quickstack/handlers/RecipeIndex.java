@@ -0,0 +1,178 @@
+package dev.fgonz.quickstack.handlers;
+
+import com.hypixel.hytale.protocol.BenchRequirement;
+import com.hypixel.hytale.protocol.BenchType;
+import com.hypixel.hytale.protocol.ItemResourceType;
+import com.hypixel.hytale.server.core.asset.type.item.config.CraftingRecipe;
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
+import com.hypixel.hytale.server.core.inventory.MaterialQuantity;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable lookup tables built from the game's processing recipes.
+ * 
+ * For every processing bench id it holds the set of item ids any of its recipes accept,
+ * with resource-type inputs (e.g. "any Ore") already expanded to concrete items. It also maps
+ * resource types to items so bench fuel slots can be resolved the same way, and keeps the
+ * processing time per unit of each input for fuel planning.
+ * Item ids are stored without namespace so "hytale:Ore_Iron" and "Ore_Iron" both match.
+ */
+public final class RecipeIndex {
+
+    public static final RecipeIndex EMPTY = new RecipeIndex(Collections.emptyMap(), Collections.emptyMap(),
+        Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, String> benchIds;
+    private final Map<String, Set<String>> inputsByBench;
+    private final Map<String, Set<String>> itemsByResourceType;
+    private final Map<String, Double> secondsPerInput;
+    private final Set<String> allInputs;
+
+    private RecipeIndex(Map<String, String> benchIds, Map<String, Set<String>> inputsByBench,
+                        Map<String, Set<String>> itemsByResourceType, Map<String, Double> secondsPerInput) {
+        this.benchIds = benchIds;
+        this.inputsByBench = inputsByBench;
+        this.itemsByResourceType = itemsByResourceType;
+        this.secondsPerInput = secondsPerInput;
+
+        Set<String> union = new HashSet<>();
+        for (Set<String> inputs : inputsByBench.values()) {
+            union.addAll(inputs);
+        }
+        this.allInputs = Collections.unmodifiableSet(union);
+    }
+
+    /**
+     * Reads the currently loaded recipe and item assets. Returns EMPTY if they are unavailable.
+     */
+    public static RecipeIndex build() {
+        try {
+            Map<String, Set<String>> itemsByResourceType = new HashMap<>();
+            for (Item item : Item.getAssetMap().getAssetMap().values()) {
+                ItemResourceType[] types = item.getResourceTypes();
+                if (types == null || item.getId() == null) continue;
+                for (ItemResourceType type : types) {
+                    if (type != null && type.id != null) {
+                        itemsByResourceType.computeIfAbsent(type.id, k -> new HashSet<>()).add(cleanId(item.getId()));
+                    }
+                }
+            }
+
+            Map<String, String> benchIds = new HashMap<>();
+            Map<String, Set<String>> inputsByBench = new HashMap<>();
+            Map<String, Double> secondsPerInput = new HashMap<>();
+            for (CraftingRecipe recipe : CraftingRecipe.getAssetMap().getAssetMap().values()) {
+                BenchRequirement[] requirements = recipe.getBenchRequirement();
+                MaterialQuantity[] inputs = recipe.getInput();
+                if (requirements == null || inputs == null) continue;
+
+                for (BenchRequirement requirement : requirements) {
+                    if (requirement == null || requirement.type != BenchType.Processing || requirement.id == null) continue;
+
+                    benchIds.putIfAbsent(benchKey(requirement.id), requirement.id);
+                    Set<String> benchInputs = inputsByBench.computeIfAbsent(benchKey(requirement.id), k -> new HashSet<>());
+                    for (MaterialQuantity input : inputs) {
+                        if (input == null) continue;
+                        Set<String> items;
+                        if (input.getItemId() != null) {
+                            items = Set.of(cleanId(input.getItemId()));
+                        } else if (input.getResourceTypeId() != null) {
+                            items = itemsByResourceType.getOrDefault(input.getResourceTypeId(), Collections.emptySet());
+                        } else {
+                            continue;
+                        }
+                        benchInputs.addAll(items);
+
+                        // Slowest recipe wins, so planned fuel never falls short
+                        double seconds = recipe.getTimeSeconds() / Math.max(1, input.getQuantity());
+                        if (seconds > 0) {
+                            for (String item : items) {
+                                secondsPerInput.merge(item, seconds, Math::max);
+                            }
+                        }
+                    }
+                }
+            }
+
+            return new RecipeIndex(Collections.unmodifiableMap(benchIds), freeze(inputsByBench), freeze(itemsByResourceType),
+                Collections.unmodifiableMap(secondsPerInput));
+        } catch (Throwable t) {
+            System.err.println("[QuickStack] Could not read processing recipes: " + t);
+            return EMPTY;
+        }
+    }
+
+    public boolean hasBench(String benchId) {
+        return benchId != null && inputsByBench.containsKey(benchKey(benchId));
+    }
+
+    /**
+     * @return bench id as spelled in game data, or null if no processing recipe uses it
+     */
+    public String getBenchId(String benchIdAnyCase) {
+        return benchIdAnyCase == null ? null : benchIds.get(benchKey(benchIdAnyCase));
+    }
+
+    public Collection<String> getBenchIds() {
+        return benchIds.values();
+    }
+
+    /**
+     * @return true if any processing recipe accepts the item as input
+     */
+    public boolean isAnyInput(String itemId) {
+        return itemId != null && allInputs.contains(cleanId(itemId));
+    }
+
+    /**
+     * @return unmodifiable set of clean item ids accepted as input by any recipe of the bench
+     */
+    public Set<String> getInputs(String benchId) {
+        return inputsByBench.getOrDefault(benchKey(benchId), Collections.emptySet());
+    }
+
+    /**
+     * @return processing seconds per unit of the item, or 0 if no processing recipe takes it
+     */
+    public double getProcessSeconds(String itemId) {
+        return itemId == null ? 0 : secondsPerInput.getOrDefault(cleanId(itemId), 0.0);
+    }
+
+    /**
+     * @return clean item ids carrying any of the given resource types
+     */
+    public Set<String> getItemsWithResourceTypes(Collection<String> resourceTypeIds) {
+        Set<String> items = new HashSet<>();
+        for (String type : resourceTypeIds) {
+            items.addAll(itemsByResourceType.getOrDefault(type, Collections.emptySet()));
+        }
+        return Collections.unmodifiableSet(items);
+    }
+
+    public static String benchKey(String benchId) {
+        return benchId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Strips the namespace (e.g. "hytale:Ore_Iron" -> "Ore_Iron").
+     */
+    public static String cleanId(String itemId) {
+        int colon = itemId.indexOf(':');
+        return colon >= 0 ? itemId.substring(colon + 1) : itemId;
+    }
+
+    private static Map<String, Set<String>> freeze(Map<String, Set<String>> map) {
+        Map<String, Set<String>> frozen = new HashMap<>();
+        for (Map.Entry<String, Set<String>> e : map.entrySet()) {
+            frozen.put(e.getKey(), Collections.unmodifiableSet(e.getValue()));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+}
@@ -1,13 +1,10 @@
 package dev.fgonz.quickstack.handlers;
 
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
-
 /**
  * Handler for Tannery bench - processes hides into leather.
  * Does NOT use fuel - only requires valid input items.
  */
-public class TanneryFillHandler implements BenchFillHandler {
+public class TanneryFillHandler extends CachedBenchFillHandler {
 
     @Override
     public String getBenchId() {
@@ -41,23 +38,8 @@ public class TanneryFillHandler implements BenchFillHandler {
     }
 
     @Override
-    public boolean shouldActivate(ItemContainer container) {
+    public boolean usesFuel() {
         // Tannery only needs input items, no fuel required
-        try {
-            short capacity = container.getCapacity();
-            for (short slot = 0; slot < capacity; slot++) {
-                ItemStack stack = container.getItemStack(slot);
-                if (stack == null) continue;
-
-                String itemId = stack.getItemId();
-                if (itemId == null) continue;
-
-                if (isValidInput(itemId)) {
-                    return true;
-                }
-            }
-        } catch (Throwable ignored) {}
-
         return false;
     }
 
@@ -0,0 +1,183 @@
+package dev.fgonz.quickstack.items;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Slots of a player's inventory sections grouped by interned item id, built with one read of every slot.
+ *
+ * Groups are in first-seen order and slots within a group keep section/slot order, so moving a group
+ * drains the same stacks the per-slot walk would. Callers refresh() a slot after moving from it; slots
+ * that emptied or now hold another item are dropped, so the index stays correct as the inventory drains.
+ * Not thread-safe: build and use it on the world thread.
+ */
+public final class InventoryIndex {
+
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+
+    /** Group + 1 per item id while build() runs; all zero between builds. Grows with ItemIds. */
+    private static final ThreadLocal<int[]> GROUP_BY_ID = ThreadLocal.withInitial(() -> new int[256]);
+
+    private final ItemContainer[] sections;
+    private final int[] itemIds;
+    private final int[][] refs;
+    private final int[][] quantities;
+    private final int[] sizes;
+    private final int[] totals;
+
+    private InventoryIndex(ItemContainer[] sections, int[] itemIds, int[][] refs, int[][] quantities, int[] sizes) {
+        this.sections = sections;
+        this.itemIds = itemIds;
+        this.refs = refs;
+        this.quantities = quantities;
+        this.sizes = sizes;
+        this.totals = new int[itemIds.length];
+        for (int g = 0; g < itemIds.length; g++) {
+            for (int i = 0; i < sizes[g]; i++) {
+                totals[g] += quantities[g][i];
+            }
+        }
+    }
+
+    /**
+     * Reads every slot of the given sections once. Null sections are skipped.
+     */
+    public static InventoryIndex build(ItemContainer... sections) {
+        int[] groupById = GROUP_BY_ID.get();
+        int[] itemIds = new int[16];
+        int[][] refs = new int[16][];
+        int[][] quantities = new int[16][];
+        int[] sizes = new int[16];
+        int groups = 0;
+
+        for (int s = 0; s < sections.length; s++) {
+            ItemContainer section = sections[s];
+            if (section == null) continue;
+
+            try {
+                short capacity = section.getCapacity();
+                for (short slot = 0; slot < capacity; slot++) {
+                    ItemStack stack = section.getItemStack(slot);
+                    if (stack == null || stack.getQuantity() <= 0) continue;
+
+                    int id = ItemIds.intern(stack.getItemId());
+                    if (id == ItemIds.NONE) continue;
+
+                    if (id >= groupById.length) {
+                        groupById = Arrays.copyOf(groupById, Math.max(id + 1, groupById.length * 2));
+                        GROUP_BY_ID.set(groupById);
+                    }
+                    int g = groupById[id] - 1;
+                    if (g < 0) {
+                        g = groups++;
+                        groupById[id] = g + 1;
+                        if (g == itemIds.length) {
+                            itemIds = Arrays.copyOf(itemIds, g * 2);
+                            refs = Arrays.copyOf(refs, g * 2);
+                            quantities = Arrays.copyOf(quantities, g * 2);
+                            sizes = Arrays.copyOf(sizes, g * 2);
+                        }
+                        itemIds[g] = id;
+                        refs[g] = new int[4];
+                        quantities[g] = new int[4];
+                    }
+
+                    int n = sizes[g];
+                    if (n == refs[g].length) {
+                        refs[g] = Arrays.copyOf(refs[g], n * 2);
+                        quantities[g] = Arrays.copyOf(quantities[g], n * 2);
+                    }
+                    refs[g][n] = (s << SLOT_BITS) | (slot & SLOT_MASK);
+                    quantities[g][n] = stack.getQuantity();
+                    sizes[g] = n + 1;
+                }
+            } catch (Throwable ignored) {}
+        }
+
+        for (int g = 0; g < groups; g++) {
+            groupById[itemIds[g]] = 0;
+        }
+        return new InventoryIndex(sections, Arrays.copyOf(itemIds, groups), Arrays.copyOf(refs, groups),
+            Arrays.copyOf(quantities, groups), Arrays.copyOf(sizes, groups));
+    }
+
+    /** @return number of distinct item ids seen when the index was built */
+    public int groupCount() {
+        return itemIds.length;
+    }
+
+    public int itemId(int group) {
+        return itemIds[group];
+    }
+
+    public int slotCount(int group) {
+        return sizes[group];
+    }
+
+    /** @return quantity of the group still in the inventory, as last observed */
+    public int quantity(int group) {
+        return totals[group];
+    }
+
+    public ItemContainer section(int group, int index) {
+        return sections[refs[group][index] >>> SLOT_BITS];
+    }
+
+    public short slot(int group, int index) {
+        return (short) (refs[group][index] & SLOT_MASK);
+    }
+
+    /** @return copy of the item id of every group, indexed by group */
+    public int[] copyItemIds() {
+        return itemIds.clone();
+    }
+
+    /** @return copy of every group's quantity, indexed by group */
+    public int[] copyQuantities() {
+        return totals.clone();
+    }
+
+    /**
+     * @return total quantity of every group whose item id matches
+     */
+    public int quantityOf(IntPredicate itemFilter) {
+        int total = 0;
+        for (int g = 0; g < itemIds.length; g++) {
+            if (totals[g] > 0 && itemFilter.test(itemIds[g])) {
+                total += totals[g];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Re-reads one slot of a group after it was moved from.
+     * @return true if the slot still holds the group's item; otherwise it was removed from the group
+     *         and the next slot now sits at the same index
+     */
+    public boolean refresh(int group, int index) {
+        int quantity = 0;
+        try {
+            ItemStack stack = section(group, index).getItemStack(slot(group, index));
+            if (stack != null && ItemIds.intern(stack.getItemId()) == itemIds[group]) {
+                quantity = stack.getQuantity();
+            }
+        } catch (Throwable ignored) {}
+
+        totals[group] += quantity - quantities[group][index];
+        if (quantity > 0) {
+            quantities[group][index] = quantity;
+            return true;
+        }
+
+        int n = sizes[group] - 1;
+        System.arraycopy(refs[group], index + 1, refs[group], index, n - index);
+        System.arraycopy(quantities[group], index + 1, quantities[group], index, n - index);
+        sizes[group] = n;
+        return false;
+    }
+}
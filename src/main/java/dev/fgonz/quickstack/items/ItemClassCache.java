@@ -0,0 +1,70 @@
+package dev.fgonz.quickstack.items;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * Memoizes a string rule over interned item ids as a pair of BitSets.
+ * 
+ * Each id is classified once with the rule; afterwards test() is a bit lookup with no allocation.
+ * Readers see an immutable snapshot; a miss classifies under a lock and publishes a new snapshot.
+ */
+public final class ItemClassCache {
+
+    private final Predicate<String> rule;
+    private volatile Snapshot snapshot = new Snapshot(new BitSet(), new BitSet());
+
+    public ItemClassCache(Predicate<String> rule) {
+        this.rule = rule;
+    }
+
+    public boolean test(int id) {
+        if (id < 0) return false;
+
+        Snapshot s = snapshot;
+        if (s.known.get(id)) {
+            return s.matches.get(id);
+        }
+        return classify(id);
+    }
+
+    /**
+     * Forgets every classification, e.g. after the rule's inputs changed.
+     */
+    public synchronized void reset() {
+        snapshot = new Snapshot(new BitSet(), new BitSet());
+    }
+
+    private synchronized boolean classify(int id) {
+        Snapshot s = snapshot;
+        if (s.known.get(id)) {
+            return s.matches.get(id);
+        }
+
+        boolean match;
+        try {
+            match = rule.test(ItemIds.name(id));
+        } catch (Throwable t) {
+            match = false;
+        }
+
+        BitSet known = (BitSet) s.known.clone();
+        BitSet matches = (BitSet) s.matches.clone();
+        known.set(id);
+        if (match) {
+            matches.set(id);
+        }
+        snapshot = new Snapshot(known, matches);
+        return match;
+    }
+
+    private static final class Snapshot {
+        final BitSet known;
+        final BitSet matches;
+
+        Snapshot(BitSet known, BitSet matches) {
+            this.known = known;
+            this.matches = matches;
+        }
+    }
+}
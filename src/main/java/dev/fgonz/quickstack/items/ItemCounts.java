@@ -0,0 +1,201 @@
+package dev.fgonz.quickstack.items;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Quantities per interned item id, in first-added order.
+ *
+ * Counts live in parallel int arrays with an open-addressing index from item id to position, so
+ * adding a move never boxes or resolves a name. asMap() is the display view: item names are
+ * resolved (and ids sharing a name merged) the first time it is read, typically when the chat
+ * message is built. Not thread-safe; a job fills it on the world thread and hands it off when done.
+ */
+public final class ItemCounts {
+
+    private static final int EMPTY = -1;
+
+    private int[] ids;
+    private int[] counts;
+    private int[] index;
+    private int size;
+    private int total;
+    private Map<String, Integer> view;
+
+    public ItemCounts() {
+        this(8);
+    }
+
+    public ItemCounts(int expectedItems) {
+        int capacity = Math.max(4, expectedItems);
+        this.ids = new int[capacity];
+        this.counts = new int[capacity];
+        this.index = newIndex(capacity);
+    }
+
+    /**
+     * Adds quantity to the item's count. Ignores ItemIds.NONE and non-positive quantities.
+     */
+    public void add(int itemId, int quantity) {
+        if (itemId == ItemIds.NONE || quantity <= 0) return;
+
+        int mask = index.length - 1;
+        int i = mix(itemId) & mask;
+        int position;
+        while ((position = index[i]) != EMPTY) {
+            if (ids[position] == itemId) {
+                counts[position] += quantity;
+                total += quantity;
+                view = null;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        boolean grow = size == ids.length;
+        if (grow) {
+            ids = Arrays.copyOf(ids, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        ids[size] = itemId;
+        counts[size] = quantity;
+        if (grow) {
+            size++;
+            rehash();
+        } else {
+            index[i] = size++;
+        }
+        total += quantity;
+        view = null;
+    }
+
+    /** @return number of distinct item ids */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return interned item id at position i, in first-added order */
+    public int itemId(int i) {
+        return ids[i];
+    }
+
+    /** @return quantity at position i */
+    public int count(int i) {
+        return counts[i];
+    }
+
+    /** @return sum of all quantities */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * @return quantity added for the item id, or 0
+     */
+    public int get(int itemId) {
+        int mask = index.length - 1;
+        int i = mix(itemId) & mask;
+        int position;
+        while ((position = index[i]) != EMPTY) {
+            if (ids[position] == itemId) {
+                return counts[position];
+            }
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * @return unmodifiable display name to quantity view, built on first use and cached until the
+     *         next add
+     */
+    public Map<String, Integer> asMap() {
+        Map<String, Integer> current = view;
+        if (current == null) {
+            current = new NameView(this);
+            view = current;
+        }
+        return current;
+    }
+
+    /** Rebuilds the index sized for the current arrays. */
+    private void rehash() {
+        index = newIndex(ids.length);
+        int mask = index.length - 1;
+        for (int position = 0; position < size; position++) {
+            int i = mix(ids[position]) & mask;
+            while (index[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            index[i] = position;
+        }
+    }
+
+    /** Index table at least twice the entry capacity, so probes stay short. */
+    private static int[] newIndex(int capacity) {
+        int[] table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Map view resolving display names on first access.
+     */
+    private static final class NameView extends AbstractMap<String, Integer> {
+        private final ItemCounts counts;
+        private Map<String, Integer> resolved;
+
+        NameView(ItemCounts counts) {
+            this.counts = counts;
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            return resolve().entrySet();
+        }
+
+        @Override
+        public Integer get(Object key) {
+            return resolve().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return resolve().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return resolve().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return counts.isEmpty();
+        }
+
+        private Map<String, Integer> resolve() {
+            if (resolved == null) {
+                Map<String, Integer> byName = new LinkedHashMap<>();
+                for (int i = 0; i < counts.size; i++) {
+                    byName.merge(ItemIds.displayName(counts.ids[i]), counts.counts[i], Integer::sum);
+                }
+                resolved = Collections.unmodifiableMap(byName);
+            }
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.fgonz.quickstack.items;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns item ids (e.g. "hytale:Ore_Iron") to dense ints starting at 0.
+ * 
+ * Lookups of known ids are a single ConcurrentHashMap read with no allocation; new ids are
+ * assigned under a lock. Ids are never removed, so an int stays valid for the server's lifetime.
+ */
+public final class ItemIds {
+
+    /** Returned for null item ids. Never matches any classification. */
+    public static final int NONE = -1;
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[256];
+    private static volatile String[] displayNames = new String[256];
+    private static int size;
+
+    private ItemIds() {}
+
+    public static int intern(String itemId) {
+        if (itemId == null) return NONE;
+
+        Integer id = IDS.get(itemId);
+        if (id != null) return id;
+
+        synchronized (IDS) {
+            id = IDS.get(itemId);
+            if (id != null) return id;
+
+            int next = size;
+            String[] current = names;
+            String[] display = displayNames;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, next * 2);
+                display = Arrays.copyOf(display, next * 2);
+            }
+            current[next] = itemId;
+            display[next] = displayName(itemId);
+            displayNames = display;
+            names = current;
+            size = next + 1;
+            IDS.put(itemId, next);
+            return next;
+        }
+    }
+
+    /**
+     * @return the item id string for an interned id, or null if unknown
+     */
+    public static String name(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @return the item id without its namespace (e.g. "hytale:stone" -> "stone"), or "Unknown"
+     */
+    public static String displayName(int id) {
+        String[] current = displayNames;
+        String name = id >= 0 && id < current.length ? current[id] : null;
+        return name != null ? name : "Unknown";
+    }
+
+    private static String displayName(String itemId) {
+        int colon = itemId.indexOf(':');
+        if (colon < 0) return itemId;
+        int end = itemId.indexOf(':', colon + 1);
+        String name = itemId.substring(colon + 1, end < 0 ? itemId.length() : end);
+        return name.isEmpty() ? itemId : name;
+    }
+}
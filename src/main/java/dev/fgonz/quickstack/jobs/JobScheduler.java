@@ -0,0 +1,368 @@
+package dev.fgonz.quickstack.jobs;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import dev.fgonz.quickstack.LiveConfig;
+import dev.fgonz.quickstack.QuickStackConfig;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cooperative scheduler for quick-stack and fill jobs.
+ * 
+ * Each world gets a round-robin queue of SteppedJobs. Once per tick a pump runs on the world
+ * thread and steps jobs in turn until the configured microsecond budget is spent, so one large
+ * request never stalls a tick and several players' jobs make progress side by side.
+ * Pure computation can be handed to a small worker pool with compute(); the job stays parked
+ * until the result is in and is then stepped again on the world thread.
+ * Admission is bounded per world: a fixed number of jobs in flight plus a bounded wait queue.
+ * Beyond that submit() refuses the job, and the time jobs spend queued is tracked.
+ * Each world also has a LoadShedder fed with pump lag; see effectiveRadius().
+ * Queues are weakly keyed by world and hold no reference back to it, so an unloaded world's
+ * queue is dropped with it.
+ */
+public class JobScheduler {
+
+    /** Hytale worlds tick at 30 TPS. */
+    private static final long TICK_INTERVAL_MS = 33;
+
+    private final LiveConfig config;
+    private final Map<World, WorldQueue> queues = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ScheduledExecutorService pulse;
+    private final ExecutorService workers;
+
+    private final AtomicLong busyRejections = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong waitTotalNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public JobScheduler(LiveConfig config) {
+        this.config = config;
+        this.pulse = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "QuickStack-Scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        this.pulse.scheduleAtFixedRate(this::pulseAll, TICK_INTERVAL_MS, TICK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        int workerCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger workerId = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "QuickStack-Worker-" + workerId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Thrown (wrapped in the request future) when a world's job queue is full.
+     */
+    public static class BusyException extends RequestGate.RequestRejectedException {
+        private static final long serialVersionUID = 1L;
+
+        public BusyException() {
+            super("Server busy, try again in a moment", 1000);
+        }
+    }
+
+    /**
+     * Queues a job on the world's thread. The first step runs on the next world tick, or once an
+     * in-flight job finishes if the world is at MaxActiveJobsPerWorld.
+     * @return false if the world's wait queue is full; the job was not queued and will never run
+     */
+    public boolean submit(World world, SteppedJob job) {
+        WorldQueue queue = queues.computeIfAbsent(world, w -> new WorldQueue());
+        if (!queue.add(job)) {
+            busyRejections.incrementAndGet();
+            return false;
+        }
+        queue.schedulePump(world);
+        return true;
+    }
+
+    /**
+     * Search radius to use in a world right now: the configured radius, or less while the world's
+     * thread is falling behind (never below MinSearchRadius). Always the configured radius when
+     * AdaptiveRadius is off.
+     */
+    public int effectiveRadius(World world, int configured) {
+        QuickStackConfig snapshot = config.get();
+        if (!snapshot.isAdaptiveRadius()) return configured;
+        return queues.computeIfAbsent(world, w -> new WorldQueue()).shedder.radiusFor(configured, snapshot.getMinSearchRadius());
+    }
+
+    /** Jobs refused because a world's wait queue was full. */
+    public long getBusyRejections() {
+        return busyRejections.get();
+    }
+
+    /** Jobs that have started running, i.e. the sample count for the wait figures. */
+    public long getQueueWaitCount() {
+        return waitCount.get();
+    }
+
+    /** Mean time from submit() to first step, in microseconds. */
+    public long getAverageQueueWaitMicros() {
+        long count = waitCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitTotalNanos.get() / count);
+    }
+
+    /** Sum of all times from submit() to first step, in microseconds. */
+    public long getTotalQueueWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(waitTotalNanos.get());
+    }
+
+    /** Longest time from submit() to first step seen, in microseconds. */
+    public long getMaxQueueWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get());
+    }
+
+    /** Jobs in flight across all worlds. */
+    public int getActiveJobs() {
+        int total = 0;
+        for (WorldQueue queue : snapshotQueues()) {
+            total += queue.activeCount();
+        }
+        return total;
+    }
+
+    /** Jobs waiting for a slot across all worlds. */
+    public int getQueuedJobs() {
+        int total = 0;
+        for (WorldQueue queue : snapshotQueues()) {
+            total += queue.waitingCount();
+        }
+        return total;
+    }
+
+    /** Highest smoothed pump lag across worlds (see LoadShedder), in microseconds. */
+    public long getMaxPumpLagMicros() {
+        long max = 0;
+        for (WorldQueue queue : snapshotQueues()) {
+            max = Math.max(max, queue.shedder.getAverageLagMicros());
+        }
+        return max;
+    }
+
+    private List<WorldQueue> snapshotQueues() {
+        synchronized (queues) {
+            return new ArrayList<>(queues.values());
+        }
+    }
+
+    /**
+     * Runs a task off the world thread. The task must not touch world state.
+     * When it completes, the world's queue is pumped right away instead of waiting for the next pulse.
+     */
+    public <T> CompletableFuture<T> compute(World world, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, workers).whenComplete((result, error) -> {
+            WorldQueue queue = queues.get(world);
+            if (queue != null) {
+                queue.schedulePump(world);
+            }
+        });
+    }
+
+    /**
+     * Stops pumping and fails every job that has not finished yet.
+     */
+    public void shutdown() {
+        pulse.shutdownNow();
+        workers.shutdownNow();
+
+        List<WorldQueue> snapshot;
+        synchronized (queues) {
+            snapshot = new ArrayList<>(queues.values());
+            queues.clear();
+        }
+        IllegalStateException reason = new IllegalStateException("QuickStack is shutting down");
+        for (WorldQueue queue : snapshot) {
+            queue.failAll(reason);
+        }
+    }
+
+    private void pulseAll() {
+        List<Map.Entry<World, WorldQueue>> snapshot;
+        synchronized (queues) {
+            snapshot = new ArrayList<>(queues.entrySet());
+        }
+        for (Map.Entry<World, WorldQueue> entry : snapshot) {
+            try {
+                entry.getValue().schedulePump(entry.getKey());
+            } catch (Throwable t) {
+                System.err.println("[QuickStack] Failed to schedule job pump: " + t.getMessage());
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitCount.incrementAndGet();
+        waitTotalNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * A job and when it was submitted, for queue-wait tracking.
+     */
+    private static final class Entry {
+        final SteppedJob job;
+        final long submittedNanos;
+        boolean started;
+
+        Entry(SteppedJob job, long submittedNanos) {
+            this.job = job;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+
+    /**
+     * Jobs of one world. Up to MaxActiveJobsPerWorld are in flight and stepped round-robin; up to
+     * MaxQueuedJobsPerWorld more wait in FIFO order and are promoted as active jobs finish.
+     * All deque access is guarded by the queue's monitor.
+     */
+    private final class WorldQueue {
+        private final ArrayDeque<Entry> active = new ArrayDeque<>();
+        private final ArrayDeque<Entry> waiting = new ArrayDeque<>();
+        private final AtomicBoolean pumpScheduled = new AtomicBoolean();
+        private final LoadShedder shedder = new LoadShedder();
+        private volatile long pumpScheduledNanos;
+        private int inFlight;
+
+        synchronized boolean add(SteppedJob job) {
+            Entry entry = new Entry(job, System.nanoTime());
+            if (inFlight < maxActive()) {
+                inFlight++;
+                active.addLast(entry);
+                return true;
+            }
+            if (waiting.size() < Math.max(0, config.get().getMaxQueuedJobsPerWorld())) {
+                waiting.addLast(entry);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized int activeCount() {
+            return inFlight;
+        }
+
+        synchronized int waitingCount() {
+            return waiting.size();
+        }
+
+        private int maxActive() {
+            return Math.max(1, config.get().getMaxActiveJobsPerWorld());
+        }
+
+        private void promote() {
+            while (inFlight < maxActive() && !waiting.isEmpty()) {
+                inFlight++;
+                active.addLast(waiting.pollFirst());
+            }
+        }
+
+        /**
+         * Hands a pump to the world thread. With no jobs it still runs while the radius is reduced,
+         * so the lag keeps being sampled and the radius recovers.
+         */
+        void schedulePump(World world) {
+            synchronized (this) {
+                if (active.isEmpty() && waiting.isEmpty() && !shedder.isShedding()) {
+                    shedder.idle();
+                    return;
+                }
+            }
+            if (pumpScheduled.compareAndSet(false, true)) {
+                pumpScheduledNanos = System.nanoTime();
+                world.execute(this::pump);
+            }
+        }
+
+        /**
+         * Steps active jobs round-robin until the tick budget is used up. Always runs at least
+         * one step so progress is guaranteed even with a tiny budget.
+         */
+        void pump() {
+            long start = System.nanoTime();
+            shedder.recordLag(start - pumpScheduledNanos, start);
+            long deadline = start + Math.max(1, config.get().getTickBudgetMicros()) * 1000L;
+            int parked = 0;
+            try {
+                while (true) {
+                    Entry entry;
+                    int queued;
+                    synchronized (this) {
+                        promote();
+                        entry = active.pollFirst();
+                        queued = active.size();
+                    }
+                    if (entry == null) break;
+
+                    SteppedJob job = entry.job;
+                    if (!job.isReady()) {
+                        synchronized (this) {
+                            active.addLast(entry);
+                        }
+                        // A full lap with nobody ready: stop instead of spinning
+                        if (++parked > queued) break;
+                        continue;
+                    }
+                    parked = 0;
+
+                    if (!entry.started) {
+                        entry.started = true;
+                        recordWait(System.nanoTime() - entry.submittedNanos);
+                    }
+
+                    boolean done;
+                    try {
+                        done = job.step();
+                    } catch (Throwable t) {
+                        job.fail(t);
+                        done = true;
+                    }
+
+                    synchronized (this) {
+                        if (done) {
+                            inFlight--;
+                        } else {
+                            active.addLast(entry);
+                        }
+                    }
+
+                    if (System.nanoTime() >= deadline) break;
+                }
+            } finally {
+                pumpScheduled.set(false);
+            }
+        }
+
+        void failAll(Throwable reason) {
+            List<Entry> pending;
+            synchronized (this) {
+                pending = new ArrayList<>(active);
+                pending.addAll(waiting);
+                active.clear();
+                waiting.clear();
+                inFlight = 0;
+            }
+            for (Entry entry : pending) {
+                entry.job.fail(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package dev.fgonz.quickstack.jobs;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scales the search radius of one world down while its thread is falling behind.
+ *
+ * The signal is how late the scheduler's pump runs after being handed to world.execute(); on a
+ * healthy world that is at most about one tick. An exponential average of that lag drives the
+ * scale: multiplicative decrease while the average is above STRESSED_NANOS, slow additive
+ * recovery while it is below HEALTHY_NANOS.
+ *
+ * Samples arrive once per pump, and how often a world is pumped varies, so every step is scaled
+ * by the time since the previous pump: the constants below are per STEP_NANOS (one tick) of
+ * elapsed time. How fast the radius shrinks and recovers then depends on how long the world is
+ * overloaded, not on how many pumps it gets. A single sample counts for at most MAX_STEPS ticks,
+ * and the first pump after an idle spell (see idle()) counts for one, so one late pump cannot
+ * drop the radius to its floor.
+ */
+public final class LoadShedder {
+
+    private static final long HEALTHY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long STRESSED_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(33);
+    /** Most ticks one sample stands for, however long ago the previous pump was. */
+    private static final int MAX_STEPS = 3;
+    private static final double SMOOTHING = 0.2;
+    private static final double DECREASE = 0.75;
+    private static final double RECOVERY_STEP = 0.05;
+    private static final double MIN_SCALE = 0.1;
+
+    private double averageLagNanos;
+    private double scale = 1.0;
+    private long lastSampleNanos;
+    private boolean sampled;
+
+    /**
+     * @param lagNanos how late this pump ran
+     * @param nowNanos System.nanoTime() when it ran
+     */
+    synchronized void recordLag(long lagNanos, long nowNanos) {
+        double steps = sampled ? Math.min(MAX_STEPS, Math.max(0, nowNanos - lastSampleNanos) / (double) STEP_NANOS) : 1;
+        lastSampleNanos = nowNanos;
+        sampled = true;
+
+        averageLagNanos += (1 - Math.pow(1 - SMOOTHING, steps)) * (lagNanos - averageLagNanos);
+        if (averageLagNanos > STRESSED_NANOS) {
+            scale = Math.max(MIN_SCALE, scale * Math.pow(DECREASE, steps));
+        } else if (averageLagNanos < HEALTHY_NANOS) {
+            scale = Math.min(1.0, scale + RECOVERY_STEP * steps);
+        }
+    }
+
+    /**
+     * The world has no jobs and is not being pumped; the next sample starts a new active spell
+     * and is counted as one tick instead of the whole gap.
+     */
+    synchronized void idle() {
+        sampled = false;
+    }
+
+    /**
+     * @return true while the radius is being reduced
+     */
+    public synchronized boolean isShedding() {
+        return scale < 1.0;
+    }
+
+    public synchronized long getAverageLagMicros() {
+        return TimeUnit.NANOSECONDS.toMicros((long) averageLagNanos);
+    }
+
+    /**
+     * @param configured radius from the config
+     * @param minimum radius never shed below (capped at configured)
+     * @return radius to use right now
+     */
+    public synchronized int radiusFor(int configured, int minimum) {
+        if (scale >= 1.0) return configured;
+        int floor = Math.min(configured, Math.max(1, minimum));
+        return Math.max(floor, (int) Math.round(configured * scale));
+    }
+}
@@ -0,0 +1,176 @@
+package dev.fgonz.quickstack.jobs;
+
+import dev.fgonz.quickstack.LiveConfig;
+import dev.fgonz.quickstack.QuickStackConfig;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-player admission for quick-stack and fill requests.
+ *
+ * A request that matches one still running for the same player (same kind, e.g. "stack" or
+ * "fill:furnace") joins its future instead of starting another scan. New work takes a token
+ * from the player's bucket (RequestBurst tokens, refilled at RequestsPerMinute); with the bucket
+ * empty the request fails with a RequestRejectedException carrying the wait until the next token.
+ */
+public class RequestGate {
+
+    private static final long IDLE_BUCKET_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int PRUNE_THRESHOLD = 256;
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final LiveConfig config;
+    private final Map<String, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong lastPruneNanos = new AtomicLong(System.nanoTime());
+
+    public RequestGate(LiveConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Thrown (wrapped in the returned future) when a player is over their request rate, or when the
+     * server refuses the work outright (see JobScheduler.BusyException).
+     */
+    public static class RequestRejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAfterMillis;
+
+        public RequestRejectedException(long retryAfterMillis) {
+            this("Too many requests, try again in " + Math.max(1, (retryAfterMillis + 999) / 1000) + "s", retryAfterMillis);
+        }
+
+        protected RequestRejectedException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    /**
+     * @return the rejection behind a failed request future, or null if it failed for another reason
+     */
+    public static RequestRejectedException rejection(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t instanceof RequestRejectedException r ? r : null;
+    }
+
+    /**
+     * Starts the request, joins an identical one still pending, or rejects it.
+     *
+     * A placeholder future is installed first and the work is started outside any map lock, so
+     * start may itself submit requests. A request arriving in between joins the placeholder and
+     * shares its outcome, rejection included.
+     * @param kind identifies requests that would do the same work
+     * @param start schedules the work; only called when the request is admitted
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(UUID player, String kind, Supplier<CompletableFuture<T>> start) {
+        String key = player + "|" + kind;
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        while (true) {
+            CompletableFuture<?> existing = pending.putIfAbsent(key, result);
+            if (existing == null) break;
+            if (!existing.isDone()) {
+                coalesced.incrementAndGet();
+                return (CompletableFuture<T>) existing;
+            }
+            if (pending.replace(key, existing, result)) break;
+        }
+        result.whenComplete((value, error) -> pending.remove(key, result));
+
+        QuickStackConfig snapshot = config.get();
+        long waitNanos = bucketFor(player).tryAcquire(snapshot.getRequestsPerMinute(), snapshot.getRequestBurst());
+        if (waitNanos > 0) {
+            rejected.incrementAndGet();
+            result.completeExceptionally(new RequestRejectedException(TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+            return result;
+        }
+
+        accepted.incrementAndGet();
+        try {
+            start.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+        return result;
+    }
+
+    public long getAccepted() { return accepted.get(); }
+    public long getCoalesced() { return coalesced.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    private Bucket bucketFor(UUID player) {
+        if (buckets.size() > PRUNE_THRESHOLD) {
+            pruneIdle();
+        }
+        return buckets.computeIfAbsent(player, p -> new Bucket());
+    }
+
+    /**
+     * Drops idle buckets at most once per PRUNE_INTERVAL_NANOS, on whichever request gets there
+     * first, so requests do not each pay for a walk over every player.
+     */
+    private void pruneIdle() {
+        long now = System.nanoTime();
+        long last = lastPruneNanos.get();
+        if (now - last < PRUNE_INTERVAL_NANOS || !lastPruneNanos.compareAndSet(last, now)) return;
+
+        buckets.values().removeIf(b -> b.isIdle(now));
+    }
+
+    /**
+     * Token bucket refilled continuously. Starts full.
+     */
+    private static final class Bucket {
+        private double tokens = Double.NaN;
+        private long lastNanos = System.nanoTime();
+
+        /**
+         * @return 0 if a token was taken, else nanoseconds until one is available
+         */
+        synchronized long tryAcquire(int perMinute, int burst) {
+            if (perMinute <= 0) return 0;
+
+            int capacity = Math.max(1, burst);
+            long now = System.nanoTime();
+            double perNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            tokens = Double.isNaN(tokens) ? capacity : Math.min(capacity, tokens + (now - lastNanos) * perNano);
+            lastNanos = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / perNano);
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastNanos > IDLE_BUCKET_NANOS;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package dev.fgonz.quickstack.jobs;
+
+/**
+ * A unit of world-thread work that can be split into short, resumable steps.
+ * The JobScheduler calls step() repeatedly, interleaving jobs from different players.
+ */
+public interface SteppedJob {
+
+    /**
+     * Runs one bounded piece of work on the world thread.
+     * @return true when the job has finished and completed its future
+     */
+    boolean step();
+
+    /**
+     * @return false while the job waits on work running elsewhere (see JobScheduler.compute);
+     *         the scheduler skips it without calling step()
+     */
+    default boolean isReady() {
+        return true;
+    }
+
+    /**
+     * Called when step() throws or the scheduler shuts down.
+     * Implementations must complete their future exceptionally.
+     */
+    void fail(Throwable t);
+}
@@ -0,0 +1,31 @@
+package dev.fgonz.quickstack.scan;
+
+/**
+ * Packs block coordinates into a single long so positions can live in primitive arrays.
+ * 
+ * Layout: x (26 bits) | z (26 bits) | y (12 bits). Covers +-33M horizontally and 0..4095 vertically.
+ */
+public final class BlockPos {
+
+    private BlockPos() {}
+
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int x(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int y(long packed) {
+        return (int) (packed & 0xFFF);
+    }
+
+    public static int z(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    public static String toString(long packed) {
+        return "(" + x(packed) + ", " + y(packed) + ", " + z(packed) + ")";
+    }
+}
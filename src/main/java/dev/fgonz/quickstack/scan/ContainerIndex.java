@@ -0,0 +1,448 @@
+package dev.fgonz.quickstack.scan;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-world index of container and processing bench positions, keyed by chunk.
+ *
+ * The index is built lazily in 4x4x4 cells: the first query touching a cell probes it once,
+ * later queries read the stored positions. Block place/break events mark cells dirty so they
+ * are probed again on the next query. Callers re-check each returned position with
+ * world.getState() and call forget() when it no longer holds a matching state.
+ *
+ * Cells in loaded chunk sections that are entirely air are marked indexed in bulk without
+ * probing, one check per 32-block section. The chunk API has no per-section count of block
+ * states, so any other section is probed block by block the first time; sections without
+ * containers then cost nothing until the chunk is re-indexed.
+ *
+ * Queries in ScanMode.LOADED_ONLY never probe or return blocks in unloaded chunks, so they
+ * cannot trigger chunk loading; the number of chunks skipped is reported by the cursor.
+ *
+ * Chunks are only probed while in use. Once the index holds more than SWEEP_MIN_CHUNKS chunks,
+ * entries for chunks no longer loaded are dropped before new ones are added; a reloaded chunk is
+ * probed again. Place and break events only reach the index when a player caused them, so blocks
+ * changed any other way (explosions, world edits, NPCs) are caught by re-probing each chunk once
+ * its entry is older than REINDEX_NANOS, and by callers re-checking every position they get.
+ *
+ * The index holds no reference to its world, so an unloaded world and its index can be collected;
+ * each query is given the world it runs in.
+ *
+ * Not thread-safe. All access must happen on the owning world's thread.
+ */
+public class ContainerIndex {
+
+    public static final int KIND_CONTAINER = 1;
+    public static final int KIND_BENCH = 2;
+
+    /**
+     * Receives every container or bench found while probing cells, with its resolved state,
+     * so callers can use it without a second world.getState() lookup.
+     */
+    public interface ProbeListener {
+        void onHit(long packedPos, int kind, Object state);
+    }
+
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int CELL_SHIFT = 2;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+    private static final int CELLS_PER_AXIS = 1 << (CHUNK_SHIFT - CELL_SHIFT);
+    /** Chunk sections are cubes as wide as the chunk, so one section spans CELLS_PER_AXIS cell layers. */
+    private static final int CELLS_PER_SECTION = CELLS_PER_AXIS * CELLS_PER_AXIS * CELLS_PER_AXIS;
+    private static final Object NOT_LOADED = new Object();
+    private static final int MAX_Y = 0xFFF;
+    private static final int SWEEP_MIN_CHUNKS = 1024;
+    private static final long REINDEX_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static final Map<World, ContainerIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final LongObjectMap<ChunkEntry> chunks = new LongObjectMap<>(64);
+    private int sweepAt = SWEEP_MIN_CHUNKS;
+    private int modCount;
+
+    private ContainerIndex() {
+    }
+
+    public static ContainerIndex forWorld(World world) {
+        return INDEXES.computeIfAbsent(world, w -> new ContainerIndex());
+    }
+
+    /**
+     * Marks the cell containing a block as stale. Entries inside it are dropped and the cell
+     * is probed again on the next query that covers it.
+     */
+    public static void markDirty(World world, int x, int y, int z) {
+        ContainerIndex index = INDEXES.get(world);
+        if (index != null) {
+            index.markDirty(x, y, z);
+        }
+    }
+
+    /**
+     * Collects packed positions of indexed blocks inside the cube around (centerX, centerY, centerZ),
+     * probing any missing cells in one go.
+     * @param kindMask KIND_CONTAINER, KIND_BENCH or both
+     * @param out Receives packed positions (see BlockPos)
+     * @return number of blocks probed to cover missing cells
+     */
+    public int collect(World world, int centerX, int centerY, int centerZ, int radius, int kindMask, LongList out) {
+        Cursor cursor = cursor(world, centerX, centerY, centerZ, radius, ScanMode.LOAD_CHUNKS);
+        cursor.advance(Integer.MAX_VALUE);
+        cursor.collect(kindMask, out);
+        return cursor.getProbed();
+    }
+
+    /**
+     * Starts a resumable query over the cube around (centerX, centerY, centerZ).
+     * Call advance() until it returns true, then collect().
+     */
+    public Cursor cursor(World world, int centerX, int centerY, int centerZ, int radius, ScanMode mode) {
+        return new Cursor(world, centerX, centerY, centerZ, radius, mode);
+    }
+
+    /**
+     * @return true if the chunk holding the block is loaded; looking it up never loads it
+     */
+    public static boolean isLoaded(World world, long packedPos) {
+        return loadedChunk(world, BlockPos.x(packedPos) >> CHUNK_SHIFT, BlockPos.z(packedPos) >> CHUNK_SHIFT) != null;
+    }
+
+    private static WorldChunk loadedChunk(World world, int cx, int cz) {
+        try {
+            return world.getChunkIfLoaded(ChunkUtil.indexChunkFromBlock(cx << CHUNK_SHIFT, cz << CHUNK_SHIFT));
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the chunk section is known to hold only air. Any failure counts as "not empty".
+     */
+    private static boolean isSectionEmpty(WorldChunk chunk, int sectionY) {
+        try {
+            return chunk.getBlockChunk().getSectionAtBlockY(sectionY << CHUNK_SHIFT).isSolidAir();
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes a single position, e.g. after the caller found it no longer holds a container.
+     */
+    public void forget(long packedPos) {
+        int x = BlockPos.x(packedPos);
+        int z = BlockPos.z(packedPos);
+        ChunkEntry entry = chunks.get(chunkKey(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT));
+        if (entry == null) return;
+
+        for (int i = 0; i < entry.positions.size(); i++) {
+            if (entry.positions.get(i) == packedPos) {
+                entry.remove(i);
+                modCount++;
+                return;
+            }
+        }
+    }
+
+    public void markDirty(int x, int y, int z) {
+        if (y < 0 || y > MAX_Y) return;
+
+        ChunkEntry entry = chunks.get(chunkKey(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT));
+        if (entry == null) return;
+
+        int cell = cellIndex(x & CHUNK_MASK, y, z & CHUNK_MASK);
+        if (!entry.scannedCells.get(cell)) return;
+        entry.scannedCells.clear(cell);
+        modCount++;
+
+        for (int i = entry.positions.size() - 1; i >= 0; i--) {
+            long pos = entry.positions.get(i);
+            if (cellIndex(BlockPos.x(pos) & CHUNK_MASK, BlockPos.y(pos), BlockPos.z(pos) & CHUNK_MASK) == cell) {
+                entry.remove(i);
+            }
+        }
+    }
+
+    public void clear() {
+        chunks.clear();
+        modCount++;
+    }
+
+    /**
+     * Incremented whenever an entry is dropped or a cell is invalidated. State references
+     * captured while the count was unchanged are still safe to use.
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    private ChunkEntry entryFor(World world, long key) {
+        ChunkEntry entry = chunks.get(key);
+        if (entry == null) {
+            if (chunks.size() >= sweepAt) {
+                sweepUnloaded(world);
+            }
+            entry = new ChunkEntry();
+            chunks.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Drops entries for chunks that are no longer loaded. The next sweep waits until the index has
+     * doubled again, so sweeps stay rare however many chunks are in use.
+     */
+    private void sweepUnloaded(World world) {
+        int removed = chunks.removeIf((key, entry) -> loadedChunk(world, (int) (key >> 32), (int) key) == null);
+        if (removed > 0) {
+            modCount++;
+        }
+        sweepAt = Math.max(SWEEP_MIN_CHUNKS, chunks.size() * 2);
+    }
+
+    private int probeCell(World world, ChunkEntry entry, int startX, int startY, int startZ, ProbeListener listener) {
+        int probed = 0;
+        for (int x = startX; x < startX + CELL_SIZE; x++) {
+            for (int y = startY; y < startY + CELL_SIZE && y <= MAX_Y; y++) {
+                for (int z = startZ; z < startZ + CELL_SIZE; z++) {
+                    probed++;
+                    try {
+                        Object state = world.getState(x, y, z, true);
+                        int kind;
+                        if (state instanceof ProcessingBenchState) {
+                            kind = KIND_BENCH;
+                        } else if (state instanceof ItemContainerState) {
+                            kind = KIND_CONTAINER;
+                        } else {
+                            continue;
+                        }
+
+                        long pos = BlockPos.pack(x, y, z);
+                        entry.add(pos, kind);
+                        if (listener != null) {
+                            listener.onHit(pos, kind, state);
+                        }
+                    } catch (Throwable ignored) {}
+                }
+            }
+        }
+        return probed;
+    }
+
+    private static int cellIndex(int localX, int y, int localZ) {
+        return ((y >> CELL_SHIFT) * CELLS_PER_AXIS + (localZ >> CELL_SHIFT)) * CELLS_PER_AXIS + (localX >> CELL_SHIFT);
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Resumable query. Walks the cells overlapping the cube and probes the ones not yet indexed,
+     * a bounded number of blocks per advance() call.
+     */
+    public final class Cursor {
+        private final World world;
+        private final int minX, maxX, minY, maxY, minZ, maxZ;
+        private final int cellMinX, cellMaxX, cellMaxY, cellMinZ, cellMaxZ;
+        private int cellX, cellY, cellZ;
+        private final boolean loadedOnly;
+        private final LongObjectMap<Object> chunkRefs = new LongObjectMap<>();
+        private boolean covered;
+        private int probed;
+        private int skippedChunks;
+        private int skippedSections;
+        private ProbeListener listener;
+
+        private Cursor(World world, int centerX, int centerY, int centerZ, int radius, ScanMode mode) {
+            this.world = world;
+            this.loadedOnly = mode == ScanMode.LOADED_ONLY;
+            this.minX = centerX - radius;
+            this.maxX = centerX + radius;
+            this.minY = Math.max(0, centerY - radius);
+            this.maxY = Math.min(MAX_Y, centerY + radius);
+            this.minZ = centerZ - radius;
+            this.maxZ = centerZ + radius;
+
+            this.cellMinX = minX >> CELL_SHIFT;
+            this.cellMaxX = maxX >> CELL_SHIFT;
+            this.cellMaxY = maxY >> CELL_SHIFT;
+            this.cellMinZ = minZ >> CELL_SHIFT;
+            this.cellMaxZ = maxZ >> CELL_SHIFT;
+
+            this.cellX = cellMinX;
+            this.cellY = minY >> CELL_SHIFT;
+            this.cellZ = cellMinZ;
+            this.covered = minY > maxY;
+        }
+
+        public void setListener(ProbeListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Probes missing cells until at least maxProbes blocks were read or the cube is covered.
+         * @return true once every cell of the cube is indexed
+         */
+        public boolean advance(int maxProbes) {
+            int budget = 0;
+            ChunkEntry entry = null;
+            WorldChunk chunk = null;
+            long entryKey = 0;
+
+            while (!covered && budget < maxProbes) {
+                int cx = cellX >> (CHUNK_SHIFT - CELL_SHIFT);
+                int cz = cellZ >> (CHUNK_SHIFT - CELL_SHIFT);
+                long key = chunkKey(cx, cz);
+                if (entry == null || key != entryKey) {
+                    entry = entryFor(world, key);
+                    entryKey = key;
+                    chunk = chunkAt(cx, cz);
+                    if (chunk != null && entry.isExpired()) {
+                        entry.reset();
+                        modCount++;
+                    }
+                }
+
+                if (chunk != null || !loadedOnly) {
+                    int cell = (cellY * CELLS_PER_AXIS + (cellZ & (CELLS_PER_AXIS - 1))) * CELLS_PER_AXIS
+                        + (cellX & (CELLS_PER_AXIS - 1));
+                    if (!entry.scannedCells.get(cell)) {
+                        int section = cellY / CELLS_PER_AXIS;
+                        if (chunk != null && isSectionEmpty(chunk, section)) {
+                            entry.scannedCells.set(section * CELLS_PER_SECTION, (section + 1) * CELLS_PER_SECTION);
+                            skippedSections++;
+                        } else {
+                            budget += probeCell(world, entry, cellX << CELL_SHIFT, cellY << CELL_SHIFT, cellZ << CELL_SHIFT, listener);
+                            entry.scannedCells.set(cell);
+                        }
+                    }
+                }
+
+                if (++cellX > cellMaxX) {
+                    cellX = cellMinX;
+                    if (++cellZ > cellMaxZ) {
+                        cellZ = cellMinZ;
+                        if (++cellY > cellMaxY) {
+                            covered = true;
+                        }
+                    }
+                }
+            }
+
+            probed += budget;
+            return covered;
+        }
+
+        /**
+         * Appends indexed positions inside the cube whose kind matches kindMask.
+         */
+        public void collect(int kindMask, LongList out) {
+            for (int cx = minX >> CHUNK_SHIFT; cx <= maxX >> CHUNK_SHIFT; cx++) {
+                for (int cz = minZ >> CHUNK_SHIFT; cz <= maxZ >> CHUNK_SHIFT; cz++) {
+                    ChunkEntry entry = chunks.get(chunkKey(cx, cz));
+                    if (entry == null) continue;
+                    if (loadedOnly && chunkAt(cx, cz) == null) continue;
+
+                    for (int i = 0; i < entry.positions.size(); i++) {
+                        if ((entry.kinds[i] & kindMask) == 0) continue;
+
+                        long pos = entry.positions.get(i);
+                        int x = BlockPos.x(pos);
+                        int y = BlockPos.y(pos);
+                        int z = BlockPos.z(pos);
+                        if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                            out.add(pos);
+                        }
+                    }
+                }
+            }
+        }
+
+        public boolean isCovered() {
+            return covered;
+        }
+
+        public int getProbed() {
+            return probed;
+        }
+
+        /**
+         * @return number of distinct unloaded chunks this cursor skipped (LOADED_ONLY mode)
+         */
+        public int getSkippedChunks() {
+            return skippedChunks;
+        }
+
+        /**
+         * @return number of all-air chunk sections marked indexed without probing
+         */
+        public int getSkippedSections() {
+            return skippedSections;
+        }
+
+        /**
+         * Looks a chunk up once per cursor so the skipped count stays per distinct chunk.
+         * @return the loaded chunk, or null when it is not loaded
+         */
+        private WorldChunk chunkAt(int cx, int cz) {
+            long key = chunkKey(cx, cz);
+            Object ref = chunkRefs.get(key);
+            if (ref == null) {
+                WorldChunk chunk = loadedChunk(world, cx, cz);
+                ref = chunk != null ? chunk : NOT_LOADED;
+                chunkRefs.put(key, ref);
+                if (chunk == null && loadedOnly) {
+                    skippedChunks++;
+                }
+            }
+            return ref == NOT_LOADED ? null : (WorldChunk) ref;
+        }
+    }
+
+    private static final class ChunkEntry {
+        final BitSet scannedCells = new BitSet();
+        final LongList positions = new LongList(8);
+        byte[] kinds = new byte[8];
+        long indexedAt = System.nanoTime();
+
+        boolean isExpired() {
+            return System.nanoTime() - indexedAt > REINDEX_NANOS;
+        }
+
+        /**
+         * Forgets everything about the chunk so its cells are probed again.
+         */
+        void reset() {
+            scannedCells.clear();
+            positions.clear();
+            indexedAt = System.nanoTime();
+        }
+
+        void add(long pos, int kind) {
+            int i = positions.size();
+            positions.add(pos);
+            if (i == kinds.length) {
+                kinds = Arrays.copyOf(kinds, i * 2);
+            }
+            kinds[i] = (byte) kind;
+        }
+
+        void remove(int i) {
+            int last = positions.size() - 1;
+            kinds[i] = kinds[last];
+            positions.removeSwap(i);
+        }
+    }
+}
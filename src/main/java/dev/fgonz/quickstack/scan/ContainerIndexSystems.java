@@ -0,0 +1,68 @@
+package dev.fgonz.quickstack.scan;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * ECS event systems that keep the ContainerIndex current when blocks are placed or broken.
+ * Both only mark the affected cell dirty; the next query probes it again once the change has landed.
+ */
+public final class ContainerIndexSystems {
+
+    private ContainerIndexSystems() {}
+
+    public static class OnBreak extends EntityEventSystem<EntityStore, BreakBlockEvent> {
+
+        public OnBreak() {
+            super(BreakBlockEvent.class);
+        }
+
+        @Override
+        public void handle(int index, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                           @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull BreakBlockEvent event) {
+            markDirty(store, event.getTargetBlock());
+        }
+
+        @Override
+        public Query<EntityStore> getQuery() {
+            return PlayerRef.getComponentType();
+        }
+    }
+
+    public static class OnPlace extends EntityEventSystem<EntityStore, PlaceBlockEvent> {
+
+        public OnPlace() {
+            super(PlaceBlockEvent.class);
+        }
+
+        @Override
+        public void handle(int index, @Nonnull ArchetypeChunk<EntityStore> chunk, @Nonnull Store<EntityStore> store,
+                           @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull PlaceBlockEvent event) {
+            markDirty(store, event.getTargetBlock());
+        }
+
+        @Override
+        public Query<EntityStore> getQuery() {
+            return PlayerRef.getComponentType();
+        }
+    }
+
+    private static void markDirty(Store<EntityStore> store, Vector3i pos) {
+        if (pos == null) return;
+        try {
+            World world = store.getExternalData().getWorld();
+            ContainerIndex.markDirty(world, pos.x, pos.y, pos.z);
+        } catch (Throwable ignored) {}
+    }
+}
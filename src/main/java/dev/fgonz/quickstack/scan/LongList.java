@@ -0,0 +1,54 @@
+package dev.fgonz.quickstack.scan;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive longs. Avoids boxing when collecting packed positions.
+ */
+public final class LongList {
+
+    private long[] values;
+    private int size;
+
+    public LongList() {
+        this(16);
+    }
+
+    public LongList(int initialCapacity) {
+        this.values = new long[Math.max(1, initialCapacity)];
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public long get(int index) {
+        return values[index];
+    }
+
+    public void set(int index, long value) {
+        values[index] = value;
+    }
+
+    /**
+     * Removes the element at index by moving the last element into its place (order is not kept).
+     */
+    public void removeSwap(int index) {
+        values[index] = values[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
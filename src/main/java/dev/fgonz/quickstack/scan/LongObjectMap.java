@@ -0,0 +1,117 @@
+package dev.fgonz.quickstack.scan;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to values. Avoids boxing Long keys
+ * on hot lookup paths. Null values are not supported; entries are only removed in bulk (removeIf,
+ * clear).
+ */
+public final class LongObjectMap<V> {
+
+    public interface EntryPredicate<V> {
+        boolean test(long key, V value);
+    }
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public void put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("null value");
+
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Removes every entry the predicate matches, rebuilding the table once.
+     * @return number of entries removed
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(EntryPredicate<? super V> predicate) {
+        int removed = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null && predicate.test(keys[i], (V) values[i])) {
+                values[i] = null;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            // Open addressing: survivors may now sit behind a gap, so re-insert them all
+            rehash(keys.length);
+        }
+        return removed;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int j = slot(oldKeys[i]);
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+                size++;
+            }
+        }
+    }
+}
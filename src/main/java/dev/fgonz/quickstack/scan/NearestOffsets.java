@@ -0,0 +1,113 @@
+package dev.fgonz.quickstack.scan;
+
+/**
+ * Precomputed block offsets of a (2r+1)^3 cube, ordered nearest-first by squared distance.
+ * 
+ * A rank is an offset's position in that order, so ordering hits by rank orders them by
+ * distance without a comparator sort. Tables are built lazily once per radius (1..MAX_RADIUS).
+ */
+public final class NearestOffsets {
+
+    public static final int MAX_RADIUS = 15;
+
+    private static final NearestOffsets[] TABLES = new NearestOffsets[MAX_RADIUS + 1];
+
+    private final int radius;
+    private final int side;
+    /** Offsets in nearest-first order, packed as (dx+r, dy+r, dz+r) cube indices. */
+    private final int[] order;
+    /** Inverse of order: cube index -> rank. */
+    private final int[] rankByIndex;
+    /** prefixWithin[d] = number of offsets with squared distance <= d*d. */
+    private final int[] prefixWithin;
+
+    /** Builds an uncached table; use forRadius(). Package-private for the jmh benchmarks. */
+    NearestOffsets(int radius) {
+        this.radius = radius;
+        this.side = radius * 2 + 1;
+        int volume = side * side * side;
+
+        // Counting sort on squared distance: distances are small integers (max 3r^2)
+        int maxDist = 3 * radius * radius;
+        int[] counts = new int[maxDist + 2];
+        for (int i = 0; i < volume; i++) {
+            counts[distSq(i) + 1]++;
+        }
+        for (int d = 1; d < counts.length; d++) {
+            counts[d] += counts[d - 1];
+        }
+
+        this.order = new int[volume];
+        this.rankByIndex = new int[volume];
+        for (int i = 0; i < volume; i++) {
+            int rank = counts[distSq(i)]++;
+            order[rank] = i;
+            rankByIndex[i] = rank;
+        }
+
+        this.prefixWithin = new int[radius + 1];
+        for (int d = 0; d <= radius; d++) {
+            prefixWithin[d] = counts[d * d];
+        }
+    }
+
+    public static NearestOffsets forRadius(int radius) {
+        int r = Math.max(1, Math.min(MAX_RADIUS, radius));
+        NearestOffsets table = TABLES[r];
+        if (table == null) {
+            synchronized (TABLES) {
+                table = TABLES[r];
+                if (table == null) {
+                    table = new NearestOffsets(r);
+                    TABLES[r] = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * @return rank of the offset, or -1 when it lies outside the cube
+     */
+    public int rankOf(int dx, int dy, int dz) {
+        if (dx < -radius || dx > radius || dy < -radius || dy > radius || dz < -radius || dz > radius) {
+            return -1;
+        }
+        return rankByIndex[((dx + radius) * side + (dy + radius)) * side + (dz + radius)];
+    }
+
+    public int dx(int rank) {
+        return order[rank] / (side * side) - radius;
+    }
+
+    public int dy(int rank) {
+        return (order[rank] / side) % side - radius;
+    }
+
+    public int dz(int rank) {
+        return order[rank] % side - radius;
+    }
+
+    /**
+     * @return number of leading ranks whose distance is at most d (clamped to the radius)
+     */
+    public int prefixWithin(int d) {
+        if (d >= radius) return prefixWithin[radius];
+        return d < 0 ? 0 : prefixWithin[d];
+    }
+
+    private int distSq(int index) {
+        int dx = index / (side * side) - radius;
+        int dy = (index / side) % side - radius;
+        int dz = index % side - radius;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
@@ -0,0 +1,170 @@
+package dev.fgonz.quickstack.scan;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.BitSet;
+
+/**
+ * Nearest-first walk over indexed blocks around a center.
+ * 
+ * The cube is covered in growing shells. After each shell is indexed, every hit within that
+ * shell's distance is handed out in rank order (see NearestOffsets), so callers see the
+ * closest blocks first and can stop early without paying for the outer shells.
+ * 
+ * States resolved while probing are handed back through state(), so blocks found by this scan
+ * are looked up once. They only live until the next advance() call: a job steps once per call,
+ * possibly ticks apart, and a block can be removed in between without the index noticing (e.g. by
+ * an explosion or a chunk unload), so a state from an earlier step must be looked up again.
+ */
+public class NearestScan implements ContainerIndex.ProbeListener {
+
+    /** Still indexing the current shell; call advance() again. */
+    public static final int PENDING = 0;
+    /** A position is available through position(). */
+    public static final int FOUND = 1;
+    /** Every block in the cube has been handed out. */
+    public static final int DONE = 2;
+
+    private static final int SHELL_STEP = 4;
+
+    private final World world;
+    private final ContainerIndex index;
+    private final NearestOffsets offsets;
+    private final int centerX;
+    private final int centerY;
+    private final int centerZ;
+    private final int kindMask;
+    private final ScanMode mode;
+    private final BitSet pendingRanks = new BitSet();
+    private final LongList hits = new LongList();
+    private final LongObjectMap<Object> resolvedStates = new LongObjectMap<>();
+    private int resolvedModCount;
+
+    private ContainerIndex.Cursor cursor;
+    private int shellRadius;
+    private int rankLimit;
+    private int nextRank;
+    private boolean shellCollected;
+    private long position;
+    private int probed;
+    private int skippedChunks;
+
+    public NearestScan(World world, ContainerIndex index, int centerX, int centerY, int centerZ, int radius, int kindMask,
+                       ScanMode mode) {
+        this.world = world;
+        this.index = index;
+        this.offsets = NearestOffsets.forRadius(radius);
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.kindMask = kindMask;
+        this.mode = mode;
+        startShell(Math.min(SHELL_STEP, offsets.getRadius()));
+    }
+
+    /**
+     * Either probes up to maxProbes blocks of the current shell or hands out the next hit.
+     * @return PENDING, FOUND or DONE
+     */
+    public int advance(int maxProbes) {
+        resolvedStates.clear();
+        while (true) {
+            if (!shellCollected) {
+                int before = cursor.getProbed();
+                boolean covered = cursor.advance(maxProbes);
+                probed += cursor.getProbed() - before;
+                skippedChunks = Math.max(skippedChunks, cursor.getSkippedChunks());
+                if (!covered) return PENDING;
+                collectShell();
+            }
+
+            int rank = pendingRanks.nextSetBit(nextRank);
+            if (rank >= 0 && rank < rankLimit) {
+                nextRank = rank + 1;
+                position = BlockPos.pack(
+                    centerX + offsets.dx(rank),
+                    centerY + offsets.dy(rank),
+                    centerZ + offsets.dz(rank));
+                return FOUND;
+            }
+
+            nextRank = rankLimit;
+            if (shellRadius >= offsets.getRadius()) return DONE;
+            startShell(Math.min(shellRadius + SHELL_STEP, offsets.getRadius()));
+        }
+    }
+
+    /**
+     * @return packed position of the last FOUND result
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return state resolved for the last FOUND position by the same advance() call, or null when
+     *         the caller must look it up (it was probed earlier, or the index has changed since)
+     */
+    public Object state() {
+        if (resolvedStates.size() == 0) return null;
+        if (index.getModCount() != resolvedModCount) {
+            resolvedStates.clear();
+            return null;
+        }
+        return resolvedStates.get(position);
+    }
+
+    @Override
+    public void onHit(long packedPos, int kind, Object state) {
+        if ((kind & kindMask) == 0) return;
+
+        if (index.getModCount() != resolvedModCount) {
+            resolvedStates.clear();
+            resolvedModCount = index.getModCount();
+        }
+        resolvedStates.put(packedPos, state);
+    }
+
+    /**
+     * @return number of blocks probed so far to fill missing index cells
+     */
+    public int getProbed() {
+        return probed;
+    }
+
+    /**
+     * @return number of distinct unloaded chunks skipped in LOADED_ONLY mode
+     */
+    public int getSkippedChunks() {
+        return skippedChunks;
+    }
+
+    /**
+     * @return true if the position may be looked up with world.getState() without loading a chunk
+     */
+    public boolean canLookUp(long packedPos) {
+        return mode != ScanMode.LOADED_ONLY || ContainerIndex.isLoaded(world, packedPos);
+    }
+
+    private void startShell(int radius) {
+        shellRadius = radius;
+        cursor = index.cursor(world, centerX, centerY, centerZ, radius, mode);
+        cursor.setListener(this);
+        shellCollected = false;
+    }
+
+    private void collectShell() {
+        hits.clear();
+        cursor.collect(kindMask, hits);
+        for (int i = 0; i < hits.size(); i++) {
+            long pos = hits.get(i);
+            int rank = offsets.rankOf(BlockPos.x(pos) - centerX, BlockPos.y(pos) - centerY, BlockPos.z(pos) - centerZ);
+            if (rank >= nextRank) {
+                pendingRanks.set(rank);
+            }
+        }
+        // The last shell hands out the whole cube, corners included
+        rankLimit = shellRadius >= offsets.getRadius() ? offsets.size() : offsets.prefixWithin(shellRadius);
+        shellCollected = true;
+    }
+}
@@ -0,0 +1,13 @@
+package dev.fgonz.quickstack.scan;
+
+/**
+ * Controls whether a scan may touch chunks that are not loaded.
+ */
+public enum ScanMode {
+
+    /** Skip unloaded chunks entirely and count them. Never triggers chunk I/O. */
+    LOADED_ONLY,
+
+    /** Probe every block in range, loading or generating chunks as world.getState() does. */
+    LOAD_CHUNKS
+}
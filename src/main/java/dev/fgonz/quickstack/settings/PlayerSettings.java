@@ -0,0 +1,70 @@
+package dev.fgonz.quickstack.settings;
+
+import dev.fgonz.quickstack.QuickStackConfig;
+
+/**
+ * The settings one quick-stack or fill runs with: the player's own choices where they made one,
+ * the server config otherwise, with the radius capped at MaxSearchRadius.
+ *
+ * Immutable, so a job can keep reading it while the player changes settings or the config reloads.
+ */
+public final class PlayerSettings {
+
+    private final int searchRadius;
+    private final boolean checkStorage;
+    private final boolean checkBackpack;
+    private final boolean checkHotbar;
+
+    private PlayerSettings(int searchRadius, boolean checkStorage, boolean checkBackpack, boolean checkHotbar) {
+        this.searchRadius = searchRadius;
+        this.checkStorage = checkStorage;
+        this.checkBackpack = checkBackpack;
+        this.checkHotbar = checkHotbar;
+    }
+
+    /**
+     * @return the server defaults, for players who changed nothing
+     */
+    public static PlayerSettings defaults(QuickStackConfig config) {
+        return resolve(config, null);
+    }
+
+    /**
+     * @param stored the player's settings component, or null if they have none
+     */
+    public static PlayerSettings resolve(QuickStackConfig config, QuickStackSettings stored) {
+        int radius = stored != null && stored.getSearchRadius() > 0 ? stored.getSearchRadius() : config.getSearchRadius();
+        return new PlayerSettings(
+            clampRadius(config, radius),
+            section(config.isCheckStorage(), stored, QuickStackSettings.STORAGE),
+            section(config.isCheckBackpack(), stored, QuickStackSettings.BACKPACK),
+            section(config.isCheckHotbar(), stored, QuickStackSettings.HOTBAR));
+    }
+
+    /**
+     * @return radius limited to 1..MaxSearchRadius
+     */
+    public static int clampRadius(QuickStackConfig config, int radius) {
+        return Math.max(1, Math.min(radius, Math.max(1, config.getMaxSearchRadius())));
+    }
+
+    private static boolean section(boolean serverDefault, QuickStackSettings stored, int section) {
+        return stored != null && stored.hasSection(section) ? stored.isSectionEnabled(section) : serverDefault;
+    }
+
+    public int getSearchRadius() {
+        return searchRadius;
+    }
+
+    public boolean isCheckStorage() {
+        return checkStorage;
+    }
+
+    public boolean isCheckBackpack() {
+        return checkBackpack;
+    }
+
+    public boolean isCheckHotbar() {
+        return checkHotbar;
+    }
+}
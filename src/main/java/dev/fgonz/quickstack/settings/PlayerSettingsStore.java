@@ -0,0 +1,122 @@
+package dev.fgonz.quickstack.settings;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import dev.fgonz.quickstack.LiveConfig;
+import dev.fgonz.quickstack.QuickStackConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Resolved PlayerSettings per player, read from their QuickStackSettings component on first use
+ * and cached until they change something.
+ *
+ * get() and update() touch the entity store on a cache miss or change, so call them on the
+ * player's world thread; load() hops there itself. The cache keeps the MAX_CACHED most recently
+ * used players, so one more player only pushes out the one idle longest, and is dropped whenever
+ * a new server config is published.
+ */
+public final class PlayerSettingsStore {
+
+    private static final int MAX_CACHED = 4096;
+
+    private final LiveConfig config;
+    private final ComponentType<EntityStore, QuickStackSettings> componentType;
+    /** Access-ordered; guarded by its own monitor, since get() reorders it. */
+    private final Map<UUID, PlayerSettings> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, PlayerSettings> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    public PlayerSettingsStore(LiveConfig config, ComponentType<EntityStore, QuickStackSettings> componentType) {
+        this.config = config;
+        this.componentType = componentType;
+        config.addListener(next -> invalidateAll());
+    }
+
+    /**
+     * Settings for a command, which runs off the world thread. Cache hits complete immediately;
+     * misses read the component on the player's world thread.
+     */
+    public CompletableFuture<PlayerSettings> load(Player player) {
+        PlayerSettings cached = cached(player.getUuid());
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        Ref<EntityStore> ref = player.getReference();
+        if (ref == null || !ref.isValid()) {
+            return CompletableFuture.completedFuture(PlayerSettings.defaults(config.get()));
+        }
+        Store<EntityStore> store = ref.getStore();
+        World world = store.getExternalData().getWorld();
+        return CompletableFuture.supplyAsync(() -> get(ref, store, player.getUuid()), world);
+    }
+
+    public PlayerSettings get(Ref<EntityStore> ref, Store<EntityStore> store, UUID player) {
+        PlayerSettings cached = cached(player);
+        if (cached != null) {
+            return cached;
+        }
+
+        PlayerSettings resolved = PlayerSettings.resolve(config.get(), store.getComponent(ref, componentType));
+        cache(player, resolved);
+        return resolved;
+    }
+
+    /**
+     * Applies a change to the player's settings component, adding it if they have none yet.
+     * @return the settings after the change
+     */
+    public PlayerSettings update(Ref<EntityStore> ref, Store<EntityStore> store, UUID player,
+                                 Consumer<QuickStackSettings> change) {
+        QuickStackSettings stored = store.getComponent(ref, componentType);
+        if (stored == null) {
+            stored = new QuickStackSettings();
+            change.accept(stored);
+            store.addComponent(ref, componentType, stored);
+        } else {
+            change.accept(stored);
+        }
+
+        PlayerSettings resolved = PlayerSettings.resolve(config.get(), stored);
+        cache(player, resolved);
+        return resolved;
+    }
+
+    /**
+     * Drops every cached entry, e.g. after the server defaults or cap changed.
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private PlayerSettings cached(UUID player) {
+        synchronized (cache) {
+            return cache.get(player);
+        }
+    }
+
+    private void cache(UUID player, PlayerSettings settings) {
+        synchronized (cache) {
+            cache.put(player, settings);
+        }
+    }
+
+    public QuickStackConfig getConfig() {
+        return config.get();
+    }
+}
@@ -0,0 +1,77 @@
+package dev.fgonz.quickstack.settings;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * A player's own Quick Stack settings, saved with the player.
+ *
+ * Only what the player changed is stored; everything else falls back to the server config (see
+ * PlayerSettings.resolve). Sections are packed into one int: the low bits hold whether a section is
+ * enabled, the bits above them whether the player chose at all. Mutated on the world thread only.
+ */
+public class QuickStackSettings implements Component<EntityStore> {
+
+    public static final int STORAGE = 0;
+    public static final int BACKPACK = 1;
+    public static final int HOTBAR = 2;
+
+    private static final int SECTION_COUNT = 3;
+
+    public static final BuilderCodec<QuickStackSettings> CODEC = BuilderCodec.builder(QuickStackSettings.class, QuickStackSettings::new)
+        .append(new KeyedCodec<>("SearchRadius", Codec.INTEGER), QuickStackSettings::setSearchRadius, QuickStackSettings::getSearchRadius).add()
+        .append(new KeyedCodec<>("Sections", Codec.INTEGER), QuickStackSettings::setSections, QuickStackSettings::getSections).add()
+        .build();
+
+    /** 0 means the server default. */
+    private int searchRadius;
+    private int sections;
+
+    public QuickStackSettings() {
+    }
+
+    private QuickStackSettings(int searchRadius, int sections) {
+        this.searchRadius = searchRadius;
+        this.sections = sections;
+    }
+
+    public int getSearchRadius() {
+        return searchRadius;
+    }
+
+    public void setSearchRadius(int searchRadius) {
+        this.searchRadius = Math.max(0, searchRadius);
+    }
+
+    /**
+     * @return true if the player turned the section on or off themselves
+     */
+    public boolean hasSection(int section) {
+        return (sections & (1 << (section + SECTION_COUNT))) != 0;
+    }
+
+    public boolean isSectionEnabled(int section) {
+        return (sections & (1 << section)) != 0;
+    }
+
+    public void setSectionEnabled(int section, boolean enabled) {
+        int bit = 1 << section;
+        sections = (enabled ? sections | bit : sections & ~bit) | (1 << (section + SECTION_COUNT));
+    }
+
+    private int getSections() {
+        return sections;
+    }
+
+    private void setSections(int sections) {
+        this.sections = sections;
+    }
+
+    @Override
+    public QuickStackSettings clone() {
+        return new QuickStackSettings(searchRadius, sections);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.fgonz.quickstack.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets.
+ *
+ * Bucket i counts samples below 2^i microseconds (bucket 0 is everything under 1us), so
+ * percentiles are reported as the upper bound of their bucket, within a factor of two.
+ */
+public final class LatencyHistogram {
+
+    /** Number of buckets; the last one also takes everything above its bound. */
+    public static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) return;
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * @return samples in bucket i, i.e. below bucketBoundMicros(i) and at or above the previous bound
+     */
+    public long getBucketCount(int i) {
+        return buckets.get(i);
+    }
+
+    public static long bucketBoundMicros(int i) {
+        return 1L << i;
+    }
+
+    public long getMeanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.get() / n);
+    }
+
+    public long getMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+    }
+
+    /**
+     * @param fraction e.g. 0.99 for the 99th percentile
+     * @return upper bound in microseconds of the bucket holding that percentile, 0 with no samples
+     */
+    public long getPercentileMicros(double fraction) {
+        long n = count.get();
+        if (n == 0) return 0;
+
+        long rank = (long) Math.ceil(n * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                // The last bucket has no upper bound; the largest sample is the best estimate
+                return i == BUCKETS - 1 ? getMaxMicros() : Math.min(1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+}
@@ -0,0 +1,138 @@
+package dev.fgonz.quickstack.stats;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and per-phase latency for one kind of request (quick stack or bench fill).
+ *
+ * A job times itself into a Sample, which is plain fields and only touched by the job, and hands
+ * it over once with record(). The shared counters are LongAdders, so concurrent jobs don't contend.
+ */
+public final class OperationStats {
+
+    /**
+     * Where a request spends its time.
+     * SCAN: nearest-first probing and block state lookups.
+     * INDEX: reading and indexing the player's inventory.
+     * PLAN: planning the even distribution, snapshot and worker time (even fill only).
+     * TRANSFER: moving items.
+     * ACTIVATE: starting benches.
+     * MESSAGE: building and sending the reply.
+     * TOTAL: submit to completion, including time spent queued.
+     */
+    public enum Phase { SCAN, INDEX, PLAN, TRANSFER, ACTIVATE, MESSAGE, TOTAL }
+
+    private final String name;
+    private final Map<Phase, LatencyHistogram> latency = new EnumMap<>(Phase.class);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blocksProbed = new LongAdder();
+    private final LongAdder containersHit = new LongAdder();
+    private final LongAdder itemsMoved = new LongAdder();
+
+    public OperationStats(String name) {
+        this.name = name;
+        for (Phase phase : Phase.values()) {
+            latency.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Phase times of a single request. Not thread-safe; owned by one job.
+     */
+    public static final class Sample {
+        private final long startNanos = System.nanoTime();
+        private final long[] phaseNanos = new long[Phase.values().length];
+
+        /**
+         * Adds the time since startNanos (a System.nanoTime() reading) to the phase.
+         */
+        public void add(Phase phase, long startNanos) {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+
+        /**
+         * Adds a duration measured elsewhere, e.g. on a worker thread.
+         */
+        public void addNanos(Phase phase, long nanos) {
+            phaseNanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Records a finished request. Phases the request never entered are left out of their histograms.
+     */
+    public void record(Sample sample, int probed, int containers, int moved) {
+        long total = System.nanoTime() - sample.startNanos;
+        for (Phase phase : Phase.values()) {
+            long nanos = phase == Phase.TOTAL ? total : sample.phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                latency.get(phase).record(nanos);
+            }
+        }
+        calls.increment();
+        blocksProbed.add(probed);
+        containersHit.add(containers);
+        itemsMoved.add(moved);
+    }
+
+    /**
+     * Records a single phase outside a job, e.g. MESSAGE from the command that sent the reply.
+     */
+    public void record(Phase phase, long startNanos) {
+        latency.get(phase).record(System.nanoTime() - startNanos);
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public String getName() { return name; }
+    public LatencyHistogram getLatency(Phase phase) { return latency.get(phase); }
+    public long getCalls() { return calls.sum(); }
+    public long getFailures() { return failures.sum(); }
+    public long getBlocksProbed() { return blocksProbed.sum(); }
+    public long getContainersHit() { return containersHit.sum(); }
+    public long getItemsMoved() { return itemsMoved.sum(); }
+
+    /**
+     * One line: call count, per-call averages and total latency percentiles.
+     */
+    public String summary() {
+        long n = getCalls();
+        LatencyHistogram total = getLatency(Phase.TOTAL);
+        StringBuilder sb = new StringBuilder(name).append(": ").append(n).append(" calls");
+        if (getFailures() > 0) {
+            sb.append(", ").append(getFailures()).append(" failed");
+        }
+        if (n > 0) {
+            sb.append(", avg ").append(getBlocksProbed() / n).append(" blocks probed, ")
+                .append(getContainersHit() / n).append(" containers, ")
+                .append(getItemsMoved() / n).append(" items");
+            sb.append(", total p50 ").append(formatMicros(total.getPercentileMicros(0.5)))
+                .append(" p99 ").append(formatMicros(total.getPercentileMicros(0.99)))
+                .append(" max ").append(formatMicros(total.getMaxMicros()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * One line per phase with samples: count, mean, p50, p99 and max.
+     */
+    public String phaseSummary(Phase phase) {
+        LatencyHistogram h = getLatency(phase);
+        return name + " " + phase.name().toLowerCase() + ": n=" + h.getCount()
+            + " mean " + formatMicros(h.getMeanMicros())
+            + " p50 " + formatMicros(h.getPercentileMicros(0.5))
+            + " p99 " + formatMicros(h.getPercentileMicros(0.99))
+            + " max " + formatMicros(h.getMaxMicros());
+    }
+
+    static String formatMicros(long micros) {
+        if (micros < 1000) return micros + "us";
+        if (micros < 1_000_000) return String.format("%.1fms", micros / 1000.0);
+        return String.format("%.2fs", micros / 1_000_000.0);
+    }
+}
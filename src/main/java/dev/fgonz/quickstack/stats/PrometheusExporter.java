@@ -0,0 +1,206 @@
+package dev.fgonz.quickstack.stats;
+
+import com.sun.net.httpserver.HttpServer;
+
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes QuickStackStats in the Prometheus text exposition format.
+ *
+ * Two ways out, picked by the MetricsExport config entry:
+ *   "file" - rewrites MetricsFile every MetricsIntervalSeconds, for node_exporter's textfile
+ *            collector. Written to a temp file and moved into place so a scrape never sees half a file.
+ *   "http" - serves /metrics on 127.0.0.1:MetricsPort. Bound to loopback only; put a proxy in front
+ *            to scrape it from elsewhere.
+ */
+public class PrometheusExporter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final QuickStackStats stats;
+    private ScheduledExecutorService writer;
+    private HttpServer server;
+
+    public PrometheusExporter(QuickStackStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Starts periodic writes of the textfile. Failures are logged and retried on the next interval.
+     */
+    public synchronized void startFile(Path file, int intervalSeconds) {
+        if (writer != null) return;
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "QuickStack-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleAtFixedRate(() -> {
+            try {
+                writeFile(file);
+            } catch (Throwable t) {
+                System.err.println("[QuickStack] Failed to write metrics to " + file + ": " + t.getMessage());
+            }
+        }, 0, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+        System.out.println("[QuickStack] Writing metrics to " + file.toAbsolutePath());
+    }
+
+    /**
+     * Serves /metrics on the loopback interface.
+     */
+    public synchronized void startHttp(int port) throws IOException {
+        if (server != null) return;
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            try {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "QuickStack-Metrics-Http");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        System.out.println("[QuickStack] Serving metrics on http://" + server.getAddress().getHostString() + ":" + port + "/metrics");
+    }
+
+    public synchronized void shutdown() {
+        if (writer != null) {
+            writer.shutdownNow();
+            writer = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    void writeFile(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, render(), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return every metric in exposition format
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+
+        OperationStats[] ops = { stats.stack(), stats.fill() };
+
+        header(out, "quickstack_requests_total", "counter", "Completed quick stack and fill requests.");
+        for (OperationStats op : ops) sample(out, "quickstack_requests_total", "op", op.getName(), op.getCalls());
+        header(out, "quickstack_request_failures_total", "counter", "Requests that failed with an error.");
+        for (OperationStats op : ops) sample(out, "quickstack_request_failures_total", "op", op.getName(), op.getFailures());
+        header(out, "quickstack_blocks_probed_total", "counter", "Blocks probed by nearest-first scans.");
+        for (OperationStats op : ops) sample(out, "quickstack_blocks_probed_total", "op", op.getName(), op.getBlocksProbed());
+        header(out, "quickstack_containers_hit_total", "counter", "Containers (stack) or benches (fill) visited.");
+        for (OperationStats op : ops) sample(out, "quickstack_containers_hit_total", "op", op.getName(), op.getContainersHit());
+        header(out, "quickstack_items_moved_total", "counter", "Items moved out of player inventories.");
+        for (OperationStats op : ops) sample(out, "quickstack_items_moved_total", "op", op.getName(), op.getItemsMoved());
+
+        header(out, "quickstack_handler_items_moved_total", "counter", "Items moved into benches, per bench handler.");
+        for (Map.Entry<String, Long> e : stats.getItemsByHandler().entrySet()) {
+            sample(out, "quickstack_handler_items_moved_total", "handler", e.getKey(), e.getValue());
+        }
+
+        header(out, "quickstack_phase_duration_seconds", "histogram", "Time per request phase; total includes queueing.");
+        for (OperationStats op : ops) {
+            for (OperationStats.Phase phase : OperationStats.Phase.values()) {
+                histogram(out, "quickstack_phase_duration_seconds",
+                    "op=\"" + op.getName() + "\",phase=\"" + phase.name().toLowerCase() + "\"", op.getLatency(phase));
+            }
+        }
+
+        RequestGate gate = stats.getGate();
+        header(out, "quickstack_gate_requests_total", "counter", "Per-player admission outcomes.");
+        sample(out, "quickstack_gate_requests_total", "outcome", "accepted", gate.getAccepted());
+        sample(out, "quickstack_gate_requests_total", "outcome", "coalesced", gate.getCoalesced());
+        sample(out, "quickstack_gate_requests_total", "outcome", "rate_limited", gate.getRejected());
+
+        JobScheduler scheduler = stats.getScheduler();
+        header(out, "quickstack_busy_rejections_total", "counter", "Requests refused because a world's job queue was full.");
+        out.append("quickstack_busy_rejections_total ").append(scheduler.getBusyRejections()).append('\n');
+        header(out, "quickstack_jobs_active", "gauge", "Jobs in flight across all worlds.");
+        out.append("quickstack_jobs_active ").append(scheduler.getActiveJobs()).append('\n');
+        header(out, "quickstack_jobs_queued", "gauge", "Jobs waiting for a slot across all worlds.");
+        out.append("quickstack_jobs_queued ").append(scheduler.getQueuedJobs()).append('\n');
+        header(out, "quickstack_queue_wait_seconds", "summary", "Time from submit to first step.");
+        out.append("quickstack_queue_wait_seconds_sum ").append(seconds(scheduler.getTotalQueueWaitMicros())).append('\n');
+        out.append("quickstack_queue_wait_seconds_count ").append(scheduler.getQueueWaitCount()).append('\n');
+        header(out, "quickstack_pump_lag_seconds", "gauge", "Highest smoothed world pump lag.");
+        out.append("quickstack_pump_lag_seconds ").append(seconds(scheduler.getMaxPumpLagMicros())).append('\n');
+
+        header(out, "quickstack_config_save_duration_seconds", "histogram", "Time to write the config to disk.");
+        histogram(out, "quickstack_config_save_duration_seconds", null, stats.getConfigSaves());
+
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String value, long count) {
+        out.append(name).append('{').append(label).append("=\"").append(escape(value)).append("\"} ")
+            .append(count).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram h) {
+        String prefix = labels == null ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+            cumulative += h.getBucketCount(i);
+            out.append(name).append("_bucket{").append(prefix).append("le=\"")
+                .append(seconds(LatencyHistogram.bucketBoundMicros(i))).append("\"} ").append(cumulative).append('\n');
+        }
+        // Count from the buckets so +Inf and _count always match the buckets above
+        cumulative += h.getBucketCount(LatencyHistogram.BUCKETS - 1);
+        String suffix = labels == null ? "" : "{" + labels + "}";
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum").append(suffix).append(' ').append(h.getTotalNanos() / 1e9).append('\n');
+        out.append(name).append("_count").append(suffix).append(' ').append(cumulative).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1e6);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,147 @@
+package dev.fgonz.quickstack.stats;
+
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation for /qs: per-phase stats for quick stack and fill, plus the admission
+ * counters of the RequestGate and JobScheduler. Shown by /qs stats and, when enabled, logged
+ * as one summary line per interval.
+ */
+public class QuickStackStats {
+
+    private final OperationStats stack = new OperationStats("stack");
+    private final OperationStats fill = new OperationStats("fill");
+    private final Map<String, LongAdder> itemsByHandler = new ConcurrentHashMap<>();
+    private final LatencyHistogram configSaves = new LatencyHistogram();
+    private final JobScheduler scheduler;
+    private final RequestGate gate;
+    private ScheduledExecutorService logger;
+    private long lastLoggedCalls;
+
+    public QuickStackStats(JobScheduler scheduler, RequestGate gate) {
+        this.scheduler = scheduler;
+        this.gate = gate;
+    }
+
+    public OperationStats stack() {
+        return stack;
+    }
+
+    public OperationStats fill() {
+        return fill;
+    }
+
+    public JobScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public RequestGate getGate() {
+        return gate;
+    }
+
+    /**
+     * Adds items a fill moved into benches of one handler (keyed by bench id).
+     */
+    public void recordHandlerItems(String benchId, int moved) {
+        if (moved > 0) {
+            itemsByHandler.computeIfAbsent(benchId, k -> new LongAdder()).add(moved);
+        }
+    }
+
+    /**
+     * @return items moved per handler bench id since startup
+     */
+    public Map<String, Long> getItemsByHandler() {
+        Map<String, Long> copy = new TreeMap<>();
+        itemsByHandler.forEach((k, v) -> copy.put(k, v.sum()));
+        return copy;
+    }
+
+    /**
+     * Records how long a config save took, from a System.nanoTime() reading taken before it started.
+     */
+    public void recordConfigSave(long startNanos) {
+        configSaves.record(System.nanoTime() - startNanos);
+    }
+
+    public LatencyHistogram getConfigSaves() {
+        return configSaves;
+    }
+
+    /**
+     * Full report for /qs stats: a summary and phase breakdown per operation, then admission.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (OperationStats op : List.of(stack, fill)) {
+            lines.add(op.summary());
+            for (OperationStats.Phase phase : OperationStats.Phase.values()) {
+                if (op.getLatency(phase).getCount() > 0) {
+                    lines.add("  " + op.phaseSummary(phase));
+                }
+            }
+        }
+        lines.add(admissionSummary());
+        return lines;
+    }
+
+    /**
+     * Single line for the periodic log.
+     */
+    public String logLine() {
+        return "[QuickStack] stats " + stack.summary() + " | " + fill.summary() + " | " + admissionSummary();
+    }
+
+    private String admissionSummary() {
+        return "requests: " + gate.getAccepted() + " accepted, " + gate.getCoalesced() + " coalesced, "
+            + gate.getRejected() + " rate-limited, " + scheduler.getBusyRejections() + " busy"
+            + "; jobs: " + scheduler.getActiveJobs() + " active, " + scheduler.getQueuedJobs() + " queued"
+            + ", queue wait avg " + OperationStats.formatMicros(scheduler.getAverageQueueWaitMicros())
+            + " max " + OperationStats.formatMicros(scheduler.getMaxQueueWaitMicros())
+            + ", pump lag max " + OperationStats.formatMicros(scheduler.getMaxPumpLagMicros());
+    }
+
+    /**
+     * Logs logLine() every intervalSeconds, skipping intervals with no new requests.
+     * Does nothing if intervalSeconds is not positive.
+     */
+    public synchronized void startLogging(int intervalSeconds) {
+        if (intervalSeconds <= 0 || logger != null) return;
+
+        logger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "QuickStack-Stats");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.scheduleAtFixedRate(this::logIfActive, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+        }
+    }
+
+    private void logIfActive() {
+        try {
+            long calls = stack.getCalls() + fill.getCalls() + stack.getFailures() + fill.getFailures();
+            if (calls == lastLoggedCalls) return;
+            lastLoggedCalls = calls;
+            System.out.println(logLine());
+        } catch (Throwable t) {
+            System.err.println("[QuickStack] Failed to log stats: " + t.getMessage());
+        }
+    }
+}
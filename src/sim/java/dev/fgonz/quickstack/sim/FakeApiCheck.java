@@ -0,0 +1,215 @@
+package dev.fgonz.quickstack.sim;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks the in-memory stand-ins (src/fakes/java) against the real HytaleServer.jar.
+ *
+ * The stand-ins reuse the real class names, so the benchmarks and the simulator compile against
+ * them and not the server. Nothing else notices when the server API changes under them; this
+ * does. Every public or protected constructor, method and field a stand-in declares must exist
+ * on the real class with the same parameter and return types, and a stand-in class must exist in
+ * the jar at all. Members the real class has and the stand-in lacks are fine, and so are members
+ * marked @FakeOnly, which only exist to build test worlds.
+ *
+ * Usage: FakeApiCheck <compiled stand-ins dir> <HytaleServer.jar>
+ * Exits with status 1 and lists the differences if any are found.
+ */
+public final class FakeApiCheck {
+
+    /** Packages the stand-ins live in; everything else in the classes dir is ours. */
+    private static final List<String> FAKE_PACKAGES = List.of("com/hypixel/hytale/");
+
+    private static final String FAKE_ONLY = "dev.fgonz.quickstack.fakes.FakeOnly";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: FakeApiCheck <compiled stand-ins dir> <HytaleServer.jar>");
+            System.exit(2);
+            return;
+        }
+        Path classesDir = Paths.get(args[0]);
+        Path serverJar = Paths.get(args[1]);
+
+        List<String> problems = new ArrayList<>();
+        int checked = 0;
+        ClassLoader platform = ClassLoader.getPlatformClassLoader();
+        try (URLClassLoader fakes = new URLClassLoader(new URL[] {classesDir.toUri().toURL()}, platform);
+             URLClassLoader server = new URLClassLoader(new URL[] {serverJar.toUri().toURL()}, platform)) {
+            for (String name : fakeClassNames(classesDir)) {
+                Class<?> fake;
+                try {
+                    fake = Class.forName(name, false, fakes);
+                } catch (Throwable t) {
+                    problems.add(name + ": cannot load stand-in (" + t + ")");
+                    continue;
+                }
+                if (fake.isAnonymousClass() || fake.isSynthetic()) continue;
+
+                Class<?> real;
+                try {
+                    real = Class.forName(name, false, server);
+                } catch (ClassNotFoundException e) {
+                    problems.add(name + ": not in " + serverJar.getFileName());
+                    continue;
+                } catch (Throwable t) {
+                    problems.add(name + ": cannot load from " + serverJar.getFileName() + " (" + t + ")");
+                    continue;
+                }
+                compare(fake, real, problems);
+                checked++;
+            }
+        }
+
+        if (problems.isEmpty()) {
+            System.out.println("[FakeApiCheck] " + checked + " stand-in classes match " + serverJar.getFileName());
+            return;
+        }
+        System.err.println("[FakeApiCheck] Stand-ins differ from " + serverJar.getFileName() + ":");
+        for (String problem : problems) {
+            System.err.println("  " + problem);
+        }
+        System.exit(1);
+    }
+
+    private static List<String> fakeClassNames(Path classesDir) throws IOException {
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            return files
+                .map(p -> classesDir.relativize(p).toString().replace('\\', '/'))
+                .filter(p -> p.endsWith(".class") && FAKE_PACKAGES.stream().anyMatch(p::startsWith))
+                .map(p -> p.substring(0, p.length() - ".class".length()).replace('/', '.'))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static void compare(Class<?> fake, Class<?> real, List<String> problems) {
+        String name = fake.getName();
+        if (fake.isInterface() != real.isInterface() || fake.isEnum() != real.isEnum()) {
+            problems.add(name + ": kind differs (stand-in " + kind(fake) + ", server " + kind(real) + ")");
+        }
+
+        for (Constructor<?> constructor : fake.getDeclaredConstructors()) {
+            if (!isVisible(constructor.getModifiers()) || constructor.isSynthetic() || isFakeOnly(constructor)) continue;
+            if (!hasConstructor(real, constructor)) {
+                problems.add(name + ": no constructor (" + params(constructor) + ")");
+            }
+        }
+        for (Method method : fake.getDeclaredMethods()) {
+            if (!isVisible(method.getModifiers()) || method.isSynthetic() || method.isBridge() || isFakeOnly(method)) continue;
+            if (fake.isEnum() && (method.getName().equals("values") || method.getName().equals("valueOf"))) continue;
+            Method match = findMethod(real, method);
+            if (match == null) {
+                problems.add(name + ": no method " + method.getName() + "(" + params(method) + ")");
+            } else if (!match.getReturnType().getName().equals(method.getReturnType().getName())) {
+                problems.add(name + ": " + method.getName() + "(" + params(method) + ") returns "
+                    + match.getReturnType().getName() + ", stand-in returns " + method.getReturnType().getName());
+            } else if (Modifier.isStatic(match.getModifiers()) != Modifier.isStatic(method.getModifiers())) {
+                problems.add(name + ": " + method.getName() + "(" + params(method) + ") static modifier differs");
+            }
+        }
+        for (Field field : fake.getDeclaredFields()) {
+            if (!isVisible(field.getModifiers()) || field.isSynthetic() || isFakeOnly(field)) continue;
+            Field match = findField(real, field.getName());
+            if (match == null) {
+                problems.add(name + ": no field " + field.getName());
+            } else if (!match.getType().getName().equals(field.getType().getName())) {
+                problems.add(name + ": field " + field.getName() + " is " + match.getType().getName()
+                    + ", stand-in has " + field.getType().getName());
+            }
+        }
+    }
+
+    private static boolean isVisible(int modifiers) {
+        return Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers);
+    }
+
+    private static boolean isFakeOnly(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (annotation.annotationType().getName().equals(FAKE_ONLY)) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasConstructor(Class<?> real, Constructor<?> wanted) {
+        for (Constructor<?> candidate : real.getDeclaredConstructors()) {
+            if (isVisible(candidate.getModifiers()) && params(candidate).equals(params(wanted))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks through the class, its superclasses and its interfaces, since a stand-in may declare
+     * a member the server inherits.
+     */
+    private static Method findMethod(Class<?> type, Method wanted) {
+        String params = params(wanted);
+        for (Class<?> c : hierarchy(type)) {
+            try {
+                for (Method candidate : c.getDeclaredMethods()) {
+                    if (candidate.getName().equals(wanted.getName()) && !candidate.isBridge()
+                            && isVisible(candidate.getModifiers()) && params(candidate).equals(params)) {
+                        return candidate;
+                    }
+                }
+            } catch (Throwable ignored) {}
+        }
+        return null;
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> c : hierarchy(type)) {
+            try {
+                for (Field candidate : c.getDeclaredFields()) {
+                    if (candidate.getName().equals(name) && isVisible(candidate.getModifiers())) {
+                        return candidate;
+                    }
+                }
+            } catch (Throwable ignored) {}
+        }
+        return null;
+    }
+
+    private static List<Class<?>> hierarchy(Class<?> type) {
+        List<Class<?>> out = new ArrayList<>();
+        List<Class<?>> pending = new ArrayList<>(List.of(type));
+        while (!pending.isEmpty()) {
+            Class<?> c = pending.remove(0);
+            if (c == null || out.contains(c)) continue;
+            out.add(c);
+            pending.add(c.getSuperclass());
+            pending.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        return out;
+    }
+
+    /**
+     * Parameter types by name, so classes from the two loaders compare equal.
+     */
+    private static String params(Executable executable) {
+        return Arrays.stream(executable.getParameterTypes()).map(Class::getName).collect(Collectors.joining(","));
+    }
+
+    private static String kind(Class<?> type) {
+        return type.isInterface() ? "interface" : type.isEnum() ? "enum" : "class";
+    }
+}
@@ -0,0 +1,397 @@
+package dev.fgonz.quickstack.sim;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import dev.fgonz.quickstack.BenchFillService;
+import dev.fgonz.quickstack.LiveConfig;
+import dev.fgonz.quickstack.QuickStackConfig;
+import dev.fgonz.quickstack.QuickStackService;
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.stats.QuickStackStats;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Headless load test: thousands of simulated players issuing /qs and /qs fill against generated
+ * bases, with the real QuickStackService, BenchFillService and JobScheduler running on top of the
+ * in-memory world stand-ins (src/fakes/java).
+ *
+ * Each world gets its own thread ticking at 30 TPS. On every tick, each player in the world starts
+ * a request with a probability matching the configured mean interval, then the world runs its
+ * queued tasks (the scheduler's pumps). Only the task run counts as tick time; refilling
+ * inventories and issuing commands are the simulation's own cost.
+ *
+ * Usage: see USAGE, or run with --help.
+ */
+public final class LoadSimulator {
+
+    private static final int TICKS_PER_SECOND = 30;
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
+    private static final int BASE_SPACING = 48;
+
+    static final String USAGE = String.join("\n",
+        "Usage: LoadSimulator [options]",
+        "  --players N         simulated players, spread over the worlds (2000)",
+        "  --worlds N          worlds, each ticked by its own thread (1)",
+        "  --seconds N         measured run length (60)",
+        "  --warmup N          seconds run before measuring (10)",
+        "  --interval S        mean seconds between one player's requests (20)",
+        "  --fill-ratio R      share of requests that are /qs fill (0.25)",
+        "  --radius N          SearchRadius (5)",
+        "  --chests N          chests per player base (12)",
+        "  --furnaces N        furnaces per player base (2)",
+        "  --tick-budget-us N  TickBudgetMicros (2000)",
+        "  --even-fill         turn on EvenFill",
+        "  --seed N            random seed (1)",
+        "  --help              show this text");
+
+    private final Options options;
+    private final QuickStackConfig config;
+    private final JobScheduler scheduler;
+    private final QuickStackStats stats;
+    private final QuickStackService stackService;
+    private final BenchFillService fillService;
+
+    private final LongAdder stacksDone = new LongAdder();
+    private final LongAdder fillsDone = new LongAdder();
+    private final LongAdder itemsMoved = new LongAdder();
+    private final LongAdder busy = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean measuring;
+
+    LoadSimulator(Options options) {
+        this.options = options;
+        this.config = new QuickStackConfig();
+        config.setSearchRadius(options.radius);
+        config.setTickBudgetMicros(options.tickBudgetMicros);
+        config.setEvenFill(options.evenFill);
+        config.setStatsLogIntervalSeconds(0);
+
+        LiveConfig live = new LiveConfig(config);
+        this.scheduler = new JobScheduler(live);
+        RequestGate gate = new RequestGate(live);
+        this.stats = new QuickStackStats(scheduler, gate);
+        this.stackService = new QuickStackService(live, scheduler, gate, stats);
+        this.fillService = new BenchFillService(live, scheduler, gate, stats);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("[Sim] " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.out.println(USAGE);
+            return;
+        }
+        LoadSimulator simulator = new LoadSimulator(options);
+        simulator.run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.println("[Sim] Building " + options.players + " bases in " + options.worlds + " world(s)...");
+        List<WorldRunner> runners = new ArrayList<>();
+        for (int w = 0; w < options.worlds; w++) {
+            int players = options.players / options.worlds + (w < options.players % options.worlds ? 1 : 0);
+            runners.add(new WorldRunner("sim-" + w, players, new SplittableRandom(options.seed + w)));
+        }
+
+        System.out.println("[Sim] Running " + options.warmupSeconds + "s warm-up and " + options.seconds + "s measured");
+        for (WorldRunner runner : runners) {
+            runner.thread.start();
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds));
+        measuring = true;
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        Map<Long, Long> allocatedBefore = allocatedByThread();
+
+        for (WorldRunner runner : runners) {
+            runner.thread.join();
+        }
+        measuring = false;
+        long allocatedOther = allocatedSince(allocatedBefore);
+        long gcCount = gcCount() - gcCountBefore;
+        long gcTime = gcTimeMillis() - gcTimeBefore;
+
+        // Let jobs still in flight finish so shutdown does not fail them
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (scheduler.getActiveJobs() + scheduler.getQueuedJobs() > 0 && System.nanoTime() < deadline) {
+            for (WorldRunner runner : runners) {
+                runner.world.tick();
+            }
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(TICK_NANOS));
+        }
+        scheduler.shutdown();
+
+        report(runners, allocatedOther, gcCount, gcTime);
+    }
+
+    private void report(List<WorldRunner> runners, long allocatedOther, long gcCount, long gcTime) {
+        long[] ticks = runners.stream().flatMapToLong(r -> Arrays.stream(r.tickNanos, 0, r.measuredTicks)).sorted().toArray();
+        long overruns = runners.stream().mapToLong(r -> r.overruns).sum();
+        long worldAllocated = runners.stream().mapToLong(r -> r.allocatedBytes).sum();
+        double seconds = options.seconds;
+        long requests = stacksDone.sum() + fillsDone.sum();
+
+        System.out.println();
+        System.out.println("== QuickStack load simulation ==");
+        System.out.println(options.players + " players in " + options.worlds + " world(s), radius " + options.radius
+            + ", one request per player every ~" + options.intervalSeconds + "s, "
+            + Math.round(options.fillRatio * 100) + "% fills" + (options.evenFill ? " (even)" : ""));
+        System.out.println("tick time: " + ticks.length + " ticks, p50 " + millis(percentile(ticks, 0.5))
+            + " p90 " + millis(percentile(ticks, 0.9)) + " p99 " + millis(percentile(ticks, 0.99))
+            + " p99.9 " + millis(percentile(ticks, 0.999)) + " max " + millis(ticks.length == 0 ? 0 : ticks[ticks.length - 1])
+            + ", " + overruns + " tick(s) over " + millis(TICK_NANOS));
+        System.out.println(String.format("throughput: %.1f stacks/s, %.1f fills/s, %.0f items/s",
+            stacksDone.sum() / seconds, fillsDone.sum() / seconds, itemsMoved.sum() / seconds));
+        System.out.println("rejected: " + busy.sum() + " busy, " + rateLimited.sum() + " rate-limited, "
+            + failed.sum() + " failed");
+        System.out.println(String.format("allocation: world threads %.1f MB/s (%s per request), other threads %.2f MB/s; "
+                + "%d GC(s), %d ms",
+            worldAllocated / seconds / (1 << 20), bytes(requests == 0 ? 0 : worldAllocated / requests),
+            allocatedOther / seconds / (1 << 20), gcCount, gcTime));
+        System.out.println("plugin stats (including warm-up):");
+        for (String line : stats.report()) {
+            System.out.println("  " + line);
+        }
+    }
+
+    /**
+     * Owns one world and the bases in it, and plays that world's thread.
+     */
+    private final class WorldRunner implements Runnable {
+        final Thread thread;
+        final World world;
+        private final List<SimBase> bases = new ArrayList<>();
+        private final SplittableRandom random;
+        private final long[] tickNanos = new long[options.seconds * TICKS_PER_SECOND];
+        private int measuredTicks;
+        private long overruns;
+        private long allocatedBytes;
+
+        WorldRunner(String name, int players, SplittableRandom random) {
+            this.random = random;
+            int columns = Math.max(1, (int) Math.ceil(Math.sqrt(players)));
+            int halfExtent = columns * BASE_SPACING / 2 + 32;
+            this.world = new World(name, (halfExtent >> 5) + 1);
+            world.fillTerrain(SimBase.GROUND_Y);
+
+            for (int i = 0; i < players; i++) {
+                int x = (i % columns) * BASE_SPACING - columns * BASE_SPACING / 2;
+                int z = (i / columns) * BASE_SPACING - columns * BASE_SPACING / 2;
+                bases.add(new SimBase(world, x, z, options.chests, options.furnaces, 4, random));
+            }
+            this.thread = new Thread(this, "World-" + name);
+        }
+
+        @Override
+        public void run() {
+            double chance = 1.0 / (options.intervalSeconds * TICKS_PER_SECOND);
+            long warmupTicks = (long) options.warmupSeconds * TICKS_PER_SECOND;
+            long totalTicks = warmupTicks + tickNanos.length;
+            long allocatedAtStart = 0;
+            long next = System.nanoTime();
+
+            for (long tick = 0; tick < totalTicks; tick++) {
+                if (tick == warmupTicks) {
+                    allocatedAtStart = threadAllocatedBytes();
+                }
+
+                for (SimBase base : bases) {
+                    if (random.nextDouble() < chance) {
+                        issue(base);
+                    }
+                }
+
+                long start = System.nanoTime();
+                world.tick();
+                long elapsed = System.nanoTime() - start;
+
+                if (tick >= warmupTicks) {
+                    tickNanos[measuredTicks++] = elapsed;
+                    if (elapsed > TICK_NANOS) overruns++;
+                }
+
+                next += TICK_NANOS;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                } else {
+                    next = System.nanoTime();
+                }
+            }
+            allocatedBytes = threadAllocatedBytes() - allocatedAtStart;
+        }
+
+        private void issue(SimBase base) {
+            base.refill(random);
+            if (random.nextDouble() < options.fillRatio) {
+                track(fillService.performFill(base.player, null), fillsDone, BenchFillService.FillResult::getTotalMoved);
+            } else {
+                track(stackService.performQuickStack(base.player), stacksDone, QuickStackService.StackResult::getTotalMoved);
+            }
+        }
+    }
+
+    private <T> void track(CompletableFuture<T> request, LongAdder done, ToIntFunction<T> moved) {
+        request.whenComplete((result, error) -> {
+            if (!measuring) return;
+            if (error == null) {
+                done.increment();
+                itemsMoved.add(moved.applyAsInt(result));
+                return;
+            }
+            RequestGate.RequestRejectedException rejected = RequestGate.rejection(error);
+            if (rejected instanceof JobScheduler.BusyException) {
+                busy.increment();
+            } else if (rejected != null) {
+                rateLimited.increment();
+            } else {
+                failed.increment();
+            }
+        });
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(sorted.length * fraction) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1e6);
+    }
+
+    private static String bytes(long bytes) {
+        return bytes < 10 * 1024 ? bytes + " B" : String.format("%.1f KB", bytes / 1024.0);
+    }
+
+    private static long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static Map<Long, Long> allocatedByThread() {
+        Map<Long, Long> byThread = new HashMap<>();
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            long[] ids = bean.getAllThreadIds();
+            long[] allocated = bean.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (allocated[i] >= 0) byThread.put(ids[i], allocated[i]);
+            }
+        }
+        return byThread;
+    }
+
+    /**
+     * Bytes allocated since the snapshot by threads still alive now. Threads that exited in
+     * between (the world threads, counted separately) are not included.
+     */
+    private static long allocatedSince(Map<Long, Long> before) {
+        long total = 0;
+        for (Map.Entry<Long, Long> entry : allocatedByThread().entrySet()) {
+            total += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTimeMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Command-line settings.
+     */
+    static final class Options {
+        int players = 2000;
+        int worlds = 1;
+        int seconds = 60;
+        int warmupSeconds = 10;
+        double intervalSeconds = 20;
+        double fillRatio = 0.25;
+        int radius = 5;
+        int chests = 12;
+        int furnaces = 2;
+        int tickBudgetMicros = 2000;
+        boolean evenFill;
+        long seed = 1;
+        boolean help;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--even-fill")) {
+                    o.evenFill = true;
+                    continue;
+                }
+                if (arg.equals("--help") || arg.equals("-h")) {
+                    o.help = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                try {
+                    switch (arg) {
+                        case "--players" -> o.players = Integer.parseInt(value);
+                        case "--worlds" -> o.worlds = Math.max(1, Integer.parseInt(value));
+                        case "--seconds" -> o.seconds = Math.max(1, Integer.parseInt(value));
+                        case "--warmup" -> o.warmupSeconds = Math.max(0, Integer.parseInt(value));
+                        case "--interval" -> o.intervalSeconds = Double.parseDouble(value);
+                        case "--fill-ratio" -> o.fillRatio = Double.parseDouble(value);
+                        case "--radius" -> o.radius = Integer.parseInt(value);
+                        case "--chests" -> o.chests = Integer.parseInt(value);
+                        case "--furnaces" -> o.furnaces = Integer.parseInt(value);
+                        case "--tick-budget-us" -> o.tickBudgetMicros = Integer.parseInt(value);
+                        case "--seed" -> o.seed = Long.parseLong(value);
+                        default -> throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad value '" + value + "' for " + arg);
+                }
+            }
+            return o;
+        }
+    }
+}
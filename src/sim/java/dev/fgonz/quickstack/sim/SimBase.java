@@ -0,0 +1,103 @@
+package dev.fgonz.quickstack.sim;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.bench.ProcessingBench;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One simulated player standing in their base: chests sorted by item type, a couple of furnaces
+ * and an inventory that is refilled before every request, as if the player had been out gathering.
+ */
+final class SimBase {
+
+    /** Items players carry: ores and fuel for furnaces, and bulk blocks for chests. */
+    static final String[] ITEM_IDS = {
+        "Ore_Copper", "Ore_Iron", "Ore_Gold", "Ore_Silver", "Wood_Oak_Trunk", "Wood_Birch_Planks",
+        "Wood_Sticks", "Ingredient_Coal", "Hide_Light", "Rock_Stone", "Rock_Stone_Cobble", "Soil_Dirt",
+        "Soil_Sand", "Plant_Fiber", "Food_Bread", "Ingredient_Bar_Iron", "Rock_Basalt", "Wood_Oak_Beam"
+    };
+
+    /** Height the player stands at; terrain fills everything below. */
+    static final int GROUND_Y = 64;
+
+    private static final int CHEST_SLOTS = 18;
+    private static final int FURNACE_SLOTS = 6;
+
+    final Player player;
+    private final ItemContainer backpack = new ItemContainer(36);
+    private final ItemContainer storage = new ItemContainer(9);
+    private final List<ItemContainer> chests = new ArrayList<>();
+    private final List<String> chestItems = new ArrayList<>();
+    private final List<ProcessingBenchState> furnaces = new ArrayList<>();
+
+    /**
+     * Builds the base around (x, GROUND_Y, z). Chests and furnaces are placed within spread blocks
+     * horizontally and up to three blocks up.
+     */
+    SimBase(World world, int x, int z, int chestCount, int furnaceCount, int spread, SplittableRandom random) {
+        this.player = new Player(world, new Inventory(backpack, storage, null), new Vector3d(x + 0.5, GROUND_Y, z + 0.5));
+
+        for (int i = 0; i < chestCount; i++) {
+            ItemContainer chest = new ItemContainer(CHEST_SLOTS);
+            String item = ITEM_IDS[random.nextInt(ITEM_IDS.length)];
+            if (!place(world, x, z, spread, random, new ItemContainerState(chest))) continue;
+            chests.add(chest);
+            chestItems.add(item);
+        }
+        for (int i = 0; i < furnaceCount; i++) {
+            ProcessingBench definition = new ProcessingBench("Furnace", new ProcessingBench.ProcessingSlot("Fuel"));
+            ProcessingBenchState furnace = new ProcessingBenchState(definition, new ItemContainer(FURNACE_SLOTS));
+            if (place(world, x, z, spread, random, furnace)) {
+                furnaces.add(furnace);
+            }
+        }
+    }
+
+    private static boolean place(World world, int x, int z, int spread, SplittableRandom random, Object state) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            int bx = x + random.nextInt(-spread, spread + 1);
+            int by = GROUND_Y + random.nextInt(0, 3);
+            int bz = z + random.nextInt(-spread, spread + 1);
+            if ((bx != x || bz != z) && world.getState(bx, by, bz, true) == null) {
+                world.setState(bx, by, bz, state);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives the player a fresh inventory and resets the base: chests back to one marker stack each,
+     * furnaces empty and idle. Must run on the world's thread.
+     */
+    void refill(SplittableRandom random) {
+        fill(backpack, random);
+        fill(storage, random);
+        for (int i = 0; i < chests.size(); i++) {
+            ItemContainer chest = chests.get(i);
+            chest.clear();
+            chest.setItemStack((short) 0, new ItemStack(chestItems.get(i), 1));
+        }
+        for (ProcessingBenchState furnace : furnaces) {
+            furnace.getItemContainer().clear();
+            furnace.setActive(false);
+        }
+    }
+
+    private static void fill(ItemContainer section, SplittableRandom random) {
+        section.clear();
+        for (short slot = 0; slot < section.getCapacity(); slot++) {
+            section.setItemStack(slot, new ItemStack(ITEM_IDS[random.nextInt(ITEM_IDS.length)], 1 + random.nextInt(64)));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.bench.ProcessingBench;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.Inventory;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
+
+import dev.fgonz.quickstack.handlers.FurnaceFillHandler;
+import dev.fgonz.quickstack.jobs.JobScheduler;
+import dev.fgonz.quickstack.jobs.RequestGate;
+import dev.fgonz.quickstack.stats.QuickStackStats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Even fills through the whole snapshot, plan and commit pipeline. The test thread plays the
+ * world thread: it runs World.tick() until the fill completes.
+ */
+class BenchFillServiceTest {
+
+    private static final int Y = 64;
+
+    private World world;
+    private ItemContainer storage;
+    private Player player;
+    private JobScheduler scheduler;
+    private BenchFillService service;
+
+    @BeforeEach
+    void setUp() {
+        QuickStackConfig config = new QuickStackConfig();
+        config.setEvenFill(true);
+        config.setFuelPlanning(false);
+        config.setAdaptiveRadius(false);
+        config.setStatsLogIntervalSeconds(0);
+        LiveConfig live = new LiveConfig(config);
+        scheduler = new JobScheduler(live);
+        RequestGate gate = new RequestGate(live);
+        service = new BenchFillService(live, scheduler, gate, new QuickStackStats(scheduler, gate));
+
+        world = new World("test", 1);
+        storage = new ItemContainer(9);
+        player = new Player(world, new Inventory(new ItemContainer(9), storage, new ItemContainer(9)),
+            new Vector3d(0.5, Y, 0.5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void splitsInputEvenlyAcrossBenches() throws Exception {
+        ProcessingBenchState near = furnaceAt(2, Y, 0);
+        ProcessingBenchState far = furnaceAt(-3, Y, 0);
+        storage.setItemStack((short) 0, new ItemStack("Ore_Iron", 11));
+        storage.setItemStack((short) 1, new ItemStack("Rock_Stone", 20));
+
+        BenchFillService.FillResult result = run(service.performFill(player, null));
+
+        assertEquals(2, result.getBenchesProcessed());
+        assertEquals(11, result.getTotalMoved());
+        assertEquals(6, count(near.getItemContainer(), "Ore_Iron"), "the nearest bench takes the odd unit");
+        assertEquals(5, count(far.getItemContainer(), "Ore_Iron"));
+        assertEquals(0, count(storage, "Ore_Iron"));
+        assertEquals(20, count(storage, "Rock_Stone"));
+    }
+
+    @Test
+    void commitRevalidatesWhatChangedWhilePlanning() throws Exception {
+        PausingFurnaceHandler handler = new PausingFurnaceHandler();
+        service.registerHandler(handler);
+        ProcessingBenchState kept = furnaceAt(2, Y, 0);
+        furnaceAt(-3, Y, 0);
+        storage.setItemStack((short) 0, new ItemStack("Ore_Iron", 10));
+
+        CompletableFuture<BenchFillService.FillResult> fill = service.performFill(player, null);
+        while (!handler.planning.await(1, TimeUnit.MILLISECONDS)) {
+            world.tick();
+        }
+
+        // Planned five per bench. Before the commit, one bench is replaced by a chest and the player
+        // drops three ore
+        world.setState(-3, Y, 0, new ItemContainerState(new ItemContainer(18)));
+        storage.setItemStack((short) 0, new ItemStack("Ore_Iron", 7));
+        handler.resume.countDown();
+        BenchFillService.FillResult result = run(fill);
+
+        assertEquals(5, result.getTotalMoved());
+        assertEquals(5, count(kept.getItemContainer(), "Ore_Iron"));
+        assertEquals(2, count(storage, "Ore_Iron"));
+    }
+
+    @Test
+    void failedPlanningFallsBackWithoutTheBrokenBenches() throws Exception {
+        PausingFurnaceHandler handler = new PausingFurnaceHandler();
+        handler.failPlanning = true;
+        service.registerHandler(handler);
+        ProcessingBenchState kept = furnaceAt(2, Y, 0);
+        furnaceAt(-3, Y, 0);
+        storage.setItemStack((short) 0, new ItemStack("Ore_Iron", 10));
+
+        CompletableFuture<BenchFillService.FillResult> fill = service.performFill(player, null);
+        while (!handler.planning.await(1, TimeUnit.MILLISECONDS)) {
+            world.tick();
+        }
+        world.setState(-3, Y, 0, new ItemContainerState(new ItemContainer(18)));
+        handler.resume.countDown();
+        BenchFillService.FillResult result = run(fill);
+
+        // Nearest-first fallback: the remaining bench takes everything, the chest gets nothing
+        assertEquals(10, result.getTotalMoved());
+        assertEquals(10, count(kept.getItemContainer(), "Ore_Iron"));
+        assertEquals(0, count(storage, "Ore_Iron"));
+    }
+
+    private BenchFillService.FillResult run(CompletableFuture<BenchFillService.FillResult> fill) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!fill.isDone()) {
+            assertTrue(System.nanoTime() < deadline, "fill did not finish");
+            world.tick();
+            Thread.sleep(1);
+        }
+        return fill.get();
+    }
+
+    private ProcessingBenchState furnaceAt(int x, int y, int z) {
+        ProcessingBenchState furnace = new ProcessingBenchState(
+            new ProcessingBench("Furnace", new ProcessingBench.ProcessingSlot("Fuel")), new ItemContainer(6));
+        world.setState(x, y, z, furnace);
+        return furnace;
+    }
+
+    private static int count(ItemContainer container, String itemId) {
+        int total = 0;
+        for (short slot = 0; slot < container.getCapacity(); slot++) {
+            ItemStack stack = container.getItemStack(slot);
+            if (stack != null && stack.getItemId().equals(itemId)) {
+                total += stack.getQuantity();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Holds the first planning call on a worker thread until the test lets it go, then optionally
+     * fails it.
+     */
+    private static final class PausingFurnaceHandler extends FurnaceFillHandler {
+        final CountDownLatch planning = new CountDownLatch(1);
+        final CountDownLatch resume = new CountDownLatch(1);
+        private final AtomicBoolean paused = new AtomicBoolean();
+        volatile boolean failPlanning;
+
+        @Override
+        public boolean isValidInput(int itemId) {
+            if (Thread.currentThread().getName().startsWith("QuickStack-Worker") && paused.compareAndSet(false, true)) {
+                planning.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failPlanning) {
+                    throw new IllegalStateException("planning failed");
+                }
+            }
+            return super.isValidInput(itemId);
+        }
+    }
+}
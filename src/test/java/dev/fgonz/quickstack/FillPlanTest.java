@@ -0,0 +1,136 @@
+package dev.fgonz.quickstack;
+
+import dev.fgonz.quickstack.handlers.BenchFillHandler;
+import dev.fgonz.quickstack.handlers.FurnaceFillHandler;
+import dev.fgonz.quickstack.handlers.TanneryFillHandler;
+import dev.fgonz.quickstack.items.ItemIds;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FillPlanTest {
+
+    private static final int IRON = ItemIds.intern("Ore_Iron");
+    private static final int COPPER = ItemIds.intern("hytale:Ore_Copper");
+    private static final int COAL = ItemIds.intern("Ingredient_Coal");
+    private static final int PLANKS = ItemIds.intern("Wood_Oak_Planks");
+    private static final int HIDE = ItemIds.intern("Ingredient_Hide_Light");
+    private static final int DIRT = ItemIds.intern("Soil_Dirt");
+
+    private final BenchFillHandler furnace = new FurnaceFillHandler();
+    private final BenchFillHandler tannery = new TanneryFillHandler();
+
+    @Test
+    void splitsInputEvenlyAndRotatesRemainders() {
+        FillPlan plan = plan(furnace, furnace, furnace);
+        int[] itemIds = {IRON, COPPER, DIRT};
+        int[] available = {10, 2, 64};
+
+        plan.planEven(itemIds, available, null);
+
+        // Iron's leftover unit goes to the first bench, so copper's two go to the others
+        assertQuantities(plan, 0, 4, 3, 3);
+        assertQuantities(plan, 1, 0, 1, 1);
+        assertQuantities(plan, 2, 0, 0, 0);
+        assertArrayEquals(new int[] {0, 0, 64}, available);
+    }
+
+    @Test
+    void splitsFuelInProportionToInputWithoutAPlanner() {
+        FillPlan plan = plan(furnace, furnace, furnace);
+        int[] itemIds = {IRON, COAL};
+        int[] available = {2, 9};
+
+        plan.planEven(itemIds, available, null);
+
+        // The third bench gets no ore, so it gets no fuel either
+        assertQuantities(plan, 0, 1, 1, 0);
+        assertQuantities(plan, 1, 5, 4, 0);
+        assertArrayEquals(new int[] {0, 0}, available);
+    }
+
+    @Test
+    void splitsFuelEvenlyWhenThereIsNoInput() {
+        FillPlan plan = plan(furnace, furnace);
+        int[] available = {5};
+
+        plan.planEven(new int[] {COAL}, available, null);
+
+        assertQuantities(plan, 0, 3, 2);
+    }
+
+    @Test
+    void benchesWithoutFuelGetNone() {
+        FillPlan plan = plan(tannery, tannery);
+        int[] available = {5, 4};
+
+        plan.planEven(new int[] {HIDE, COAL}, available, null);
+
+        assertQuantities(plan, 0, 3, 2);
+        assertQuantities(plan, 1, 0, 0);
+        assertArrayEquals(new int[] {0, 4}, available);
+    }
+
+    @Test
+    void eachBenchTypeOnlyPlansWhatIsLeft() {
+        FillPlan plan = plan(furnace, tannery, furnace);
+        int[] available = {4, 3};
+
+        plan.planEven(new int[] {IRON, HIDE}, available, null);
+
+        assertQuantities(plan, 0, 2, 0, 2);
+        assertQuantities(plan, 1, 0, 3, 0);
+    }
+
+    @Test
+    void plannerSizesFuelByNeed() {
+        FuelPlanner planner = FuelPlannerTest.planner("Ingredient_Coal=40,Wood_*_Planks=5", "");
+        FillPlan plan = plan(furnace, furnace, furnace);
+        int[] itemIds = {IRON, COAL, PLANKS};
+        int[] available = {9, 2, 4};
+
+        plan.planEven(itemIds, available, planner);
+
+        // Three ore per bench is 30s. The first bench takes every plank and a coal for the last
+        // 10s, the second a coal, and the third finds no fuel left
+        assertQuantities(plan, 0, 3, 3, 3);
+        assertQuantities(plan, 1, 1, 1, 0);
+        assertQuantities(plan, 2, 4, 0, 0);
+        assertEquals(30, plan.getTargets().get(0).neededSeconds);
+        assertArrayEquals(new int[] {0, 0, 0}, available);
+    }
+
+    @Test
+    void plannerSubtractsFuelAlreadyInTheBench() {
+        FuelPlanner planner = FuelPlannerTest.planner("Wood_*_Planks=5", "");
+        FillPlan plan = plan(furnace, furnace);
+        // First bench: 20s of fuel already loaded. Second: 50s queued input, 100s fuel
+        plan.getTargets().get(0).load = new FuelPlanner.BenchLoad(0, 20);
+        plan.getTargets().get(1).load = new FuelPlanner.BenchLoad(50, 100);
+        int[] available = {6, 20};
+
+        plan.planEven(new int[] {IRON, PLANKS}, available, planner);
+
+        assertEquals(10, plan.getTargets().get(0).neededSeconds);
+        assertEquals(0, plan.getTargets().get(1).neededSeconds);
+        assertQuantities(plan, 1, 2, 0);
+    }
+
+    private static FillPlan plan(BenchFillHandler... handlers) {
+        FillPlan plan = new FillPlan();
+        for (int i = 0; i < handlers.length; i++) {
+            plan.add(new FillPlan.Target(i, null, null, handlers[i]));
+        }
+        return plan;
+    }
+
+    private static void assertQuantities(FillPlan plan, int group, int... expected) {
+        int[] actual = new int[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            actual[i] = plan.getTargets().get(i).quantities[group];
+        }
+        assertArrayEquals(expected, actual, "group " + group);
+    }
+}
@@ -0,0 +1,107 @@
+package dev.fgonz.quickstack;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.handlers.FurnaceFillHandler;
+import dev.fgonz.quickstack.handlers.RecipeIndex;
+import dev.fgonz.quickstack.items.ItemIds;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FuelPlannerTest {
+
+    private static final int COAL = ItemIds.intern("hytale:Ingredient_Coal");
+    private static final int CHARCOAL = ItemIds.intern("Ingredient_Charcoal");
+    private static final int PLANKS = ItemIds.intern("Wood_Birch_Planks");
+    private static final int STICKS = ItemIds.intern("Wood_Sticks");
+    private static final int ORE = ItemIds.intern("Ore_Iron");
+
+    private final FurnaceFillHandler furnace = new FurnaceFillHandler();
+
+    @Test
+    void burnSecondsFromTablePatternsAndDefault() {
+        FuelPlanner planner = planner("Ingredient_Coal=40, Wood_*_Planks=5", "Ingredient_Coal=50");
+
+        assertEquals(50, planner.burnSeconds(COAL), "overrides win over the defaults");
+        assertEquals(5, planner.burnSeconds(PLANKS));
+        assertEquals(3, planner.burnSeconds(STICKS), "no entry: FuelDefaultBurnSeconds");
+        assertEquals(3, planner.burnSeconds(ItemIds.NONE));
+        assertEquals(10, planner.processSeconds(ORE), "no recipe: FuelDefaultProcessSeconds");
+    }
+
+    @Test
+    void parseBurnTableSkipsMalformedEntries() {
+        Map<String, Double> table = new LinkedHashMap<>();
+        FuelPlanner.parseBurnTable("hytale:Ingredient_Coal=40,=3,Wood_Sticks,Wood_Oak_Trunk=abc,Zero=0, Plank = 2.5", table);
+
+        assertEquals(Map.of("Ingredient_Coal", 40.0, "Plank", 2.5), table);
+    }
+
+    @Test
+    void allocateUsesDenseFuelFirstWithoutOvershooting() {
+        FuelPlanner planner = planner("Ingredient_Coal=40,Ingredient_Charcoal=20,Wood_*_Planks=5", "");
+        int[] itemIds = {PLANKS, COAL, ORE, CHARCOAL};
+        int[] available = {10, 3, 8, 5};
+
+        // 95s: two coal (80s), no charcoal (20s would overshoot), then planks for the last 15s
+        int[] plan = planner.allocate(95, itemIds, furnace, available);
+
+        assertArrayEquals(new int[] {3, 2, 0, 0}, plan);
+        assertArrayEquals(new int[] {7, 1, 8, 5}, available);
+    }
+
+    @Test
+    void allocateTopsUpWithTheSmallestFuelThatCoversTheRest() {
+        FuelPlanner planner = planner("Ingredient_Coal=40,Ingredient_Charcoal=20,Wood_*_Planks=5", "");
+        int[] itemIds = {PLANKS, COAL, CHARCOAL};
+
+        // 47s: one coal and the only plank leave 2s; charcoal covers that with less waste than coal
+        int[] plan = planner.allocate(47, itemIds, furnace, new int[] {1, 3, 5});
+        assertArrayEquals(new int[] {1, 1, 1}, plan);
+
+        // Nothing covers the rest in one unit: keep adding the densest left
+        plan = planner.allocate(50, itemIds, furnace, new int[] {4, 0, 1});
+        assertArrayEquals(new int[] {4, 0, 1}, plan);
+    }
+
+    @Test
+    void allocateNothingWhenNothingIsNeeded() {
+        FuelPlanner planner = planner("Ingredient_Coal=40", "");
+        int[] available = {5};
+
+        assertArrayEquals(new int[] {0}, planner.allocate(0, new int[] {COAL}, furnace, available));
+        assertArrayEquals(new int[] {0}, planner.allocate(-10, new int[] {COAL}, furnace, available));
+        assertArrayEquals(new int[] {5}, available);
+    }
+
+    @Test
+    void readLoadCountsQueuedInputAndFuel() {
+        FuelPlanner planner = planner("Ingredient_Coal=40", "");
+        ItemContainer bench = new ItemContainer(4);
+        bench.setItemStack((short) 0, new ItemStack("Ore_Iron", 3));
+        bench.setItemStack((short) 2, new ItemStack("hytale:Ingredient_Coal", 2));
+        bench.setItemStack((short) 3, new ItemStack("Rock_Stone", 9));
+
+        FuelPlanner.BenchLoad load = planner.readLoad(bench, furnace);
+
+        assertEquals(30, load.inputSeconds);
+        assertEquals(80, load.fuelSeconds);
+        assertEquals(-50, load.backlogSeconds());
+    }
+
+    static FuelPlanner planner(String defaults, String overrides) {
+        QuickStackConfig config = new QuickStackConfig();
+        config.setFuelBurnDefaults(defaults);
+        config.setFuelBurnSeconds(overrides);
+        config.setFuelDefaultBurnSeconds(3);
+        config.setFuelDefaultProcessSeconds(10);
+        return new FuelPlanner(RecipeIndex.EMPTY, config);
+    }
+}
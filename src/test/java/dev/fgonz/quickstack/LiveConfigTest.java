@@ -0,0 +1,105 @@
+package dev.fgonz.quickstack;
+
+import dev.fgonz.quickstack.scan.NearestOffsets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveConfigTest {
+
+    @Test
+    void defaultsAreValid() {
+        assertEquals(List.of(), LiveConfig.validate(new QuickStackConfig()));
+    }
+
+    @Test
+    void reportsEveryProblem() {
+        QuickStackConfig config = new QuickStackConfig();
+        config.setTickBudgetMicros(0);
+        config.setRequestsPerMinute(-1);
+        config.setRequestBurst(-1);
+        config.setMaxActiveJobsPerWorld(0);
+        config.setMaxQueuedJobsPerWorld(-1);
+        config.setFuelDefaultBurnSeconds(0);
+        config.setFuelDefaultProcessSeconds(Double.NaN);
+
+        assertEquals(List.of(
+            "TickBudgetMicros must be positive",
+            "RequestsPerMinute must not be negative",
+            "RequestBurst must not be negative",
+            "MaxActiveJobsPerWorld must be at least 1",
+            "MaxQueuedJobsPerWorld must not be negative",
+            "FuelDefaultBurnSeconds must be positive",
+            "FuelDefaultProcessSeconds must be positive"), LiveConfig.validate(config));
+        assertEquals(List.of("config is empty"), LiveConfig.validate(null));
+    }
+
+    @Test
+    void radiusBoundsMustBeOrdered() {
+        QuickStackConfig config = new QuickStackConfig();
+        config.setMaxSearchRadius(10);
+        config.setSearchRadius(6);
+        config.setMinSearchRadius(6);
+        assertEquals(List.of(), LiveConfig.validate(config));
+
+        // A floor above the radius is fine (files from before MinSearchRadius); the shedder caps it
+        config.setSearchRadius(2);
+        assertEquals(List.of(), LiveConfig.validate(config));
+
+        config.setMinSearchRadius(2);
+        config.setSearchRadius(11);
+        assertEquals(List.of("SearchRadius must not exceed MaxSearchRadius"), LiveConfig.validate(config));
+
+        // The scan's offset tables stop at MAX_RADIUS; a larger limit would be silently ignored
+        config.setSearchRadius(6);
+        config.setMaxSearchRadius(NearestOffsets.MAX_RADIUS + 1);
+        assertEquals(List.of("MaxSearchRadius must not exceed " + NearestOffsets.MAX_RADIUS), LiveConfig.validate(config));
+        config.setMaxSearchRadius(NearestOffsets.MAX_RADIUS);
+        assertEquals(List.of(), LiveConfig.validate(config));
+
+        config.setSearchRadius(0);
+        config.setMinSearchRadius(0);
+        assertTrue(LiveConfig.validate(config).contains("SearchRadius must be at least 1"));
+        assertTrue(LiveConfig.validate(config).contains("MinSearchRadius must be at least 1"));
+    }
+
+    @Test
+    void setKeepsTheCurrentConfigWhenInvalid() {
+        QuickStackConfig initial = new QuickStackConfig();
+        LiveConfig live = new LiveConfig(initial);
+        List<QuickStackConfig> published = new ArrayList<>();
+        live.addListener(published::add);
+
+        QuickStackConfig bad = initial.copy();
+        bad.setMaxActiveJobsPerWorld(0);
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> live.set(bad));
+
+        assertEquals("MaxActiveJobsPerWorld must be at least 1", error.getMessage());
+        assertSame(initial, live.get());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void setPublishesToEveryListener() {
+        LiveConfig live = new LiveConfig(new QuickStackConfig());
+        List<QuickStackConfig> published = new ArrayList<>();
+        live.addListener(next -> {
+            throw new IllegalStateException("broken listener");
+        });
+        live.addListener(published::add);
+
+        QuickStackConfig next = live.get().copy();
+        next.setEvenFill(true);
+        live.set(next);
+
+        assertSame(next, live.get());
+        assertEquals(List.of(next), published);
+    }
+}
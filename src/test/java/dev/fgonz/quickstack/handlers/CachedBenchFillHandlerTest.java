@@ -0,0 +1,57 @@
+package dev.fgonz.quickstack.handlers;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import dev.fgonz.quickstack.items.ItemIds;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedBenchFillHandlerTest {
+
+    private static final String[] ITEMS = {
+        "hytale:Ore_Iron", "Ore_Copper", "Rock_Ore_Cobalt_Stone", "hytale:Wood_Oak_Trunk", "Wood_Birch_Planks",
+        "Wood_Sticks", "Ingredient_Coal", "hytale:Ingredient_Hide_Light", "Rock_Stone", "Food_Bread"
+    };
+
+    @Test
+    void internedChecksAgreeWithTheStringRules() {
+        BenchFillHandler[] handlers = {new FurnaceFillHandler(), new TanneryFillHandler()};
+        for (BenchFillHandler handler : handlers) {
+            for (String item : ITEMS) {
+                int id = ItemIds.intern(item);
+                // Twice: the first call classifies, the second reads the cached bit
+                for (int i = 0; i < 2; i++) {
+                    assertEquals(handler.isValidInput(item), handler.isValidInput(id), handler.getBenchId() + " input " + item);
+                    assertEquals(handler.isValidFuel(item), handler.isValidFuel(id), handler.getBenchId() + " fuel " + item);
+                }
+            }
+            assertFalse(handler.isValidInput(ItemIds.NONE));
+        }
+    }
+
+    @Test
+    void furnaceNeedsInputAndFuel() {
+        FurnaceFillHandler furnace = new FurnaceFillHandler();
+        ItemContainer container = new ItemContainer(3);
+        container.setItemStack((short) 0, new ItemStack("hytale:Ore_Iron", 4));
+        assertFalse(furnace.shouldActivate(container));
+
+        container.setItemStack((short) 2, new ItemStack("Ingredient_Coal", 1));
+        assertTrue(furnace.shouldActivate(container));
+    }
+
+    @Test
+    void tanneryNeedsOnlyInput() {
+        TanneryFillHandler tannery = new TanneryFillHandler();
+        ItemContainer container = new ItemContainer(3);
+        assertFalse(tannery.shouldActivate(container));
+
+        container.setItemStack((short) 1, new ItemStack("hytale:Ingredient_Hide_Light", 2));
+        assertTrue(tannery.shouldActivate(container));
+    }
+}
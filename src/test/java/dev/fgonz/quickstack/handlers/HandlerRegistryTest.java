@@ -0,0 +1,197 @@
+package dev.fgonz.quickstack.handlers;
+
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandlerRegistryTest {
+
+    @Test
+    void looksUpByBenchIdAndAliasIgnoringCase() {
+        HandlerRegistry registry = new HandlerRegistry();
+        FurnaceFillHandler furnace = new FurnaceFillHandler();
+        TanneryFillHandler tannery = new TanneryFillHandler();
+        registry.register(furnace);
+        registry.register(tannery);
+
+        HandlerRegistry.Snapshot snapshot = registry.snapshot();
+        assertSame(furnace, snapshot.forBench("FURNACE"));
+        assertSame(tannery, snapshot.forBench("tannery"));
+        assertSame(furnace, snapshot.forAlias("Smelt"));
+        assertSame(tannery, snapshot.forAlias("HIDE"));
+        assertNull(snapshot.forBench("Anvil"));
+        assertNull(snapshot.forBench(null));
+        assertNull(snapshot.forAlias(null));
+        assertEquals(List.of(furnace, tannery), snapshot.getHandlers());
+    }
+
+    @Test
+    void sameBenchIdReplacesInPlace() {
+        HandlerRegistry registry = new HandlerRegistry();
+        registry.register(new StubHandler("Furnace", "f"));
+        registry.register(new StubHandler("Tannery", "t"));
+        StubHandler replacement = new StubHandler("furnace", "smelt");
+        registry.register(replacement);
+
+        HandlerRegistry.Snapshot snapshot = registry.snapshot();
+        assertEquals(2, snapshot.getHandlers().size());
+        assertSame(replacement, snapshot.getHandlers().get(0));
+        assertSame(replacement, snapshot.forBench("Furnace"));
+        assertSame(replacement, snapshot.forAlias("smelt"));
+        assertNull(snapshot.forAlias("f"), "aliases of the replaced handler are gone");
+    }
+
+    @Test
+    void firstHandlerKeepsASharedAlias() {
+        HandlerRegistry registry = new HandlerRegistry();
+        StubHandler first = new StubHandler("Furnace", "s");
+        registry.register(first);
+        registry.register(new StubHandler("Sawmill", "s", null));
+
+        assertSame(first, registry.snapshot().forAlias("s"));
+    }
+
+    @Test
+    void handlerWithoutAliasesIsNamedByItsBenchId() {
+        HandlerRegistry registry = new HandlerRegistry();
+        StubHandler sawmill = new StubHandler("Sawmill");
+        StubHandler kiln = new StubHandler("Kiln", (String[]) null);
+        registry.register(sawmill);
+        registry.register(kiln);
+
+        assertEquals("Sawmill", HandlerRegistry.Snapshot.primaryName(sawmill));
+        assertEquals("Kiln", HandlerRegistry.Snapshot.primaryName(kiln));
+        assertEquals("f", HandlerRegistry.Snapshot.primaryName(new StubHandler("Furnace", null, "", "f")));
+        assertSame(sawmill, registry.snapshot().forAlias("sawmill"));
+        assertSame(kiln, registry.snapshot().forAlias("KILN"));
+    }
+
+    @Test
+    void repeatedLookupsGiveTheSameAnswer() {
+        HandlerRegistry registry = new HandlerRegistry();
+        FurnaceFillHandler furnace = new FurnaceFillHandler();
+        registry.register(furnace);
+        HandlerRegistry.Snapshot snapshot = registry.snapshot();
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(furnace, snapshot.forBench("Furnace"));
+            assertSame(furnace, snapshot.forBench("furnace"));
+            assertNull(snapshot.forBench("Anvil"));
+        }
+        // A spelling remembered as missing in one snapshot does not stick to the next
+        StubHandler anvil = new StubHandler("anvil");
+        registry.register(anvil);
+        assertSame(anvil, registry.snapshot().forBench("Anvil"));
+    }
+
+    @Test
+    void unregisterLeavesPinnedSnapshotsAlone() {
+        HandlerRegistry registry = new HandlerRegistry();
+        StubHandler furnace = new StubHandler("Furnace", "f");
+        registry.register(furnace);
+        HandlerRegistry.Snapshot pinned = registry.snapshot();
+
+        assertTrue(registry.unregister("FURNACE"));
+        assertFalse(registry.unregister("Furnace"));
+        assertFalse(registry.unregister(null));
+
+        assertNull(registry.snapshot().forBench("Furnace"));
+        assertTrue(registry.snapshot().getHandlers().isEmpty());
+        assertSame(furnace, pinned.forBench("Furnace"));
+        assertThrows(UnsupportedOperationException.class, () -> pinned.getHandlers().clear());
+    }
+
+    @Test
+    void rejectsHandlersWithoutABenchId() {
+        HandlerRegistry registry = new HandlerRegistry();
+        assertThrows(IllegalArgumentException.class, () -> registry.register(null));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(new StubHandler(null)));
+    }
+
+    @Test
+    void concurrentRegistrationsAreAllKept() throws InterruptedException {
+        HandlerRegistry registry = new HandlerRegistry();
+        int threads = 8;
+        int perThread = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    registry.register(new StubHandler("Bench_" + id + "_" + i));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        HandlerRegistry.Snapshot snapshot = registry.snapshot();
+        assertEquals(threads * perThread, snapshot.getHandlers().size());
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertEquals("Bench_" + t + "_" + i, snapshot.forBench("bench_" + t + "_" + i).getBenchId());
+            }
+        }
+    }
+
+    private static final class StubHandler implements BenchFillHandler {
+        private final String benchId;
+        private final String[] aliases;
+
+        StubHandler(String benchId, String... aliases) {
+            this.benchId = benchId;
+            this.aliases = aliases;
+        }
+
+        @Override
+        public String getBenchId() {
+            return benchId;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return benchId;
+        }
+
+        @Override
+        public String[] getAliases() {
+            return aliases;
+        }
+
+        @Override
+        public boolean isValidInput(String itemId) {
+            return false;
+        }
+
+        @Override
+        public boolean isValidFuel(String itemId) {
+            return false;
+        }
+
+        @Override
+        public boolean shouldActivate(ItemContainer container) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.fgonz.quickstack.items;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryIndexTest {
+
+    private final int iron = ItemIds.intern("index:Ore_Iron");
+    private final int coal = ItemIds.intern("index:Ingredient_Coal");
+
+    @Test
+    void groupsSlotsByItemInSectionOrder() {
+        ItemContainer hotbar = new ItemContainer(4);
+        ItemContainer storage = new ItemContainer(4);
+        hotbar.setItemStack((short) 1, new ItemStack("index:Ingredient_Coal", 5));
+        storage.setItemStack((short) 0, new ItemStack("index:Ore_Iron", 7));
+        storage.setItemStack((short) 3, new ItemStack("index:Ingredient_Coal", 2));
+
+        InventoryIndex index = InventoryIndex.build(hotbar, null, storage);
+
+        assertArrayEquals(new int[] {coal, iron}, index.copyItemIds());
+        assertArrayEquals(new int[] {7, 7}, index.copyQuantities());
+        assertEquals(2, index.slotCount(0));
+        assertSame(hotbar, index.section(0, 0));
+        assertEquals(1, index.slot(0, 0));
+        assertSame(storage, index.section(0, 1));
+        assertEquals(3, index.slot(0, 1));
+        assertEquals(7, index.quantityOf(id -> id == iron));
+    }
+
+    @Test
+    void refreshDropsSlotsThatEmptied() {
+        ItemContainer storage = new ItemContainer(4);
+        storage.setItemStack((short) 0, new ItemStack("index:Ore_Iron", 10));
+        storage.setItemStack((short) 2, new ItemStack("index:Ore_Iron", 4));
+        InventoryIndex index = InventoryIndex.build(storage);
+
+        storage.setItemStack((short) 0, new ItemStack("index:Ore_Iron", 6));
+        assertTrue(index.refresh(0, 0));
+        assertEquals(10, index.quantity(0));
+
+        storage.setItemStack((short) 0, null);
+        assertFalse(index.refresh(0, 0));
+        assertEquals(1, index.slotCount(0));
+        assertEquals(2, index.slot(0, 0));
+        assertEquals(4, index.quantity(0));
+    }
+}
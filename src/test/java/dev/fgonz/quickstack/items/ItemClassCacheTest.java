@@ -0,0 +1,51 @@
+package dev.fgonz.quickstack.items;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemClassCacheTest {
+
+    @Test
+    void classifiesEachIdOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        ItemClassCache ores = new ItemClassCache(name -> {
+            calls.incrementAndGet();
+            return name.contains("Ore_");
+        });
+        int iron = ItemIds.intern("cache:Ore_Iron");
+        int dirt = ItemIds.intern("cache:Soil_Dirt");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ores.test(iron));
+            assertFalse(ores.test(dirt));
+        }
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void resetClassifiesAgain() {
+        boolean[] match = {true};
+        ItemClassCache cache = new ItemClassCache(name -> match[0]);
+        int id = ItemIds.intern("cache:Reset");
+
+        assertTrue(cache.test(id));
+        match[0] = false;
+        assertTrue(cache.test(id));
+        cache.reset();
+        assertFalse(cache.test(id));
+    }
+
+    @Test
+    void noneAndFailingRulesDoNotMatch() {
+        ItemClassCache cache = new ItemClassCache(name -> {
+            throw new IllegalStateException("broken rule");
+        });
+        assertFalse(cache.test(ItemIds.NONE));
+        assertFalse(cache.test(ItemIds.intern("cache:Broken")));
+    }
+}
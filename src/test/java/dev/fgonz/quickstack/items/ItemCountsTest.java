@@ -0,0 +1,78 @@
+package dev.fgonz.quickstack.items;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCountsTest {
+
+    @Test
+    void sumsPerItemInFirstAddedOrder() {
+        int iron = ItemIds.intern("counts:Ore_Iron");
+        int coal = ItemIds.intern("counts:Ingredient_Coal");
+        ItemCounts counts = new ItemCounts();
+
+        counts.add(coal, 4);
+        counts.add(iron, 10);
+        counts.add(coal, 6);
+
+        assertEquals(2, counts.size());
+        assertEquals(coal, counts.itemId(0));
+        assertEquals(10, counts.count(0));
+        assertEquals(iron, counts.itemId(1));
+        assertEquals(10, counts.get(iron));
+        assertEquals(20, counts.total());
+        assertEquals(0, counts.get(ItemIds.intern("counts:Never_Added")));
+    }
+
+    @Test
+    void ignoresNoneAndNonPositiveQuantities() {
+        ItemCounts counts = new ItemCounts();
+        counts.add(ItemIds.NONE, 5);
+        counts.add(ItemIds.intern("counts:Zero"), 0);
+        counts.add(ItemIds.intern("counts:Negative"), -3);
+
+        assertTrue(counts.isEmpty());
+        assertEquals(0, counts.total());
+        assertTrue(counts.asMap().isEmpty());
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        ItemCounts counts = new ItemCounts(2);
+        for (int i = 0; i < 500; i++) {
+            counts.add(ItemIds.intern("counts:Grow_" + i), i + 1);
+        }
+        for (int i = 0; i < 500; i++) {
+            int id = ItemIds.intern("counts:Grow_" + i);
+            assertEquals(id, counts.itemId(i));
+            assertEquals(i + 1, counts.get(id));
+        }
+        assertEquals(500 * 501 / 2, counts.total());
+    }
+
+    @Test
+    void mapViewMergesDisplayNames() {
+        ItemCounts counts = new ItemCounts();
+        counts.add(ItemIds.intern("hytale:Counts_Stone"), 3);
+        counts.add(ItemIds.intern("counts:Counts_Wood"), 1);
+        counts.add(ItemIds.intern("other:Counts_Stone"), 2);
+
+        Map<String, Integer> map = counts.asMap();
+        assertEquals(List.of("Counts_Stone", "Counts_Wood"), List.copyOf(map.keySet()));
+        assertEquals(5, map.get("Counts_Stone"));
+        assertSame(map, counts.asMap());
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().clear());
+
+        counts.add(ItemIds.intern("counts:Counts_Wood"), 1);
+        assertNotSame(map, counts.asMap());
+        assertEquals(2, counts.asMap().get("Counts_Wood"));
+    }
+}
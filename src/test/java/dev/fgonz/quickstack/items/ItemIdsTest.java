@@ -0,0 +1,45 @@
+package dev.fgonz.quickstack.items;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemIdsTest {
+
+    @Test
+    void internIsStable() {
+        int iron = ItemIds.intern("test:Ore_Iron");
+        assertTrue(iron >= 0);
+        assertEquals(iron, ItemIds.intern("test:Ore_Iron"));
+        assertNotEquals(iron, ItemIds.intern("test:Ore_Copper"));
+        assertEquals("test:Ore_Iron", ItemIds.name(iron));
+    }
+
+    @Test
+    void nullAndUnknownIds() {
+        assertEquals(ItemIds.NONE, ItemIds.intern(null));
+        assertNull(ItemIds.name(ItemIds.NONE));
+        assertNull(ItemIds.name(Integer.MAX_VALUE));
+        assertEquals("Unknown", ItemIds.displayName(ItemIds.NONE));
+    }
+
+    @Test
+    void displayNameDropsTheNamespace() {
+        assertEquals("Rock_Stone", ItemIds.displayName(ItemIds.intern("hytale:Rock_Stone")));
+        assertEquals("Plant_Fiber", ItemIds.displayName(ItemIds.intern("Plant_Fiber")));
+        assertEquals("Hide", ItemIds.displayName(ItemIds.intern("mod:Hide:variant")));
+        assertEquals("odd:", ItemIds.displayName(ItemIds.intern("odd:")));
+    }
+
+    @Test
+    void growsPastTheInitialTable() {
+        int first = ItemIds.intern("test:Grow_0");
+        for (int i = 1; i < 1_000; i++) {
+            assertEquals("test:Grow_" + i, ItemIds.name(ItemIds.intern("test:Grow_" + i)));
+        }
+        assertEquals("test:Grow_0", ItemIds.name(first));
+    }
+}
@@ -0,0 +1,137 @@
+package dev.fgonz.quickstack.jobs;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import dev.fgonz.quickstack.LiveConfig;
+import dev.fgonz.quickstack.QuickStackConfig;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobSchedulerTest {
+
+    private JobScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void refusesJobsBeyondTheActiveAndQueuedLimits() throws InterruptedException {
+        scheduler = scheduler(2, 1);
+        World world = new World("test", 1);
+        List<CountingJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CountingJob job = new CountingJob(3);
+            assertTrue(scheduler.submit(world, job));
+            jobs.add(job);
+        }
+
+        assertFalse(scheduler.submit(world, new CountingJob(1)));
+        assertEquals(2, scheduler.getActiveJobs());
+        assertEquals(1, scheduler.getQueuedJobs());
+        assertEquals(1, scheduler.getBusyRejections());
+
+        runUntil(world, () -> jobs.stream().allMatch(job -> job.done));
+        assertEquals(0, scheduler.getActiveJobs());
+        assertEquals(0, scheduler.getQueuedJobs());
+        assertEquals(3, scheduler.getQueueWaitCount());
+    }
+
+    @Test
+    void queuedJobsWaitForASlot() throws InterruptedException {
+        scheduler = scheduler(1, 4);
+        World world = new World("test", 1);
+        CountingJob first = new CountingJob(5);
+        CountingJob second = new CountingJob(1);
+        scheduler.submit(world, first);
+        scheduler.submit(world, second);
+
+        runUntil(world, () -> second.done);
+        assertTrue(first.finishedAt < second.startedAt, "the queued job started before the active one finished");
+    }
+
+    @Test
+    void otherWorldsHaveTheirOwnLimits() {
+        scheduler = scheduler(1, 0);
+        World a = new World("a", 1);
+        World b = new World("b", 1);
+
+        assertTrue(scheduler.submit(a, new CountingJob(1)));
+        assertFalse(scheduler.submit(a, new CountingJob(1)));
+        assertTrue(scheduler.submit(b, new CountingJob(1)));
+    }
+
+    @Test
+    void shutdownFailsUnfinishedJobs() {
+        scheduler = scheduler(1, 1);
+        World world = new World("test", 1);
+        CountingJob active = new CountingJob(1);
+        CountingJob queued = new CountingJob(1);
+        scheduler.submit(world, active);
+        scheduler.submit(world, queued);
+
+        scheduler.shutdown();
+
+        assertTrue(active.failed);
+        assertTrue(queued.failed);
+    }
+
+    private static void runUntil(World world, BooleanSupplier done) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!done.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "jobs did not finish");
+            world.tick();
+            Thread.sleep(1);
+        }
+    }
+
+    private static JobScheduler scheduler(int maxActive, int maxQueued) {
+        QuickStackConfig config = new QuickStackConfig();
+        config.setMaxActiveJobsPerWorld(maxActive);
+        config.setMaxQueuedJobsPerWorld(maxQueued);
+        return new JobScheduler(new LiveConfig(config));
+    }
+
+    /**
+     * Finishes after a fixed number of steps, remembering when it ran. Steps run on the world
+     * thread, which here is the test thread.
+     */
+    private static final class CountingJob implements SteppedJob {
+        private static long clock;
+
+        private int remaining;
+        long startedAt = -1;
+        long finishedAt = -1;
+        boolean done;
+        boolean failed;
+
+        CountingJob(int steps) {
+            this.remaining = steps;
+        }
+
+        @Override
+        public boolean step() {
+            if (startedAt < 0) startedAt = ++clock;
+            if (--remaining > 0) return false;
+            finishedAt = ++clock;
+            done = true;
+            return true;
+        }
+
+        @Override
+        public void fail(Throwable t) {
+            failed = true;
+        }
+    }
+}
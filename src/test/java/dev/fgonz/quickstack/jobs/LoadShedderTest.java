@@ -0,0 +1,50 @@
+package dev.fgonz.quickstack.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadShedderTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(33);
+    private static final long LATE = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void sustainedLagShrinksTheRadius() {
+        LoadShedder shedder = new LoadShedder();
+        long now = 0;
+        for (int i = 0; i < 30; i++) {
+            shedder.recordLag(LATE, now += TICK);
+        }
+
+        assertTrue(shedder.isShedding());
+        assertEquals(4, shedder.radiusFor(16, 4));
+    }
+
+    @Test
+    void oneLatePumpAfterAnIdleSpellDoesNotShed() {
+        LoadShedder shedder = new LoadShedder();
+        shedder.recordLag(0, 0);
+        shedder.idle();
+
+        shedder.recordLag(LATE, TimeUnit.SECONDS.toNanos(10));
+
+        assertFalse(shedder.isShedding());
+        assertEquals(16, shedder.radiusFor(16, 4));
+    }
+
+    @Test
+    void aLongGapCountsForOnlyAFewTicks() {
+        LoadShedder shedder = new LoadShedder();
+        shedder.recordLag(0, 0);
+
+        shedder.recordLag(LATE, TimeUnit.SECONDS.toNanos(1));
+
+        // Three ticks at most: 0.75^3 of 16, not the floor
+        assertEquals(7, shedder.radiusFor(16, 1));
+    }
+}
@@ -0,0 +1,128 @@
+package dev.fgonz.quickstack.jobs;
+
+import dev.fgonz.quickstack.LiveConfig;
+import dev.fgonz.quickstack.QuickStackConfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestGateTest {
+
+    private final UUID player = UUID.randomUUID();
+
+    @Test
+    void admitsABurstThenRejectsUntilATokenRefills() {
+        RequestGate gate = gate(60, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, gate.submit(player, "stack", () -> CompletableFuture.completedFuture(0)).join());
+        }
+        CompletableFuture<Integer> rejected = gate.submit(player, "stack", () -> CompletableFuture.completedFuture(0));
+
+        RequestGate.RequestRejectedException rejection = rejection(rejected);
+        // 60 per minute: the next token is at most a second away
+        assertTrue(rejection.getRetryAfterMillis() > 0 && rejection.getRetryAfterMillis() <= 1000,
+            "retry after " + rejection.getRetryAfterMillis() + "ms");
+        assertEquals(3, gate.getAccepted());
+        assertEquals(1, gate.getRejected());
+    }
+
+    @Test
+    void bucketsArePerPlayer() {
+        RequestGate gate = gate(1, 1);
+        assertFalse(gate.submit(player, "stack", () -> CompletableFuture.completedFuture(1)).isCompletedExceptionally());
+        assertNotNull(rejection(gate.submit(player, "stack", () -> CompletableFuture.completedFuture(1))));
+        assertFalse(gate.submit(UUID.randomUUID(), "stack", () -> CompletableFuture.completedFuture(1))
+            .isCompletedExceptionally());
+    }
+
+    @Test
+    void zeroRequestsPerMinuteTurnsTheLimitOff() {
+        RequestGate gate = gate(0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, gate.submit(player, "stack", () -> CompletableFuture.completedFuture(0)).join());
+        }
+        assertEquals(0, gate.getRejected());
+    }
+
+    @Test
+    void identicalPendingRequestsShareOneFuture() {
+        RequestGate gate = gate(60, 1);
+        CompletableFuture<String> work = new CompletableFuture<>();
+        AtomicInteger starts = new AtomicInteger();
+
+        CompletableFuture<String> first = gate.submit(player, "fill:furnace", () -> {
+            starts.incrementAndGet();
+            return work;
+        });
+        CompletableFuture<String> second = gate.submit(player, "fill:furnace", () -> {
+            starts.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, starts.get());
+        assertEquals(1, gate.getCoalesced());
+        work.complete("done");
+        assertEquals("done", second.join());
+    }
+
+    @Test
+    void aFinishedRequestNoLongerCoalesces() {
+        RequestGate gate = gate(0, 0);
+        CompletableFuture<String> first = gate.submit(player, "stack", () -> CompletableFuture.completedFuture("a"));
+        CompletableFuture<String> second = gate.submit(player, "stack", () -> CompletableFuture.completedFuture("b"));
+
+        assertEquals("a", first.join());
+        assertEquals("b", second.join());
+        assertEquals(0, gate.getCoalesced());
+    }
+
+    @Test
+    void aThrowingStartFailsTheRequest() {
+        RequestGate gate = gate(0, 0);
+        CompletableFuture<String> failed = gate.submit(player, "stack", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        CompletionException error = assertThrows(CompletionException.class, failed::join);
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertNull(RequestGate.rejection(error));
+        assertEquals("ok", gate.submit(player, "stack", () -> CompletableFuture.completedFuture("ok")).join());
+    }
+
+    @Test
+    void busyIsARejection() {
+        RequestGate gate = gate(0, 0);
+        CompletableFuture<String> busy = gate.submit(player, "stack",
+            () -> CompletableFuture.failedFuture(new JobScheduler.BusyException()));
+
+        assertTrue(rejection(busy) instanceof JobScheduler.BusyException);
+    }
+
+    private static RequestGate.RequestRejectedException rejection(CompletableFuture<?> future) {
+        Throwable error = assertThrows(CompletionException.class, future::join);
+        RequestGate.RequestRejectedException rejection = RequestGate.rejection(error);
+        assertNotNull(rejection, "not a rejection: " + error);
+        return rejection;
+    }
+
+    private static RequestGate gate(int perMinute, int burst) {
+        QuickStackConfig config = new QuickStackConfig();
+        config.setRequestsPerMinute(perMinute);
+        config.setRequestBurst(burst);
+        return new RequestGate(new LiveConfig(config));
+    }
+}
@@ -0,0 +1,31 @@
+package dev.fgonz.quickstack.scan;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class BlockPosTest {
+
+    @Test
+    void packRoundTrips() {
+        int[][] positions = {
+            {0, 0, 0}, {1, 2, 3}, {-1, 64, -1}, {-33_554_432, 4095, 33_554_431}, {33_554_431, 0, -33_554_432},
+            {12_345, 319, -67_890}
+        };
+        for (int[] p : positions) {
+            long packed = BlockPos.pack(p[0], p[1], p[2]);
+            assertEquals(p[0], BlockPos.x(packed));
+            assertEquals(p[1], BlockPos.y(packed));
+            assertEquals(p[2], BlockPos.z(packed));
+        }
+    }
+
+    @Test
+    void neighboursPackDifferently() {
+        long center = BlockPos.pack(-5, 70, 9);
+        assertNotEquals(center, BlockPos.pack(-4, 70, 9));
+        assertNotEquals(center, BlockPos.pack(-5, 71, 9));
+        assertNotEquals(center, BlockPos.pack(-5, 70, 10));
+    }
+}
@@ -0,0 +1,63 @@
+package dev.fgonz.quickstack.scan;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongObjectMapTest {
+
+    @Test
+    void putGetAndOverwrite() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(0L, "zero");
+        map.put(-1L, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(-1L, "replaced");
+
+        assertEquals(3, map.size());
+        assertEquals("zero", map.get(0L));
+        assertEquals("replaced", map.get(-1L));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertNull(map.get(42L));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        LongObjectMap<Long> map = new LongObjectMap<>(4);
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key * 31, key);
+        }
+        assertEquals(10_000, map.size());
+        for (long key = 0; key < 10_000; key++) {
+            assertEquals(key, map.get(key * 31));
+        }
+    }
+
+    @Test
+    void removeIfKeepsTheSurvivorsReachable() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key, key);
+        }
+
+        assertEquals(500, map.removeIf((key, value) -> key % 2 == 0));
+
+        assertEquals(500, map.size());
+        for (long key = 0; key < 1_000; key++) {
+            assertEquals(key % 2 == 0 ? null : key, map.get(key));
+        }
+        assertEquals(0, map.removeIf((key, value) -> false));
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(7L, "seven");
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(7L));
+    }
+}
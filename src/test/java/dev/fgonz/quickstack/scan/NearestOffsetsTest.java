@@ -0,0 +1,71 @@
+package dev.fgonz.quickstack.scan;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearestOffsetsTest {
+
+    @Test
+    void ranksAreOrderedByDistance() {
+        for (int radius = 1; radius <= NearestOffsets.MAX_RADIUS; radius++) {
+            NearestOffsets offsets = new NearestOffsets(radius);
+            int side = radius * 2 + 1;
+            assertEquals(side * side * side, offsets.size());
+            assertEquals(0, distSq(offsets, 0), "rank 0 is the center");
+
+            for (int rank = 1; rank < offsets.size(); rank++) {
+                assertTrue(distSq(offsets, rank - 1) <= distSq(offsets, rank),
+                    "radius " + radius + ", rank " + rank + " is nearer than the one before it");
+            }
+        }
+    }
+
+    @Test
+    void rankOfInvertsTheOrder() {
+        NearestOffsets offsets = new NearestOffsets(6);
+        for (int rank = 0; rank < offsets.size(); rank++) {
+            assertEquals(rank, offsets.rankOf(offsets.dx(rank), offsets.dy(rank), offsets.dz(rank)));
+        }
+    }
+
+    @Test
+    void rankOfOutsideTheCube() {
+        NearestOffsets offsets = new NearestOffsets(3);
+        assertEquals(-1, offsets.rankOf(4, 0, 0));
+        assertEquals(-1, offsets.rankOf(0, -4, 0));
+        assertEquals(-1, offsets.rankOf(0, 0, 4));
+        assertTrue(offsets.rankOf(3, -3, 3) >= 0);
+    }
+
+    @Test
+    void prefixWithinCountsOffsetsInsideTheSphere() {
+        int radius = 7;
+        NearestOffsets offsets = new NearestOffsets(radius);
+        for (int d = 0; d <= radius; d++) {
+            int expected = 0;
+            for (int rank = 0; rank < offsets.size(); rank++) {
+                if (distSq(offsets, rank) <= d * d) expected++;
+            }
+            assertEquals(expected, offsets.prefixWithin(d), "d = " + d);
+        }
+        assertEquals(0, offsets.prefixWithin(-1));
+        assertEquals(offsets.prefixWithin(radius), offsets.prefixWithin(radius + 5));
+    }
+
+    @Test
+    void forRadiusClampsAndCaches() {
+        assertEquals(1, NearestOffsets.forRadius(0).getRadius());
+        assertEquals(NearestOffsets.MAX_RADIUS, NearestOffsets.forRadius(99).getRadius());
+        assertSame(NearestOffsets.forRadius(5), NearestOffsets.forRadius(5));
+    }
+
+    private static int distSq(NearestOffsets offsets, int rank) {
+        int dx = offsets.dx(rank);
+        int dy = offsets.dy(rank);
+        int dz = offsets.dz(rank);
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
@@ -0,0 +1,169 @@
+package dev.fgonz.quickstack.scan;
+
+import com.hypixel.hytale.builtin.crafting.state.ProcessingBenchState;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.bench.ProcessingBench;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearestScanTest {
+
+    private static final int X = 0;
+    private static final int Y = 64;
+    private static final int Z = 0;
+
+    @Test
+    void findsEveryContainerInRangeNearestFirst() {
+        World world = new World("test", 1);
+        world.fillTerrain(Y);
+        Set<Long> expected = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(7);
+        int radius = 10;
+        for (int i = 0; i < 200; i++) {
+            int x = X + random.nextInt(-14, 15);
+            int y = Y + random.nextInt(-14, 15);
+            int z = Z + random.nextInt(-14, 15);
+            world.setState(x, y, z, chest());
+            if (Math.abs(x - X) <= radius && Math.abs(y - Y) <= radius && Math.abs(z - Z) <= radius) {
+                expected.add(BlockPos.pack(x, y, z));
+            }
+        }
+
+        List<Long> found = scan(world, radius, ContainerIndex.KIND_CONTAINER);
+
+        assertEquals(expected, new HashSet<>(found));
+        assertEquals(expected.size(), found.size(), "no position is handed out twice");
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(distSq(found.get(i - 1)) <= distSq(found.get(i)), "hit " + i + " is nearer than the one before it");
+        }
+    }
+
+    @Test
+    void sameOrderFromAWarmIndex() {
+        World world = new World("test", 1);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 100; i++) {
+            world.setState(X + random.nextInt(-8, 9), Y + random.nextInt(-8, 9), Z + random.nextInt(-8, 9), chest());
+        }
+        ContainerIndex index = ContainerIndex.forWorld(world);
+
+        List<Long> cold = scan(world, index, 8, ContainerIndex.KIND_CONTAINER);
+        List<Long> warm = scan(world, index, 8, ContainerIndex.KIND_CONTAINER);
+
+        assertEquals(cold, warm);
+    }
+
+    @Test
+    void kindMaskSeparatesBenchesFromContainers() {
+        World world = new World("test", 1);
+        world.setState(X + 1, Y, Z, chest());
+        world.setState(X + 2, Y, Z, furnace());
+        world.setState(X, Y, Z + 3, chest());
+
+        assertEquals(List.of(BlockPos.pack(X + 1, Y, Z), BlockPos.pack(X, Y, Z + 3)),
+            scan(world, 5, ContainerIndex.KIND_CONTAINER));
+        assertEquals(List.of(BlockPos.pack(X + 2, Y, Z)), scan(world, 5, ContainerIndex.KIND_BENCH));
+        assertEquals(3, scan(world, 5, ContainerIndex.KIND_CONTAINER | ContainerIndex.KIND_BENCH).size());
+    }
+
+    @Test
+    void handsBackTheStateProbedInTheSameCall() {
+        World world = new World("test", 1);
+        ItemContainerState chest = chest();
+        world.setState(X + 2, Y + 1, Z - 1, chest);
+
+        NearestScan scan = new NearestScan(world, ContainerIndex.forWorld(world), X, Y, Z, 4,
+            ContainerIndex.KIND_CONTAINER, ScanMode.LOADED_ONLY);
+        // One call covers the whole shell, so the hit is probed and handed out together
+        assertEquals(NearestScan.FOUND, scan.advance(100_000));
+        assertEquals(BlockPos.pack(X + 2, Y + 1, Z - 1), scan.position());
+        assertSame(chest, scan.state());
+        assertEquals(NearestScan.DONE, runUntilSettled(scan));
+    }
+
+    @Test
+    void forgetsStatesProbedInEarlierCalls() {
+        World world = new World("test", 1);
+        world.setState(X + 2, Y + 1, Z - 1, chest());
+
+        NearestScan scan = new NearestScan(world, ContainerIndex.forWorld(world), X, Y, Z, 4,
+            ContainerIndex.KIND_CONTAINER, ScanMode.LOADED_ONLY);
+        // Probed over many small calls, as over several ticks: the block may be gone by now
+        assertEquals(NearestScan.FOUND, runUntilSettled(scan, 1));
+        assertEquals(BlockPos.pack(X + 2, Y + 1, Z - 1), scan.position());
+        assertNull(scan.state());
+    }
+
+    @Test
+    void skipsChunksThatAreNotLoaded() {
+        // Loaded blocks run from -32 to 63 on both axes
+        World world = new World("test", 1);
+        world.setState(60, Y, 60, chest());
+
+        NearestScan scan = new NearestScan(world, ContainerIndex.forWorld(world), 60, Y, 60, 8,
+            ContainerIndex.KIND_CONTAINER, ScanMode.LOADED_ONLY);
+        assertEquals(NearestScan.FOUND, runUntilSettled(scan));
+        assertEquals(BlockPos.pack(60, Y, 60), scan.position());
+        assertEquals(NearestScan.DONE, runUntilSettled(scan));
+        assertTrue(scan.getSkippedChunks() > 0);
+        assertFalse(scan.canLookUp(BlockPos.pack(64, Y, 60)));
+    }
+
+    private static List<Long> scan(World world, int radius, int kindMask) {
+        return scan(world, ContainerIndex.forWorld(world), radius, kindMask);
+    }
+
+    private static List<Long> scan(World world, ContainerIndex index, int radius, int kindMask) {
+        NearestScan scan = new NearestScan(world, index, X, Y, Z, radius, kindMask, ScanMode.LOADED_ONLY);
+        List<Long> found = new ArrayList<>();
+        int status;
+        // Small probe budgets, so shells are indexed over several calls as on the world thread
+        while ((status = scan.advance(64)) != NearestScan.DONE) {
+            if (status == NearestScan.FOUND) {
+                found.add(scan.position());
+            }
+        }
+        return found;
+    }
+
+    private static int runUntilSettled(NearestScan scan) {
+        return runUntilSettled(scan, 64);
+    }
+
+    private static int runUntilSettled(NearestScan scan, int maxProbes) {
+        int status;
+        while ((status = scan.advance(maxProbes)) == NearestScan.PENDING) {
+        }
+        return status;
+    }
+
+    private static long distSq(long pos) {
+        long dx = BlockPos.x(pos) - X;
+        long dy = BlockPos.y(pos) - Y;
+        long dz = BlockPos.z(pos) - Z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static ItemContainerState chest() {
+        return new ItemContainerState(new ItemContainer(18));
+    }
+
+    private static ProcessingBenchState furnace() {
+        return new ProcessingBenchState(new ProcessingBench("Furnace", new ProcessingBench.ProcessingSlot("Fuel")),
+            new ItemContainer(6));
+    }
+}
@@ -0,0 +1,68 @@
+package dev.fgonz.quickstack.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsByPowerOfTwoMicros() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500);                 // under 1us
+        histogram.record(micros(1));           // [1, 2)
+        histogram.record(micros(3));           // [2, 4)
+        histogram.record(micros(1000));        // [512, 1024)
+        histogram.record(micros(1024));        // [1024, 2048)
+        histogram.record(-1);                  // ignored
+
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(1, histogram.getBucketCount(1));
+        assertEquals(1, histogram.getBucketCount(2));
+        assertEquals(1, histogram.getBucketCount(10));
+        assertEquals(1, histogram.getBucketCount(11));
+        assertEquals(5, histogram.getCount());
+        assertEquals(1024, LatencyHistogram.bucketBoundMicros(10));
+    }
+
+    @Test
+    void hugeSamplesLandInTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.HOURS.toNanos(2));
+
+        assertEquals(1, histogram.getBucketCount(LatencyHistogram.BUCKETS - 1));
+        assertEquals(TimeUnit.HOURS.toMicros(2), histogram.getPercentileMicros(0.5));
+    }
+
+    @Test
+    void percentilesReportTheirBucketBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 90 fast samples at 100us, 9 at 5ms, one at 40ms
+        for (int i = 0; i < 90; i++) histogram.record(micros(100));
+        for (int i = 0; i < 9; i++) histogram.record(micros(5_000));
+        histogram.record(micros(40_000));
+
+        assertEquals(128, histogram.getPercentileMicros(0.5));
+        assertEquals(128, histogram.getPercentileMicros(0.9));
+        assertEquals(8_192, histogram.getPercentileMicros(0.95));
+        assertEquals(8_192, histogram.getPercentileMicros(0.99));
+        // The top bucket's bound (65536us) is capped at the largest sample seen
+        assertEquals(40_000, histogram.getPercentileMicros(1.0));
+        assertEquals(40_000, histogram.getMaxMicros());
+        assertEquals((90 * 100 + 9 * 5_000 + 40_000) / 100, histogram.getMeanMicros());
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMicros(0.99));
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getMaxMicros());
+    }
+
+    private static long micros(long micros) {
+        return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+}